@@ -0,0 +1,99 @@
+package com.fuzzyga.benchmarks;
+
+import com.fuzzyga.core.data.HeapColumnarDataset;
+import com.fuzzyga.core.models.FuzzySystemDescriptor;
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InputVariable;
+import com.fuzzyga.ga.Chromosome;
+import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.Individual;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic, seeded fixtures shared by the benchmarks, so every run measures the same workload.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 42L;
+
+    // Inputs are drawn from this range; the sets generated for the descriptor cover it.
+    static final double INPUT_MIN = 0.0;
+    static final double INPUT_MAX = 10.0;
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<InputVariable> variables(int numInputs) {
+        return IntStream.rangeClosed(1, numInputs).mapToObj(i -> new InputVariable("x" + i)).toList();
+    }
+
+    static FuzzySystemDescriptor descriptor(int numInputs, int setsPerVariable) {
+        Map<String, FuzzySystemDescriptor.Range> parameterRanges = Map.of(
+            "center", new FuzzySystemDescriptor.Range(INPUT_MIN, INPUT_MAX),
+            "width", new FuzzySystemDescriptor.Range(1.0, 5.0),
+            "consequent", new FuzzySystemDescriptor.Range(-10.0, 10.0)
+        );
+        return new FuzzySystemDescriptor(variables(numInputs), setsPerVariable, parameterRanges);
+    }
+
+    /**
+     * Samples a smooth target function of all inputs at uniformly random points.
+     */
+    static HeapColumnarDataset dataset(int numInputs, int rows, Random random) {
+        double[][] inputs = new double[numInputs][rows];
+        double[] outputs = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            double y = 0.0;
+            for (int v = 0; v < numInputs; v++) {
+                double x = random.nextDouble(INPUT_MIN, INPUT_MAX);
+                inputs[v][row] = x;
+                y += (v % 2 == 0) ? Math.sin(x) : 0.1 * x * x;
+            }
+            outputs[row] = y;
+        }
+        return new HeapColumnarDataset(variables(numInputs), inputs, outputs);
+    }
+
+    /**
+     * Generates a genome in the chromosome layout: evenly spread set centers with random jitter and widths
+     * that overlap their neighbours, followed by random consequent parameters.
+     */
+    static double[] genes(int numInputs, int setsPerVariable, Random random) {
+        double[] genes = new double[GridTskSystem.parameterCount(numInputs, setsPerVariable)];
+        double spacing = (INPUT_MAX - INPUT_MIN) / Math.max(1, setsPerVariable - 1);
+        int gene = 0;
+        for (int v = 0; v < numInputs; v++) {
+            for (int s = 0; s < setsPerVariable; s++) {
+                genes[gene++] = INPUT_MIN + s * spacing + random.nextDouble(-0.25, 0.25) * spacing;
+                genes[gene++] = spacing * random.nextDouble(1.0, 2.0);
+            }
+        }
+        while (gene < genes.length) {
+            genes[gene++] = random.nextDouble(-10.0, 10.0);
+        }
+        return genes;
+    }
+
+    /**
+     * Creates a population whose individuals all still need to be evaluated.
+     */
+    static List<Individual> population(int numInputs, int setsPerVariable, int size, Random random) {
+        List<Individual> population = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            population.add(new Individual(new Chromosome(genes(numInputs, setsPerVariable, random)), -1));
+        }
+        return population;
+    }
+
+    /**
+     * A configuration that runs exactly one generation and never stops early.
+     */
+    static GaConfig singleGeneration(int populationSize) {
+        return new GaConfig(populationSize, 1, 2, 0.8, 0.1, 0.5, 3, Double.POSITIVE_INFINITY);
+    }
+}
@@ -0,0 +1,65 @@
+package com.fuzzyga.benchmarks;
+
+import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
+import com.fuzzyga.fuzzy.CompiledTskSystem;
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.TskInferenceSystem;
+import com.fuzzyga.ga.Chromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a chromosome into an executable fuzzy system, for each decoded representation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class DecodeBenchmark {
+
+    @Param({"2", "4"})
+    public int numInputs;
+
+    @Param({"3", "5"})
+    public int setsPerVariable;
+
+    private FuzzySystemFitnessEvaluator evaluator;
+    private Chromosome chromosome;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        evaluator = new FuzzySystemFitnessEvaluator(BenchmarkFixtures.descriptor(numInputs, setsPerVariable),
+            BenchmarkFixtures.dataset(numInputs, 1, random));
+        chromosome = new Chromosome(BenchmarkFixtures.genes(numInputs, setsPerVariable, random));
+    }
+
+    @Benchmark
+    public TskInferenceSystem decode() {
+        return evaluator.decode(chromosome);
+    }
+
+    @Benchmark
+    public CompiledTskSystem compile() {
+        return evaluator.compile(chromosome);
+    }
+
+    @Benchmark
+    public GridTskSystem decodeGrid() {
+        return evaluator.decodeGrid(chromosome);
+    }
+}
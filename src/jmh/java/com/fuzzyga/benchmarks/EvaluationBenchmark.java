@@ -0,0 +1,90 @@
+package com.fuzzyga.benchmarks;
+
+import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
+import com.fuzzyga.fuzzy.InferenceMode;
+import com.fuzzyga.ga.Individual;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to score one whole population against the dataset: serially, on a fixed thread pool (one task per
+ * individual) and on the common fork-join pool (split over individuals and row ranges).
+ * The population never carries fitness values, so every invocation evaluates every individual.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class EvaluationBenchmark {
+
+    @Param({"2", "4"})
+    public int numInputs;
+
+    @Param({"3"})
+    public int setsPerVariable;
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    @Param({"50", "200"})
+    public int populationSize;
+
+    @Param({"SPARSE", "BATCH"})
+    public InferenceMode inferenceMode;
+
+    private FuzzySystemFitnessEvaluator evaluator;
+    private List<Individual> population;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        evaluator = new FuzzySystemFitnessEvaluator(BenchmarkFixtures.descriptor(numInputs, setsPerVariable),
+            BenchmarkFixtures.dataset(numInputs, datasetSize, random));
+        evaluator.setInferenceMode(inferenceMode);
+        // The population is the same on every invocation; measure evaluation, not cache lookups.
+        evaluator.setFitnessCacheSize(0);
+        population = BenchmarkFixtures.population(numInputs, setsPerVariable, populationSize, random);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Individual> serial() {
+        return evaluator.evaluatePopulation(population, null);
+    }
+
+    @Benchmark
+    public List<Individual> executor() {
+        return evaluator.evaluatePopulation(population, executor);
+    }
+
+    @Benchmark
+    public List<Individual> forkJoin() {
+        return evaluator.evaluatePopulation(population, ForkJoinPool.commonPool());
+    }
+}
@@ -0,0 +1,96 @@
+package com.fuzzyga.benchmarks;
+
+import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
+import com.fuzzyga.ga.GeneticAlgorithmEngine;
+import com.fuzzyga.ga.Individual;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of one {@link GeneticAlgorithmEngine#evolve} generation: evaluating the population, breeding
+ * the next one, and the engine's final evaluation of the offspring.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class GenerationBenchmark {
+
+    @Param({"2", "4"})
+    public int numInputs;
+
+    @Param({"3"})
+    public int setsPerVariable;
+
+    @Param({"1000", "100000"})
+    public int datasetSize;
+
+    @Param({"50", "200"})
+    public int populationSize;
+
+    private GeneticAlgorithmEngine engine;
+    private List<Individual> initialPopulation;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The engine logs every generation; keep that out of the measurement.
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(GeneticAlgorithmEngine.class))
+            .setLevel(ch.qos.logback.classic.Level.WARN);
+
+        Random random = new Random(BenchmarkFixtures.SEED);
+        FuzzySystemFitnessEvaluator evaluator = new FuzzySystemFitnessEvaluator(
+            BenchmarkFixtures.descriptor(numInputs, setsPerVariable),
+            BenchmarkFixtures.dataset(numInputs, datasetSize, random));
+        // Every invocation starts from the same population; measure evaluation, not cache lookups.
+        evaluator.setFitnessCacheSize(0);
+        engine = new GeneticAlgorithmEngine(BenchmarkFixtures.singleGeneration(populationSize), evaluator);
+        initialPopulation = BenchmarkFixtures.population(numInputs, setsPerVariable, populationSize, random);
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Individual serial() {
+        return engine.evolve(initialPopulation, null);
+    }
+
+    @Benchmark
+    public Individual executor() {
+        return engine.evolve(initialPopulation, executor);
+    }
+
+    @Benchmark
+    public Individual bufferedSerial() {
+        return engine.evolveBuffered(initialPopulation, null);
+    }
+
+    @Benchmark
+    public Individual bufferedExecutor() {
+        return engine.evolveBuffered(initialPopulation, executor);
+    }
+}
@@ -0,0 +1,129 @@
+package com.fuzzyga.benchmarks;
+
+import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
+import com.fuzzyga.fuzzy.CompiledTskSystem;
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InferenceMode;
+import com.fuzzyga.fuzzy.InputVariable;
+import com.fuzzyga.fuzzy.TskInferenceSystem;
+import com.fuzzyga.ga.Chromosome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a single fuzzy system over a fixed block of samples, for each inference implementation.
+ * Every benchmark scores the whole block, so the reported time is per sample.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class InferenceBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"2", "4"})
+    public int numInputs;
+
+    @Param({"3", "5"})
+    public int setsPerVariable;
+
+    private TskInferenceSystem system;
+    private CompiledTskSystem compiled;
+    private GridTskSystem grid;
+    private GridTskSystem.Workspace workspace;
+    private GridTskSystem.BatchWorkspace batchWorkspace;
+
+    private List<Map<InputVariable, Double>> sampleMaps;
+    private double[][] samples;   // [sample][variable]
+    private double[][] columns;   // [variable][sample]
+    private double[] outputs;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        List<InputVariable> variables = BenchmarkFixtures.variables(numInputs);
+        double[] genes = BenchmarkFixtures.genes(numInputs, setsPerVariable, random);
+
+        grid = GridTskSystem.of(variables, setsPerVariable, genes);
+        compiled = CompiledTskSystem.fromGrid(variables, setsPerVariable, genes);
+        system = new FuzzySystemFitnessEvaluator(BenchmarkFixtures.descriptor(numInputs, setsPerVariable),
+            BenchmarkFixtures.dataset(numInputs, 1, random)).decode(new Chromosome(genes));
+        workspace = grid.newWorkspace();
+        batchWorkspace = grid.newBatchWorkspace(SAMPLES);
+
+        samples = new double[SAMPLES][numInputs];
+        columns = new double[numInputs][SAMPLES];
+        sampleMaps = new ArrayList<>(SAMPLES);
+        for (int i = 0; i < SAMPLES; i++) {
+            Map<InputVariable, Double> map = new HashMap<>();
+            for (int v = 0; v < numInputs; v++) {
+                double x = random.nextDouble(BenchmarkFixtures.INPUT_MIN, BenchmarkFixtures.INPUT_MAX);
+                samples[i][v] = x;
+                columns[v][i] = x;
+                map.put(variables.get(v), x);
+            }
+            sampleMaps.add(map);
+        }
+        outputs = new double[SAMPLES];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void ruleObjects(Blackhole blackhole) {
+        for (Map<InputVariable, Double> sample : sampleMaps) {
+            blackhole.consume(system.calculate(sample));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void compiled(Blackhole blackhole) {
+        for (double[] sample : samples) {
+            blackhole.consume(compiled.calculate(sample));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void gridDense(Blackhole blackhole) {
+        for (double[] sample : samples) {
+            blackhole.consume(grid.calculate(sample, workspace, InferenceMode.DENSE));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void gridSparse(Blackhole blackhole) {
+        for (double[] sample : samples) {
+            blackhole.consume(grid.calculate(sample, workspace, InferenceMode.SPARSE));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double[] gridBatch() {
+        grid.calculateBatch(columns, SAMPLES, outputs, batchWorkspace);
+        return outputs;
+    }
+}
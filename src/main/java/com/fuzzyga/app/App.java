@@ -1,25 +1,60 @@
 package com.fuzzyga.app;
 
+import com.fuzzyga.core.ConsequentRefinement;
 import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
-import com.fuzzyga.core.data.Dataset;
+import com.fuzzyga.core.StreamingTrainer;
+import com.fuzzyga.core.data.ColumnarDataset;
+import com.fuzzyga.core.data.HeapColumnarDataset;
+import com.fuzzyga.core.data.MappedColumnarDataset;
+import com.fuzzyga.core.data.RowSource;
+import com.fuzzyga.core.data.SlidingWindowDataset;
+import com.fuzzyga.core.data.TextRowSource;
 import com.fuzzyga.core.models.FuzzySystemDescriptor;
 import com.fuzzyga.fuzzy.InputVariable;
+import com.fuzzyga.fuzzy.ModelFormat;
 import com.fuzzyga.fuzzy.TskInferenceSystem;
+import com.fuzzyga.ga.Checkpoint;
 import com.fuzzyga.ga.GaConfig;
 import com.fuzzyga.ga.GeneticAlgorithmEngine;
 import com.fuzzyga.ga.Individual;
+import com.fuzzyga.ga.IslandModelEngine;
+import com.fuzzyga.ga.MetricsExporter;
+import com.fuzzyga.ga.RandomStreams;
+import com.fuzzyga.ga.SteadyStateEngine;
 import com.fuzzyga.utils.ConfigLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.random.RandomGenerator.SplittableGenerator;
 
 public class App {
 
     private static final Logger logger = LoggerFactory.getLogger(App.class);
+    private static final String BINARY_DATASET_EXTENSION = ".fgds";
+    private static final String MINI_BATCH_PROPERTY = "fuzzyga.miniBatchSize";
+    private static final String EARLY_ABORT_PROPERTY = "fuzzyga.earlyAbort";
+    private static final String STEADY_STATE_PROPERTY = "fuzzyga.steadyState";
+    private static final String CHECKPOINT_PROPERTY = "fuzzyga.checkpoint";
+    private static final String CHECKPOINT_INTERVAL_PROPERTY = "fuzzyga.checkpointInterval";
+    private static final String METRICS_PROPERTY = "fuzzyga.metrics";
+    private static final String SEED_PROPERTY = "fuzzyga.seed";
+    private static final String REFINEMENT_PROPERTY = "fuzzyga.refineConsequents";
+    private static final String DELTA_PARENTS_PROPERTY = "fuzzyga.deltaParents";
+    private static final String FIRING_CACHE_PROPERTY = "fuzzyga.firingCacheMb";
+    private static final String STREAM_PROPERTY = "fuzzyga.stream";
+    private static final String WINDOW_SIZE_PROPERTY = "fuzzyga.windowSize";
+    private static final String MODEL_PROPERTY = "fuzzyga.model";
+    private static final Duration TAIL_POLL_INTERVAL = Duration.ofMillis(200);
 
     public static void main(String[] args) {
         try {
@@ -27,30 +62,144 @@ public class App {
             GaConfig config = ConfigLoader.loadConfig("config.properties");
             logger.info("Configuration loaded: {}", config);
 
-            // 2. Load Dataset
-            Dataset dataset = Dataset.fromResource("datasets/3dfunc.txt");
-            logger.info("Dataset loaded with {} data points.", dataset.size());
+            // 2. Load Dataset, or open the stream that fills a sliding window
+            String stream = System.getProperty(STREAM_PROPERTY);
+            RowSource source = (stream == null) ? null : openStream(stream);
+            SlidingWindowDataset window = (source == null) ? null
+                : new SlidingWindowDataset(source.inputVariables(), Integer.getInteger(WINDOW_SIZE_PROPERTY, 10_000));
+            ColumnarDataset dataset = (window == null) ? loadDataset(args) : window;
+            if (window == null) {
+                logger.info("Dataset loaded with {} data points.", dataset.size());
+            } else {
+                logger.info("Streaming rows from {} into a window of {} rows.", stream, window.capacity());
+            }
 
             // 3. Define the Fuzzy System Architecture
-            FuzzySystemDescriptor descriptor = createFuzzySystemDescriptor();
+            FuzzySystemDescriptor descriptor = createFuzzySystemDescriptor(dataset.inputVariables());
             logger.info("Fuzzy System Descriptor created.");
 
             // 4. Create the Fitness Evaluator
             FuzzySystemFitnessEvaluator evaluator = new FuzzySystemFitnessEvaluator(descriptor, dataset);
+            Long seed = Long.getLong(SEED_PROPERTY);
+            SplittableGenerator random = (seed == null) ? RandomStreams.create() : RandomStreams.create(seed);
+            if (seed != null) {
+                evaluator.setRandomSeed(random.nextLong());
+                logger.info("Using random seed {}.", seed);
+            }
+            int miniBatchSize = Integer.getInteger(MINI_BATCH_PROPERTY, 0);
+            if (miniBatchSize > 0) {
+                evaluator.setMiniBatchSize(miniBatchSize);
+                logger.info("Scoring offspring on random mini-batches of {} rows.", miniBatchSize);
+            }
+            if (Boolean.getBoolean(EARLY_ABORT_PROPERTY)) {
+                evaluator.setEarlyAbort(true);
+                logger.info("Abandoning offspring that cannot beat the worst elite.");
+            }
+            String refinement = System.getProperty(REFINEMENT_PROPERTY);
+            if (refinement != null) {
+                evaluator.setConsequentRefinement(ConsequentRefinement.valueOf(refinement.toUpperCase()));
+                logger.info("Fitting rule consequents by least squares: {}.", evaluator.getConsequentRefinement());
+            }
+            int firingCacheMb = Integer.getInteger(FIRING_CACHE_PROPERTY, 0);
+            if (firingCacheMb > 0) {
+                evaluator.setFiringCacheBudget(firingCacheMb * 1024L * 1024L);
+                logger.info("Caching rule firings of shared antecedents in up to {} MB.", firingCacheMb);
+            }
+            int deltaParents = Integer.getInteger(DELTA_PARENTS_PROPERTY, 0);
+            if (deltaParents > 0) {
+                evaluator.setDeltaParentCount(deltaParents);
+                logger.info("Scoring consequent-only offspring of the {} fittest survivors incrementally.", deltaParents);
+            }
 
             // 5. Create and Run the Genetic Algorithm
-            GeneticAlgorithmEngine ga = new GeneticAlgorithmEngine(config, evaluator);
+            String mode = (source != null) ? "streaming"
+                : (config.islandCount() > 1) ? "island"
+                : Boolean.getBoolean(STEADY_STATE_PROPERTY) ? "steady-state"
+                : null;
+            if (mode != null) {
+                for (String property : List.of(CHECKPOINT_PROPERTY, CHECKPOINT_INTERVAL_PROPERTY, METRICS_PROPERTY)) {
+                    if (System.getProperty(property) != null) {
+                        logger.warn("Ignoring -D{}: it only applies to generational runs, not to {} runs.", property, mode);
+                    }
+                }
+            }
             logger.info("Starting Genetic Algorithm evolution...");
-
-            Individual bestSolution = ga.evolve(null, null);
+            Individual bestSolution;
+            if (source != null) {
+                // Evolves against the window as rows arrive. Standard input ends once the population has settled
+                // on its last rows; a followed file never ends, so the run lasts until the process is stopped.
+                StreamingTrainer trainer = new StreamingTrainer(config, evaluator, window, source, random);
+                bestSolution = trainer.run(ForkJoinPool.commonPool());
+                logger.info("Streaming: {}", trainer.getStats());
+                if (bestSolution == null) {
+                    logger.error("The stream ended before the window held {} rows.", trainer.getMinimumWindowSize());
+                    return;
+                }
+            } else if (config.islandCount() > 1) {
+                // One thread per island; each island evaluates its own population serially
+                ExecutorService islandExecutor = Executors.newFixedThreadPool(
+                    Math.min(config.islandCount(), Runtime.getRuntime().availableProcessors()));
+                try {
+                    bestSolution = new IslandModelEngine(config, evaluator, random).evolve(null, islandExecutor);
+                } finally {
+                    islandExecutor.shutdownNow();
+                }
+            } else if (Boolean.getBoolean(STEADY_STATE_PROPERTY)) {
+                // One worker per core, each breeding and scoring its own children without generation barriers
+                int workers = Runtime.getRuntime().availableProcessors();
+                ExecutorService workerExecutor = Executors.newFixedThreadPool(workers);
+                try {
+                    bestSolution = new SteadyStateEngine(config, evaluator, random).evolve(null, workerExecutor, workers);
+                } finally {
+                    workerExecutor.shutdownNow();
+                }
+            } else {
+                GeneticAlgorithmEngine ga = new GeneticAlgorithmEngine(config, evaluator, random);
+                String checkpoint = System.getProperty(CHECKPOINT_PROPERTY);
+                if (checkpoint != null) {
+                    ga.setCheckpointing(Path.of(checkpoint), Integer.getInteger(CHECKPOINT_INTERVAL_PROPERTY, 10));
+                }
+                String metrics = System.getProperty(METRICS_PROPERTY);
+                try (MetricsExporter exporter = (metrics == null) ? null : MetricsExporter.open(Path.of(metrics),
+                        metrics.endsWith(".csv") ? MetricsExporter.Format.CSV : MetricsExporter.Format.JSON_LINES)) {
+                    if (exporter != null) {
+                        ga.addGenerationListener(exporter);
+                    }
+                    // The common pool lets the evaluator split work over both individuals and dataset rows
+                    bestSolution = (checkpoint != null && Files.exists(Path.of(checkpoint)))
+                        ? ga.resume(Checkpoint.read(Path.of(checkpoint)), ForkJoinPool.commonPool())
+                        : ga.evolve(null, ForkJoinPool.commonPool());
+                }
+            }
 
             // 6. Print Results
             logger.info("----------------------------------------------------");
             logger.info("Evolution finished.");
             logger.info("Best solution fitness: {}", bestSolution.fitness());
             logger.info("Best solution chromosome: {}", Arrays.toString(bestSolution.chromosome().genes()));
+            logger.info("Fitness cache: {}", evaluator.getFitnessCacheStats());
+            if (evaluator.getMiniBatchStats() != null) {
+                logger.info("Last mini-batch: {}", evaluator.getMiniBatchStats());
+            }
+            if (evaluator.isEarlyAbort()) {
+                logger.info("Evaluations aborted early: {}", evaluator.getEarlyAbortCount());
+            }
+            if (evaluator.getConsequentRefinement() != ConsequentRefinement.OFF) {
+                logger.info("Consequents refined: {}", evaluator.getConsequentRefinementCount());
+            }
+            if (evaluator.getFiringCacheStats() != null) {
+                logger.info("Firing cache: {}", evaluator.getFiringCacheStats());
+            }
+            if (evaluator.getDeltaParentCount() > 0) {
+                logger.info("Delta evaluations: {}", evaluator.getDeltaEvaluationCount());
+            }
             logger.info("----------------------------------------------------");
 
+            String model = System.getProperty(MODEL_PROPERTY);
+            if (model != null) {
+                ModelFormat.write(evaluator.decodeGrid(bestSolution.chromosome()), Path.of(model));
+                logger.info("Model saved to {}.", model);
+            }
 
             // 7. Demonstrate the optimized system
             logger.info("Demonstrating the optimized fuzzy system:");
@@ -72,11 +221,32 @@ public class App {
         }
     }
 
-    private static FuzzySystemDescriptor createFuzzySystemDescriptor() {
-        // Define the input variables for the system
-        InputVariable x = new InputVariable("x");
-        InputVariable y = new InputVariable("y");
-        List<InputVariable> inputs = List.of(x, y);
+    /**
+     * Loads the dataset named on the command line, or the bundled sample dataset if none is given.
+     * Files with the {@value #BINARY_DATASET_EXTENSION} extension are memory-mapped; any other file is parsed as text.
+     */
+    static ColumnarDataset loadDataset(String[] args) throws IOException {
+        if (args.length == 0) {
+            return HeapColumnarDataset.fromResource("datasets/3dfunc.txt");
+        }
+        Path path = Path.of(args[0]);
+        return path.toString().endsWith(BINARY_DATASET_EXTENSION)
+            ? MappedColumnarDataset.open(path)
+            : HeapColumnarDataset.fromPath(path);
+    }
+
+    /**
+     * Opens the row stream named by {@value #STREAM_PROPERTY}: "-" reads standard input, anything else is a file
+     * that is followed as it grows.
+     */
+    static RowSource openStream(String stream) throws IOException {
+        return stream.equals("-")
+            ? TextRowSource.of(System.in)
+            : TextRowSource.tail(Path.of(stream), TAIL_POLL_INTERVAL);
+    }
+
+    static FuzzySystemDescriptor createFuzzySystemDescriptor(List<InputVariable> inputs) {
+        // The input variables of the system are the input columns of the dataset
 
         // Define the number of fuzzy sets for each variable (e.g., Low, Medium, High)
         int numFuzzySets = 3;
@@ -0,0 +1,34 @@
+package com.fuzzyga.app;
+
+import com.fuzzyga.core.data.BinaryDatasetFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command-line tool that converts a whitespace-separated text dataset into the binary format
+ * that {@link com.fuzzyga.core.data.MappedColumnarDataset} maps into memory.
+ * <p>
+ * Usage: {@code DatasetConverter <input.txt> <output.fgds>}
+ */
+public class DatasetConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetConverter.class);
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            logger.error("Usage: DatasetConverter <input.txt> <output.fgds>");
+            System.exit(2);
+        }
+        try {
+            long start = System.nanoTime();
+            long rows = BinaryDatasetFormat.convertText(Path.of(args[0]), Path.of(args[1]));
+            logger.info("Converted {} rows from {} to {} in {} ms.", rows, args[0], args[1], (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Failed to convert dataset", e);
+            System.exit(1);
+        }
+    }
+}
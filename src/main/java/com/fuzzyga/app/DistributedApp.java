@@ -0,0 +1,70 @@
+package com.fuzzyga.app;
+
+import com.fuzzyga.core.FuzzySystemFitnessEvaluator;
+import com.fuzzyga.core.data.ColumnarDataset;
+import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.Individual;
+import com.fuzzyga.ga.IslandCoordinator;
+import com.fuzzyga.ga.IslandWorker;
+import com.fuzzyga.ga.RandomStreams;
+import com.fuzzyga.utils.ConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the island model across processes: one coordinator and {@code islandCount} workers, each worker evolving
+ * one island on its own copy or shard of the dataset.
+ * <p>
+ * Usage:
+ * <pre>
+ *   DistributedApp coordinator &lt;port&gt;
+ *   DistributedApp worker &lt;host&gt; &lt;port&gt; [dataset]
+ * </pre>
+ * The dataset argument is read like {@link App}'s; without it the worker trains on the bundled sample dataset.
+ */
+public class DistributedApp {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedApp.class);
+    private static final String SEED_PROPERTY = "fuzzyga.seed";
+
+    public static void main(String[] args) {
+        try {
+            if (args.length == 2 && args[0].equals("coordinator")) {
+                runCoordinator(Integer.parseInt(args[1]));
+            } else if ((args.length == 3 || args.length == 4) && args[0].equals("worker")) {
+                runWorker(args[1], Integer.parseInt(args[2]), Arrays.copyOfRange(args, 3, args.length));
+            } else {
+                logger.error("Usage: DistributedApp coordinator <port> | DistributedApp worker <host> <port> [dataset]");
+                System.exit(2);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to run distributed island model", e);
+            System.exit(1);
+        }
+    }
+
+    private static void runCoordinator(int port) throws IOException {
+        GaConfig config = ConfigLoader.loadConfig("config.properties");
+        try (IslandCoordinator coordinator = new IslandCoordinator(config, port)) {
+            logger.info("Waiting for {} island workers on port {}.", config.islandCount(), coordinator.getPort());
+            // Island seeds are drawn from the coordinator's generator, so a seeded coordinator reproduces its islands
+            Long seed = Long.getLong(SEED_PROPERTY);
+            Individual best = coordinator.run(seed == null ? RandomStreams.create() : RandomStreams.create(seed));
+            logger.info("Best solution fitness: {}", best.fitness());
+            logger.info("Best solution chromosome: {}", Arrays.toString(best.chromosome().genes()));
+        }
+    }
+
+    private static void runWorker(String host, int port, String[] datasetArgs) throws IOException {
+        ColumnarDataset dataset = App.loadDataset(datasetArgs);
+        logger.info("Dataset loaded with {} data points.", dataset.size());
+        FuzzySystemFitnessEvaluator evaluator = new FuzzySystemFitnessEvaluator(
+            App.createFuzzySystemDescriptor(dataset.inputVariables()), dataset);
+        Individual best = new IslandWorker(evaluator).run(host, port, ForkJoinPool.commonPool());
+        logger.info("Island finished with best fitness {}.", best.fitness());
+    }
+}
@@ -0,0 +1,50 @@
+package com.fuzzyga.app;
+
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.ModelFormat;
+import com.fuzzyga.serving.ScoringServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+
+/**
+ * Serves predictions of a model file saved by {@link App} with {@code -Dfuzzyga.model=<file>}, until the process is
+ * stopped. See {@link ModelFormat} for the file format.
+ * <p>
+ * Usage:
+ * <pre>
+ *   ScoringApp &lt;model&gt; [port]
+ * </pre>
+ * The port defaults to {@value #DEFAULT_PORT}. See {@link ScoringServer} for the endpoints. TCP_NODELAY is turned on
+ * unless {@code -Dsun.net.httpserver.nodelay} says otherwise.
+ */
+public class ScoringApp {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringApp.class);
+    private static final int DEFAULT_PORT = 8080;
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            logger.error("Usage: ScoringApp <model> [port]");
+            System.exit(2);
+        }
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            // Must be set before the first server is created; see ScoringServer
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        try {
+            GridTskSystem system = ModelFormat.read(Path.of(args[0]));
+            int port = (args.length == 2) ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+            ScoringServer server = new ScoringServer(system, new InetSocketAddress(port));
+            Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+            logger.info("Scoring inputs {} with the {} batch kernel.", system.variables(), GridTskSystem.batchImplementation());
+        } catch (IOException e) {
+            logger.error("Failed to start the scoring server", e);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.fuzzyga.core;
+
+/**
+ * Selects which individuals have their rule consequents fitted by least squares before they are scored.
+ * <p>
+ * Once the antecedent genes are fixed, the output of a TSK system is linear in its consequent genes, so the best
+ * consequents for a set of fuzzy partitions can be solved for directly instead of searched for, as in the hybrid
+ * learning rule of ANFIS. The fitted consequents are written back into the genome, so offspring inherit them.
+ */
+public enum ConsequentRefinement {
+
+    /**
+     * Consequents are left to the genetic operators.
+     */
+    OFF,
+
+    /**
+     * After each population is scored, the best newly scored individuals are refined on the full dataset and
+     * scored again. Costs a few extra evaluations per generation.
+     */
+    ELITES,
+
+    /**
+     * Every new individual is refined before it is scored, on the same rows it is scored on. Roughly doubles the
+     * cost of each evaluation, but the GA then only has to search the antecedent genes.
+     */
+    ALL
+}
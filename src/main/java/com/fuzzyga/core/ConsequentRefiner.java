@@ -0,0 +1,262 @@
+package com.fuzzyga.core;
+
+import com.fuzzyga.core.data.ColumnarDataset;
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fits the consequent genes of a genome by least squares, keeping its antecedent genes fixed.
+ * <p>
+ * With fixed antecedents, the output of the system for row {@code i} is {@code sum_r wbar[i][r] * (p_r . x_i + q_r)},
+ * where {@code wbar[i][r]} is the normalized firing strength of rule {@code r}, so the squared error is a quadratic
+ * function of the consequents. The refiner accumulates the normal equations of that problem in one pass over the
+ * data and solves them with a Cholesky factorization:
+ * <ul>
+ *   <li>Up to {@value #MAX_GLOBAL_PARAMETERS} consequent parameters, all rules are fitted jointly, which gives the
+ *       consequents with the smallest squared error of the whole system.</li>
+ *   <li>Beyond that, each rule is fitted on its own by least squares weighted with its normalized firing strength.
+ *       This costs only a small system per rule, and makes every rule a good local model of the rows it covers.</li>
+ * </ul>
+ * A small ridge term pulls each parameter towards its current value, so rules that fire on too few rows to be
+ * determined keep their genes. A refiner may be used by several threads at once.
+ */
+final class ConsequentRefiner {
+
+    /**
+     * The largest number of consequent parameters that are fitted jointly.
+     */
+    static final int MAX_GLOBAL_PARAMETERS = 512;
+
+    // The ridge term, relative to the mean diagonal entry of the normal matrix.
+    private static final double RIDGE = 1e-6;
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private final List<InputVariable> variables;
+    private final int setsPerVariable;
+    private final int[] inputColumns;
+    private final int numInputs;
+    private final int numRules;
+    private final int consequentOffset;
+    private final int parameterCount;
+    private final boolean global;
+
+    private final ThreadLocal<Buffers> buffers;
+
+    /**
+     * Creates a refiner for genomes of the given grid shape.
+     *
+     * @param variables       The input variables, in chromosome order.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @param inputColumns    The dataset column of each variable.
+     */
+    ConsequentRefiner(List<InputVariable> variables, int setsPerVariable, int[] inputColumns) {
+        this.variables = variables;
+        this.setsPerVariable = setsPerVariable;
+        this.inputColumns = inputColumns;
+        this.numInputs = variables.size();
+        this.numRules = GridTskSystem.ruleCount(numInputs, setsPerVariable);
+        this.consequentOffset = numInputs * setsPerVariable * 2;
+        this.parameterCount = numRules * (numInputs + 1);
+        this.global = parameterCount <= MAX_GLOBAL_PARAMETERS;
+        this.buffers = ThreadLocal.withInitial(Buffers::new);
+    }
+
+    /**
+     * Indicates whether all rules are fitted jointly, rather than one at a time.
+     */
+    boolean isGlobal() {
+        return global;
+    }
+
+    /**
+     * Replaces the consequent genes of a genome with their least squares fit on the given data.
+     *
+     * @param genes The genome, modified in place.
+     * @param data  The rows to fit.
+     * @return False if the joint normal equations could not be solved, in which case the genome is left unchanged.
+     *         When rules are fitted one at a time, a rule that cannot be solved keeps its genes and the others are
+     *         still refined.
+     */
+    boolean refine(double[] genes, ColumnarDataset data) {
+        Buffers b = buffers.get();
+        GridTskSystem system = GridTskSystem.wrap(variables, setsPerVariable, genes);
+        int width = numInputs + 1;
+        Arrays.fill(b.matrix, 0.0);
+        Arrays.fill(b.rhs, 0.0);
+
+        for (int from = 0; from < data.size(); from += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, data.size() - from);
+            for (int v = 0; v < numInputs; v++) {
+                data.copyInputs(inputColumns[v], from, b.block[v], 0, length);
+            }
+            data.copyExpectedOutputs(from, b.expected, 0, length);
+
+            for (int i = 0; i < length; i++) {
+                for (int v = 0; v < numInputs; v++) {
+                    b.inputs[v] = b.block[v][i];
+                }
+                int count = system.firingRules(b.inputs, b.workspace, b.rules, b.strengths);
+                if (count == 0) {
+                    continue; // The output is 0 whatever the consequents are.
+                }
+                double total = 0.0;
+                for (int j = 0; j < count; j++) {
+                    total += b.strengths[j];
+                }
+                if (global) {
+                    accumulateJoint(b, count, total, b.expected[i]);
+                } else {
+                    accumulatePerRule(b, count, total, b.expected[i]);
+                }
+            }
+        }
+
+        if (global) {
+            return solve(b.matrix, 0, parameterCount, b.rhs, 0, genes, consequentOffset, b.solution);
+        }
+        for (int r = 0; r < numRules; r++) {
+            solve(b.matrix, r * width * width, width, b.rhs, r * width, genes, consequentOffset + r * width, b.solution);
+        }
+        return true;
+    }
+
+    /**
+     * Adds one row to the joint normal equations. The row's features are the inputs and a 1 for every firing rule,
+     * scaled by the rule's normalized firing strength; only the lower triangle of the matrix is kept.
+     */
+    private void accumulateJoint(Buffers b, int count, double total, double expected) {
+        int width = numInputs + 1;
+        int size = 0;
+        for (int j = 0; j < count; j++) {
+            double weight = b.strengths[j] / total;
+            int base = b.rules[j] * width;
+            for (int v = 0; v < numInputs; v++) {
+                b.features[size] = weight * b.inputs[v];
+                b.indices[size++] = base + v;
+            }
+            b.features[size] = weight;
+            b.indices[size++] = base + numInputs;
+        }
+        // Rules are reported in ascending order, so the indices ascend and (a, c) with c <= a is in the lower triangle.
+        for (int a = 0; a < size; a++) {
+            double feature = b.features[a];
+            int row = b.indices[a] * parameterCount;
+            b.rhs[b.indices[a]] += expected * feature;
+            for (int c = 0; c <= a; c++) {
+                b.matrix[row + b.indices[c]] += feature * b.features[c];
+            }
+        }
+    }
+
+    /**
+     * Adds one row to the normal equations of each firing rule, weighted by the rule's normalized firing strength.
+     */
+    private void accumulatePerRule(Buffers b, int count, double total, double expected) {
+        int width = numInputs + 1;
+        for (int j = 0; j < count; j++) {
+            double weight = b.strengths[j] / total;
+            int block = b.rules[j] * width * width;
+            int rhs = b.rules[j] * width;
+            for (int a = 0; a < width; a++) {
+                double feature = weight * (a < numInputs ? b.inputs[a] : 1.0);
+                b.rhs[rhs + a] += expected * feature;
+                for (int c = 0; c <= a; c++) {
+                    b.matrix[block + a * width + c] += feature * (c < numInputs ? b.inputs[c] : 1.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves one ridge-regularized system of normal equations {@code (A + lambda I) x = rhs + lambda x0}, where
+     * {@code x0} are the current genes, by an in-place Cholesky factorization of its lower triangle.
+     *
+     * @return False, leaving the genes unchanged, if the system is not positive definite.
+     */
+    private static boolean solve(double[] a, int offset, int n, double[] rhs, int rhsOffset, double[] genes,
+                                 int geneOffset, double[] x) {
+        double trace = 0.0;
+        for (int i = 0; i < n; i++) {
+            trace += a[offset + i * n + i];
+        }
+        if (trace == 0.0) {
+            return true; // No row constrains these parameters.
+        }
+        double lambda = RIDGE * trace / n;
+        for (int i = 0; i < n; i++) {
+            a[offset + i * n + i] += lambda;
+            x[i] = rhs[rhsOffset + i] + lambda * genes[geneOffset + i];
+        }
+
+        // A = L L^T, with L overwriting the lower triangle of A.
+        for (int j = 0; j < n; j++) {
+            int rowJ = offset + j * n;
+            double diagonal = a[rowJ + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[rowJ + k] * a[rowJ + k];
+            }
+            if (!(diagonal > 0.0)) {
+                return false;
+            }
+            double pivot = Math.sqrt(diagonal);
+            a[rowJ + j] = pivot;
+            for (int i = j + 1; i < n; i++) {
+                int rowI = offset + i * n;
+                double sum = a[rowI + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= a[rowI + k] * a[rowJ + k];
+                }
+                a[rowI + j] = sum / pivot;
+            }
+        }
+
+        // Forward substitution L z = rhs, then back substitution L^T x = z.
+        for (int i = 0; i < n; i++) {
+            int rowI = offset + i * n;
+            double sum = x[i];
+            for (int k = 0; k < i; k++) {
+                sum -= a[rowI + k] * x[k];
+            }
+            x[i] = sum / a[rowI + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = x[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= a[offset + k * n + i] * x[k];
+            }
+            x[i] = sum / a[offset + i * n + i];
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (!Double.isFinite(x[i])) {
+                return false;
+            }
+        }
+        System.arraycopy(x, 0, genes, geneOffset, n);
+        return true;
+    }
+
+    /**
+     * One thread's data block, inference workspace and normal equations.
+     */
+    private final class Buffers {
+        private final double[][] block = new double[numInputs][BLOCK_SIZE];
+        private final double[] expected = new double[BLOCK_SIZE];
+        private final double[] inputs = new double[numInputs];
+        private final GridTskSystem.Workspace workspace =
+            GridTskSystem.of(variables, setsPerVariable, new double[consequentOffset + parameterCount]).newWorkspace();
+        private final int[] rules = new int[numRules];
+        private final double[] strengths = new double[numRules];
+        private final double[] features = new double[parameterCount];
+        private final int[] indices = new int[parameterCount];
+        private final double[] matrix = new double[global
+            ? parameterCount * parameterCount
+            : numRules * (numInputs + 1) * (numInputs + 1)];
+        private final double[] rhs = new double[parameterCount];
+        private final double[] solution = new double[parameterCount];
+    }
+}
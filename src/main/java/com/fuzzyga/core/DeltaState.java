@@ -0,0 +1,238 @@
+package com.fuzzyga.core;
+
+import com.fuzzyga.core.data.ColumnarDataset;
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * What a full evaluation of a parent genome leaves behind for scoring its offspring incrementally.
+ * <p>
+ * The output of a TSK system for row {@code i} is {@code sum_r wbar[i][r] * z_r(x_i)}, where the normalized firing
+ * strengths {@code wbar} depend only on the antecedent genes. An offspring that has the same antecedent genes as the
+ * parent therefore differs from it only by {@code sum_r wbar[i][r] * (z'_r(x_i) - z_r(x_i))} over the rules whose
+ * consequent changed. The state keeps the parent's residual of every row and, for every rule, the rows it fires on
+ * with their normalized firing strengths, so that such an offspring's squared error costs time proportional to the
+ * rows covered by its changed rules instead of a full pass over the data.
+ * <p>
+ * Incremental errors agree with a full evaluation up to rounding. A state is immutable once built and may be used
+ * by several threads at once.
+ */
+final class DeltaState {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    // Each thread's per-row delta buffer, with a stamp per row telling whether the current call has touched it,
+    // and the consequent change of the rule being applied.
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<>();
+
+    private final int numInputs;
+    private final int consequentOffset;
+    private final int[] inputColumns;
+    private final double[] consequents;
+    private final double[] residuals;
+    private final double squaredError;
+
+    // The firings of rule r occupy [ruleOffsets[r], ruleOffsets[r + 1]) of ruleRows and ruleWeights.
+    private final int[] ruleOffsets;
+    private final int[] ruleRows;
+    private final double[] ruleWeights;
+
+    private DeltaState(int numInputs, int consequentOffset, int[] inputColumns, double[] consequents, double[] residuals,
+                       double squaredError, int[] ruleOffsets, int[] ruleRows, double[] ruleWeights) {
+        this.numInputs = numInputs;
+        this.consequentOffset = consequentOffset;
+        this.inputColumns = inputColumns;
+        this.consequents = consequents;
+        this.residuals = residuals;
+        this.squaredError = squaredError;
+        this.ruleOffsets = ruleOffsets;
+        this.ruleRows = ruleRows;
+        this.ruleWeights = ruleWeights;
+    }
+
+    /**
+     * Evaluates a parent genome on the data and records its residuals and rule firings.
+     *
+     * @param genes           The parent genome. It is read, not retained.
+     * @param variables       The input variables, in chromosome order.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @param data            The rows the offspring will be scored on.
+     * @param inputColumns    The dataset column of each variable.
+     * @return The state.
+     */
+    static DeltaState build(double[] genes, List<InputVariable> variables, int setsPerVariable, ColumnarDataset data,
+                            int[] inputColumns) {
+        GridTskSystem system = GridTskSystem.wrap(variables, setsPerVariable, genes);
+        int numInputs = variables.size();
+        int numRules = system.ruleCount();
+        int width = numInputs + 1;
+        int consequentOffset = numInputs * setsPerVariable * 2;
+        int rows = data.size();
+
+        double[][] block = new double[numInputs][BLOCK_SIZE];
+        double[] expected = new double[BLOCK_SIZE];
+        double[] inputs = new double[numInputs];
+        GridTskSystem.Workspace workspace = system.newWorkspace();
+        int[] rules = new int[numRules];
+        double[] strengths = new double[numRules];
+
+        // Firings are collected row by row, then regrouped by rule.
+        double[] residuals = new double[rows];
+        int[] rowFirings = new int[rows];
+        int[] firedRules = new int[Math.max(16, rows * 4)];
+        double[] firedWeights = new double[firedRules.length];
+        int firings = 0;
+        double squaredError = 0.0;
+
+        for (int from = 0; from < rows; from += BLOCK_SIZE) {
+            int length = Math.min(BLOCK_SIZE, rows - from);
+            for (int v = 0; v < numInputs; v++) {
+                data.copyInputs(inputColumns[v], from, block[v], 0, length);
+            }
+            data.copyExpectedOutputs(from, expected, 0, length);
+
+            for (int i = 0; i < length; i++) {
+                for (int v = 0; v < numInputs; v++) {
+                    inputs[v] = block[v][i];
+                }
+                int count = system.firingRules(inputs, workspace, rules, strengths);
+                double total = 0.0;
+                for (int j = 0; j < count; j++) {
+                    total += strengths[j];
+                }
+                if (firings + count > firedRules.length) {
+                    int capacity = Math.max(firings + count, firedRules.length * 2);
+                    firedRules = Arrays.copyOf(firedRules, capacity);
+                    firedWeights = Arrays.copyOf(firedWeights, capacity);
+                }
+                double output = 0.0;
+                for (int j = 0; j < count; j++) {
+                    double weight = strengths[j] / total;
+                    int base = consequentOffset + rules[j] * width;
+                    double z = genes[base + numInputs];
+                    for (int v = 0; v < numInputs; v++) {
+                        z += genes[base + v] * inputs[v];
+                    }
+                    output += weight * z;
+                    firedRules[firings] = rules[j];
+                    firedWeights[firings++] = weight;
+                }
+                int row = from + i;
+                rowFirings[row] = count;
+                residuals[row] = expected[i] - output;
+                squaredError += residuals[row] * residuals[row];
+            }
+        }
+
+        int[] ruleOffsets = new int[numRules + 1];
+        for (int k = 0; k < firings; k++) {
+            ruleOffsets[firedRules[k] + 1]++;
+        }
+        for (int r = 0; r < numRules; r++) {
+            ruleOffsets[r + 1] += ruleOffsets[r];
+        }
+        int[] next = Arrays.copyOf(ruleOffsets, numRules);
+        int[] ruleRows = new int[firings];
+        double[] ruleWeights = new double[firings];
+        for (int row = 0, k = 0; row < rows; row++) {
+            for (int end = k + rowFirings[row]; k < end; k++) {
+                int position = next[firedRules[k]]++;
+                ruleRows[position] = row;
+                ruleWeights[position] = firedWeights[k];
+            }
+        }
+
+        double[] consequents = Arrays.copyOfRange(genes, consequentOffset, genes.length);
+        return new DeltaState(numInputs, consequentOffset, inputColumns, consequents, residuals, squaredError,
+            ruleOffsets, ruleRows, ruleWeights);
+    }
+
+    /**
+     * Counts the rules whose consequent genes differ from the parent's.
+     *
+     * @param genes A genome with the same antecedent genes as the parent.
+     * @return The number of changed rules.
+     */
+    int changedRules(double[] genes) {
+        int width = numInputs + 1;
+        int changed = 0;
+        for (int r = 0, numRules = ruleOffsets.length - 1; r < numRules; r++) {
+            if (!Arrays.equals(genes, consequentOffset + r * width, consequentOffset + (r + 1) * width,
+                    consequents, r * width, (r + 1) * width)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Computes the sum of squared errors of a genome that has the same antecedent genes as the parent, by updating
+     * the parent's residuals on the rows fired by the changed rules only.
+     *
+     * @param genes The genome.
+     * @param data  The rows the state was built on.
+     * @return The sum of squared errors over all rows.
+     */
+    double squaredError(double[] genes, ColumnarDataset data) {
+        int width = numInputs + 1;
+        Scratch scratch = SCRATCH.get();
+        if (scratch == null || scratch.delta.length < residuals.length || scratch.change.length < width) {
+            scratch = new Scratch(residuals.length, width);
+            SCRATCH.set(scratch);
+        }
+        int stamp = ++scratch.stamp;
+        int touched = 0;
+
+        double[] change = scratch.change;
+        for (int r = 0, numRules = ruleOffsets.length - 1; r < numRules; r++) {
+            boolean changed = false;
+            for (int p = 0; p < width; p++) {
+                change[p] = genes[consequentOffset + r * width + p] - consequents[r * width + p];
+                changed |= change[p] != 0.0;
+            }
+            if (!changed) {
+                continue;
+            }
+            for (int k = ruleOffsets[r], end = ruleOffsets[r + 1]; k < end; k++) {
+                int row = ruleRows[k];
+                double z = change[numInputs];
+                for (int v = 0; v < numInputs; v++) {
+                    z += change[v] * data.input(inputColumns[v], row);
+                }
+                if (scratch.stamps[row] != stamp) {
+                    scratch.stamps[row] = stamp;
+                    scratch.delta[row] = 0.0;
+                    scratch.touched[touched++] = row;
+                }
+                scratch.delta[row] += ruleWeights[k] * z;
+            }
+        }
+
+        double error = squaredError;
+        for (int t = 0; t < touched; t++) {
+            int row = scratch.touched[t];
+            double before = residuals[row];
+            double after = before - scratch.delta[row];
+            error += after * after - before * before;
+        }
+        return Math.max(0.0, error);
+    }
+
+    private static final class Scratch {
+        private final double[] delta;
+        private final int[] stamps;
+        private final int[] touched;
+        private final double[] change;
+        private int stamp;
+
+        private Scratch(int rows, int width) {
+            this.delta = new double[rows];
+            this.stamps = new int[rows];
+            this.touched = new int[rows];
+            this.change = new double[width];
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.fuzzyga.core;
+
+/**
+ * The rule firings of one set of antecedent genes on every row of the dataset, stored sparsely block by block.
+ * <p>
+ * The firing strengths of a TSK system depend only on its antecedent genes, so every individual that shares them
+ * (an elite, or a child bred without crossover whose antecedents were not mutated) can be scored from the same
+ * firings with a consequent pass alone. For each 1024-row block, the firings of row {@code i} occupy
+ * {@code [offsets[b][i], offsets[b][i + 1])} of {@code rules[b]} and {@code strengths[b]}, with rules in ascending
+ * order, which is the order inference adds them up in.
+ * <p>
+ * A matrix is filled by a scoring pass, each block by the task that scores it, and is only shared once complete.
+ */
+final class FiringMatrix {
+
+    final int[][] offsets;
+    final int[][] rules;
+    final double[][] strengths;
+
+    FiringMatrix(int blocks) {
+        this.offsets = new int[blocks][];
+        this.rules = new int[blocks][];
+        this.strengths = new double[blocks][];
+    }
+
+    /**
+     * Gets the approximate heap size of the matrix, used to weigh it against the cache's memory budget.
+     *
+     * @return The size in bytes.
+     */
+    int weight() {
+        long bytes = 64;
+        for (int b = 0; b < offsets.length; b++) {
+            bytes += 48 + 4L * offsets[b].length + 4L * rules[b].length + 8L * strengths[b].length;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+}
@@ -1,49 +1,468 @@
 package com.fuzzyga.core;
 
-import com.fuzzyga.core.data.DataPoint;
+import com.fuzzyga.core.data.ColumnarDataset;
 import com.fuzzyga.core.data.Dataset;
+import com.fuzzyga.core.data.HeapColumnarDataset;
 import com.fuzzyga.core.models.FuzzySystemDescriptor;
 import com.fuzzyga.fuzzy.*;
 import com.fuzzyga.fuzzy.membership.MembershipFunction;
 import com.fuzzyga.ga.Chromosome;
 import com.fuzzyga.ga.FitnessEvaluator;
 import com.fuzzyga.ga.Individual;
+import com.fuzzyga.ga.RandomStreams;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Lists;
 
 
 import java.util.*;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
-import java.util.stream.Collectors;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
 import java.util.stream.IntStream;
 
 public class FuzzySystemFitnessEvaluator implements FitnessEvaluator {
 
+    /**
+     * The default number of genomes whose fitness is remembered.
+     */
+    public static final long DEFAULT_FITNESS_CACHE_SIZE = 10_000;
+
+    // Rows are scanned in blocks of this size, copied column by column out of the dataset.
+    // The squared error of each block is summed separately and the block sums are added in row order,
+    // so the result does not depend on how blocks are distributed over threads.
+    private static final int BLOCK_SIZE = 1024;
+
+    // Fork-join evaluation aims for this many tasks per worker, so that work stealing evens out uneven tasks.
+    private static final int TASKS_PER_WORKER = 4;
+
     private final FuzzySystemDescriptor descriptor;
-    private final Dataset dataset;
-    private final Random random = new Random();
+    private final ColumnarDataset dataset;
     private final int chromosomeLength;
     private final int antecedentGeneCount;
 
+    // The dataset column of each descriptor input variable, in descriptor order.
+    private final int[] inputColumns;
+
+    private volatile InferenceMode inferenceMode = InferenceMode.SPARSE;
+
+    // Fitness of recently evaluated genomes, keyed by their contents. Duplicate genomes are common
+    // (copied parents, re-bred elites) and each evaluation scans the whole dataset.
+    private volatile Cache<GenomeKey, Double> fitnessCache = newFitnessCache(DEFAULT_FITNESS_CACHE_SIZE);
+
+    // Rule firings of recently scored antecedent genes, weighed by their size in bytes; null when disabled.
+    // Individuals that share antecedent genes with a cached entry only need a consequent pass over the data.
+    private volatile Cache<GenomeKey, FiringMatrix> firingCache;
+
+    // Mini-batch mode: new individuals are scored on this many randomly sampled rows (0 means all rows).
+    private volatile int miniBatchSize;
+    private volatile MiniBatchStats miniBatchStats;
+
+    // Early abort: new individuals are abandoned once their error guarantees a fitness below this quantile
+    // of the fitness values already known in the population (0 is the worst elite).
+    private volatile boolean earlyAbort;
+    private volatile double earlyAbortQuantile;
+    private final LongAdder earlyAborts = new LongAdder();
+
+    // Consequent refinement: which individuals have their consequent genes fitted by least squares, and how many
+    // of the best new individuals are refined in ELITES mode.
+    private final ConsequentRefiner refiner;
+    private volatile ConsequentRefinement consequentRefinement = ConsequentRefinement.OFF;
+    private volatile int refinedEliteCount = 1;
+    private final LongAdder refinements = new LongAdder();
+
+    // Delta evaluation: the evaluation states of the fittest individuals of recent populations, keyed by their
+    // antecedent genes, from which offspring that differ only in consequent genes are scored incrementally.
+    private volatile int deltaParentCount;
+    private volatile Cache<GenomeKey, DeltaState> deltaStates;
+    private final LongAdder deltaEvaluations = new LongAdder();
+
+    // The shared random generator, for callers that do not bring their own, and the row permutation that
+    // mini-batches are shuffled in, both guarded by randomLock.
+    private final Object randomLock = new Object();
+    private SplittableGenerator random = RandomStreams.create();
+    private int[] rowPermutation;
+
+    // Scoring buffers of each worker thread. Every system decoded by this evaluator has the same shape,
+    // so the buffers are reused across individuals instead of being allocated for each one.
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(this::newScratch);
+
     public FuzzySystemFitnessEvaluator(FuzzySystemDescriptor descriptor, Dataset dataset) {
+        this(descriptor, HeapColumnarDataset.from(dataset, descriptor.inputVariables()));
+    }
+
+    public FuzzySystemFitnessEvaluator(FuzzySystemDescriptor descriptor, ColumnarDataset dataset) {
         this.descriptor = descriptor;
         this.dataset = dataset;
         this.antecedentGeneCount = descriptor.inputVariables().size() * descriptor.numFuzzySetsPerVariable() * 2;
         this.chromosomeLength = calculateChromosomeLength();
+
+        List<InputVariable> variables = descriptor.inputVariables();
+        this.inputColumns = new int[variables.size()];
+        for (int v = 0; v < variables.size(); v++) {
+            inputColumns[v] = dataset.columnOf(variables.get(v));
+            if (inputColumns[v] < 0) {
+                throw new IllegalArgumentException("Dataset has no column for input variable " + variables.get(v).name());
+            }
+        }
+        this.refiner = new ConsequentRefiner(variables, descriptor.numFuzzySetsPerVariable(), inputColumns);
+    }
+
+    /**
+     * Sets how rules are enumerated when scoring individuals. All modes give the same fitness values;
+     * {@link InferenceMode#SPARSE} (the default) skips rules that cannot fire and is much faster on large rule grids,
+     * while {@link InferenceMode#BATCH} scores blocks of rows at once with SIMD and suits small, overlapping grids.
+     *
+     * @param inferenceMode The rule enumeration strategy.
+     */
+    public void setInferenceMode(InferenceMode inferenceMode) {
+        this.inferenceMode = Objects.requireNonNull(inferenceMode);
+    }
+
+    public InferenceMode getInferenceMode() {
+        return inferenceMode;
+    }
+
+    /**
+     * Replaces the fitness cache with an empty one holding at most the given number of genomes,
+     * evicting the least recently used beyond that. A size of 0 disables caching.
+     *
+     * @param maximumSize The maximum number of cached fitness values.
+     */
+    public void setFitnessCacheSize(long maximumSize) {
+        this.fitnessCache = newFitnessCache(maximumSize);
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the fitness cache since it was last created.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats getFitnessCacheStats() {
+        return fitnessCache.stats();
+    }
+
+    /**
+     * Discards every cached fitness value, rule firing and delta evaluation state. Must be called whenever the data
+     * that fitness is computed from changes.
+     */
+    public void invalidateFitnessCache() {
+        fitnessCache.invalidateAll();
+        Cache<GenomeKey, FiringMatrix> firings = firingCache;
+        if (firings != null) {
+            firings.invalidateAll();
+        }
+        Cache<GenomeKey, DeltaState> states = deltaStates;
+        if (states != null) {
+            states.invalidateAll();
+        }
+    }
+
+    /**
+     * Enables the firing cache: the rule firings computed while scoring an individual on the full dataset are kept,
+     * keyed by its antecedent genes, and any later individual with the same antecedent genes is scored by evaluating
+     * only its consequents on the cached firings. The fitness values are identical to a full evaluation. Firings
+     * are stored sparsely, at about 12 bytes per firing rule and row, and the least recently used are evicted once
+     * the cache exceeds its budget. While the cache is enabled, individuals not found in it are scored rule by rule
+     * as in {@link InferenceMode#SPARSE}, whatever the inference mode, so that their firings can be recorded.
+     *
+     * @param budgetBytes The memory budget of the cache in bytes, or 0 (the default) to disable it.
+     * @throws IllegalArgumentException If the budget is negative.
+     */
+    public void setFiringCacheBudget(long budgetBytes) {
+        if (budgetBytes < 0) {
+            throw new IllegalArgumentException("Firing cache budget must not be negative: " + budgetBytes);
+        }
+        this.firingCache = budgetBytes == 0 ? null : CacheBuilder.newBuilder()
+            .maximumWeight(budgetBytes)
+            .weigher((GenomeKey key, FiringMatrix firings) -> firings.weight())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Gets the hit, miss and eviction counters of the firing cache since it was last created.
+     *
+     * @return A snapshot of the cache statistics, or null if the firing cache is disabled.
+     */
+    public CacheStats getFiringCacheStats() {
+        Cache<GenomeKey, FiringMatrix> firings = firingCache;
+        return firings == null ? null : firings.stats();
+    }
+
+    /**
+     * Enables mini-batch mode: individuals that have no fitness yet are scored on a random sample of this many rows,
+     * drawn anew for every population, instead of on the whole dataset. Individuals that already carry a fitness
+     * (elites) and {@link #rescore} use the full dataset. Fitness estimates are never cached.
+     *
+     * @param miniBatchSize The number of rows per sample, or 0 to score on the full dataset.
+     * @throws IllegalArgumentException If the size is negative.
+     */
+    public void setMiniBatchSize(int miniBatchSize) {
+        if (miniBatchSize < 0) {
+            throw new IllegalArgumentException("Mini-batch size must not be negative: " + miniBatchSize);
+        }
+        this.miniBatchSize = miniBatchSize;
+    }
+
+    public int getMiniBatchSize() {
+        return miniBatchSize;
+    }
+
+    /**
+     * Gets the variance of the fitness estimates made on the most recent mini-batch.
+     *
+     * @return The statistics, or null if no population has been scored on a mini-batch yet.
+     */
+    public MiniBatchStats getMiniBatchStats() {
+        return miniBatchStats;
+    }
+
+    /**
+     * Enables or disables early abort. When enabled, the squared error of each new individual is accumulated block by
+     * block and its evaluation stops as soon as the partial error guarantees a fitness below a threshold taken from
+     * the individuals that already carry a fitness (see {@link #setEarlyAbortQuantile}). Such an individual receives
+     * the fitness of its partial error, an upper bound of its true fitness, capped just below the worst fitness already
+     * known, so that it ranks below every individual that was fully scored and can never take an elite's place.
+     * Bounded fitness values are never cached. Nothing is aborted while no individual has a fitness, or in row-split
+     * fork-join evaluation.
+     *
+     * @param earlyAbort Whether to abandon hopeless evaluations.
+     */
+    public void setEarlyAbort(boolean earlyAbort) {
+        this.earlyAbort = earlyAbort;
+    }
+
+    public boolean isEarlyAbort() {
+        return earlyAbort;
+    }
+
+    /**
+     * Sets which of the already known fitness values is the early abort threshold: 0 (the default) uses the worst
+     * of them, typically the worst elite, and 1 the best. Higher quantiles abort more aggressively.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @throws IllegalArgumentException If the quantile is outside [0, 1].
+     */
+    public void setEarlyAbortQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Early abort quantile must be between 0 and 1: " + quantile);
+        }
+        this.earlyAbortQuantile = quantile;
+    }
+
+    public double getEarlyAbortQuantile() {
+        return earlyAbortQuantile;
+    }
+
+    /**
+     * Sets which individuals have their consequent genes fitted by least squares on the normalized firing strengths
+     * of their rules (see {@link ConsequentRefinement}). Refined consequents replace the original ones in the genome
+     * of the returned individual, or in the gene matrix passed to {@link #evaluateGenes}.
+     *
+     * @param consequentRefinement The refinement mode; {@link ConsequentRefinement#OFF} by default.
+     */
+    public void setConsequentRefinement(ConsequentRefinement consequentRefinement) {
+        this.consequentRefinement = Objects.requireNonNull(consequentRefinement);
+    }
+
+    public ConsequentRefinement getConsequentRefinement() {
+        return consequentRefinement;
+    }
+
+    /**
+     * Sets how many of the best new individuals of each population are refined in
+     * {@link ConsequentRefinement#ELITES} mode.
+     *
+     * @param refinedEliteCount The number of individuals to refine, at least 1.
+     * @throws IllegalArgumentException If the count is less than 1.
+     */
+    public void setRefinedEliteCount(int refinedEliteCount) {
+        if (refinedEliteCount < 1) {
+            throw new IllegalArgumentException("Refined elite count must be at least 1: " + refinedEliteCount);
+        }
+        this.refinedEliteCount = refinedEliteCount;
+    }
+
+    public int getRefinedEliteCount() {
+        return refinedEliteCount;
+    }
+
+    /**
+     * Gets the number of genomes whose consequents have been refined so far.
+     *
+     * @return The refinement count.
+     */
+    public long getConsequentRefinementCount() {
+        return refinements.sum();
+    }
+
+    /**
+     * Enables delta evaluation. After each population is scored on the full dataset, the evaluator keeps the
+     * per-row residuals and rule firings of the {@code parentCount} fittest individuals that already carried a
+     * fitness, typically the elites (see {@link DeltaState}).
+     * A new individual whose antecedent genes equal those of a kept parent, such as a child bred by mutating only
+     * consequent genes, is then scored by updating the parent's error on the rows fired by its changed rules, as long
+     * as at most half of its rules changed. Each kept parent costs one extra pass over the data when it is first seen,
+     * and memory for its residuals and firings. Incremental fitness values agree with full evaluations up to rounding.
+     * Mini-batch estimates are never computed incrementally.
+     *
+     * @param parentCount The number of fittest survivors per population to keep, or 0 (the default) to disable.
+     * @throws IllegalArgumentException If the count is negative.
+     */
+    public void setDeltaParentCount(int parentCount) {
+        if (parentCount < 0) {
+            throw new IllegalArgumentException("Delta parent count must not be negative: " + parentCount);
+        }
+        this.deltaParentCount = parentCount;
+        // Parents that just dropped out of the top of the population are still likely to be selected.
+        this.deltaStates = parentCount == 0 ? null : CacheBuilder.newBuilder().maximumSize(2L * parentCount).build();
     }
 
+    public int getDeltaParentCount() {
+        return deltaParentCount;
+    }
+
+    /**
+     * Gets the number of individuals scored incrementally by delta evaluation so far.
+     *
+     * @return The delta evaluation count.
+     */
+    public long getDeltaEvaluationCount() {
+        return deltaEvaluations.sum();
+    }
+
+    @Override
+    public long cacheHitCount() {
+        return fitnessCache.stats().hitCount();
+    }
+
+    /**
+     * Gets the number of evaluations abandoned by early abort so far.
+     *
+     * @return The abort count.
+     */
+    public long getEarlyAbortCount() {
+        return earlyAborts.sum();
+    }
+
+    private static Cache<GenomeKey, Double> newFitnessCache(long maximumSize) {
+        return CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Evaluates a population. Individuals without a fitness are scored on the full dataset, or on a fresh random
+     * sample of it when mini-batch mode is enabled (see {@link #setMiniBatchSize}); in that mode individuals that
+     * already carry a fitness, such as elites, are re-scored exactly so that they are never ranked on an old estimate.
+     * <p>
+     * When the executor is a {@link ForkJoinPool}, the work is split over both the individuals and row ranges of the
+     * data (see {@link #rowChunks}), so that small populations on large datasets keep every worker busy too.
+     * Any other executor runs one task per individual.
+     */
     @Override
     public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService) {
-        if (executorService != null) {
-            return parallelEvaluate(population, executorService);
-        } else {
-            return serialEvaluate(population);
+        return evaluatePopulation(population, executorService, null);
+    }
+
+    /**
+     * Evaluates a population like {@link #evaluatePopulation(List, ExecutorService)}, drawing the mini-batch from the
+     * given generator.
+     *
+     * @param random The generator to sample rows with, or null to use this evaluator's own generator.
+     */
+    @Override
+    public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService,
+                                               RandomGenerator random) {
+        ColumnarDataset sample = nextMiniBatch(random);
+        int count = population.size();
+        double[][] genomes = new double[count][];
+        double[] fitness = new double[count];
+        boolean[] fresh = new boolean[count];
+        boolean[] refined = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            Individual individual = population.get(i);
+            fitness[i] = individual.fitness();
+            fresh[i] = fitness[i] < 0;
+            if (fresh[i] || sample != null) {
+                // genes() returns a private copy, which the key and the decoded system can share.
+                genomes[i] = individual.chromosome().genes();
+            }
+        }
+        if (consequentRefinement == ConsequentRefinement.ALL) {
+            refineNew(genomes, fresh, count, sample, refined, executorService);
+        }
+
+        Pending exact = new Pending();
+        Pending estimated = new Pending();
+        for (int i = 0; i < count; i++) {
+            if (genomes[i] != null) {
+                (fresh[i] && sample != null ? estimated : exact).add(i, GenomeKey.wrap(genomes[i]), genomes[i]);
+            }
+        }
+        score(exact, estimated, sample, fitness, count, executorService);
+        if (consequentRefinement == ConsequentRefinement.ELITES) {
+            refineBest(genomes, fitness, fresh, count, refined, executorService);
+        }
+        if (sample == null) {
+            keepDeltaStates(fitness, fresh, count, i -> genomes[i] != null ? genomes[i] : population.get(i).chromosome().genes(),
+                executorService);
+        }
+
+        List<Individual> evaluated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Individual individual = population.get(i);
+            if (refined[i]) {
+                evaluated.add(new Individual(new Chromosome(genomes[i]), fitness[i]));
+            } else {
+                evaluated.add(fitness[i] == individual.fitness() ? individual : new Individual(individual.chromosome(), fitness[i]));
+            }
+        }
+        return evaluated;
+    }
+
+    /**
+     * Reseeds the generator behind {@link #createRandomChromosome()}, {@link #randomGenes(double[])} and the
+     * mini-batch samples of callers that bring no generator of their own, so that runs with the same seed draw the
+     * same values.
+     *
+     * @param seed The seed of a new {@link RandomStreams} generator.
+     */
+    public void setRandomSeed(long seed) {
+        synchronized (randomLock) {
+            random = RandomStreams.create(seed);
         }
     }
 
     @Override
     public Chromosome createRandomChromosome() {
+        synchronized (randomLock) {
+            return createRandomChromosome(random);
+        }
+    }
+
+    @Override
+    public Chromosome createRandomChromosome(RandomGenerator random) {
         double[] genes = new double[chromosomeLength];
+        randomGenes(genes, random);
+        return new Chromosome(genes);
+    }
+
+    @Override
+    public void randomGenes(double[] genes) {
+        synchronized (randomLock) {
+            randomGenes(genes, random);
+        }
+    }
+
+    @Override
+    public void randomGenes(double[] genes, RandomGenerator random) {
         FuzzySystemDescriptor.Range centerRange = descriptor.parameterRanges().get("center");
         FuzzySystemDescriptor.Range widthRange = descriptor.parameterRanges().get("width");
         FuzzySystemDescriptor.Range consequentRange = descriptor.parameterRanges().get("consequent");
@@ -58,7 +477,309 @@ public class FuzzySystemFitnessEvaluator implements FitnessEvaluator {
         for (int i = antecedentGeneCount; i < chromosomeLength; i++) {
             genes[i] = random.nextDouble(consequentRange.min(), consequentRange.max());
         }
-        return new Chromosome(genes);
+    }
+
+    /**
+     * Scores the rows of a gene matrix in place, following the same rules as {@link #evaluatePopulation}.
+     * Each row is wrapped directly as a {@link GridTskSystem} without copying, so no chromosome or individual is created.
+     */
+    @Override
+    public void evaluateGenes(double[][] genes, double[] fitness, int count, ExecutorService executorService) {
+        evaluateGenes(genes, fitness, count, executorService, null);
+    }
+
+    /**
+     * Scores the rows of a gene matrix in place like {@link #evaluateGenes(double[][], double[], int, ExecutorService)},
+     * drawing the mini-batch from the given generator.
+     *
+     * @param random The generator to sample rows with, or null to use this evaluator's own generator.
+     */
+    @Override
+    public void evaluateGenes(double[][] genes, double[] fitness, int count, ExecutorService executorService,
+                              RandomGenerator random) {
+        ColumnarDataset sample = nextMiniBatch(random);
+        boolean[] fresh = new boolean[count];
+        boolean[] refined = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            fresh[i] = fitness[i] < 0;
+        }
+        if (consequentRefinement == ConsequentRefinement.ALL) {
+            refineNew(genes, fresh, count, sample, refined, executorService);
+        }
+
+        Pending exact = new Pending();
+        Pending estimated = new Pending();
+        for (int i = 0; i < count; i++) {
+            if (fresh[i] || sample != null) {
+                // The row belongs to a buffer that will be overwritten, so the key is copied only if it is cached.
+                (fresh[i] && sample != null ? estimated : exact).add(i, GenomeKey.borrow(genes[i]), genes[i]);
+            }
+        }
+        score(exact, estimated, sample, fitness, count, executorService);
+        if (consequentRefinement == ConsequentRefinement.ELITES) {
+            // Refined genomes are new arrays; copy them back into the caller's rows.
+            double[][] rows = Arrays.copyOf(genes, count);
+            refineBest(rows, fitness, fresh, count, refined, executorService);
+            for (int i = 0; i < count; i++) {
+                if (refined[i]) {
+                    System.arraycopy(rows[i], 0, genes[i], 0, chromosomeLength);
+                }
+            }
+        }
+        if (sample == null) {
+            keepDeltaStates(fitness, fresh, count, i -> genes[i], executorService);
+        }
+    }
+
+    /**
+     * Builds the delta evaluation states of the fittest survivors of a population scored on the full dataset, unless
+     * a state for their antecedent genes is already kept. Survivors are the individuals that carried a fitness into
+     * the evaluation, typically the elites, which are the likeliest parents of the next evaluation's new individuals.
+     * Each missing state costs a full pass over the data, so the states are built as separate tasks.
+     *
+     * @param genesOf Gives the genome at a position. It is read, not retained.
+     */
+    private void keepDeltaStates(double[] fitness, boolean[] fresh, int count, IntFunction<double[]> genesOf,
+                                 ExecutorService executorService) {
+        Cache<GenomeKey, DeltaState> states = deltaStates;
+        if (states == null) {
+            return;
+        }
+        int[] fittest = IntStream.range(0, count)
+            .filter(i -> !fresh[i])
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> fitness[i]).reversed())
+            .limit(deltaParentCount)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        List<GenomeKey> missing = new ArrayList<>();
+        List<double[]> parents = new ArrayList<>();
+        for (int i : fittest) {
+            double[] genes = genesOf.apply(i);
+            GenomeKey antecedents = GenomeKey.wrap(Arrays.copyOf(genes, antecedentGeneCount));
+            if (states.getIfPresent(antecedents) == null && !missing.contains(antecedents)) {
+                missing.add(antecedents);
+                parents.add(genes);
+            }
+        }
+        DeltaState[] built = new DeltaState[missing.size()];
+        runTasks(built.length, k -> built[k] = DeltaState.build(parents.get(k), descriptor.inputVariables(),
+            descriptor.numFuzzySetsPerVariable(), dataset, inputColumns), executorService, "delta state building");
+        for (int k = 0; k < built.length; k++) {
+            states.put(missing.get(k), built[k]);
+        }
+    }
+
+    /**
+     * Finds the kept parent that a genome can be scored from incrementally.
+     *
+     * @return The parent's state, or null if no parent is kept for its antecedents or too many of its rules changed.
+     */
+    private DeltaState deltaParent(double[] genes) {
+        Cache<GenomeKey, DeltaState> states = deltaStates;
+        if (states == null) {
+            return null;
+        }
+        DeltaState state = states.getIfPresent(GenomeKey.wrap(Arrays.copyOf(genes, antecedentGeneCount)));
+        if (state == null || state.changedRules(genes) * 2 > GridTskSystem.ruleCount(
+                descriptor.inputVariables().size(), descriptor.numFuzzySetsPerVariable())) {
+            return null;
+        }
+        return state;
+    }
+
+    /**
+     * Refines the consequents of every new genome in place, on the rows it is about to be scored on.
+     *
+     * @param sample  The mini-batch the new genomes are scored on, or null for the full dataset.
+     * @param refined Set for each genome that was refined.
+     */
+    private void refineNew(double[][] genomes, boolean[] fresh, int count, ColumnarDataset sample, boolean[] refined,
+                           ExecutorService executorService) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (fresh[i]) {
+                positions.add(i);
+            }
+        }
+        refine(positions, genomes, sample != null ? sample : dataset, refined, executorService);
+    }
+
+    /**
+     * Refines the consequents of the best new genomes on the full dataset and scores them again. Each refined genome
+     * is a new array that replaces its row of {@code genomes}, since the old array may already be a cache key.
+     *
+     * @param refined Set for each genome that was refined.
+     */
+    private void refineBest(double[][] genomes, double[] fitness, boolean[] fresh, int count, boolean[] refined,
+                            ExecutorService executorService) {
+        List<Integer> positions = IntStream.range(0, count)
+            .filter(i -> fresh[i])
+            .boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> fitness[i]).reversed())
+            .limit(refinedEliteCount)
+            .toList();
+        double[][] copies = new double[count][];
+        for (int i : positions) {
+            copies[i] = genomes[i].clone();
+        }
+        boolean[] solved = new boolean[count];
+        refine(positions, copies, dataset, solved, executorService);
+
+        List<Integer> rescored = new ArrayList<>();
+        List<GenomeKey> keys = new ArrayList<>();
+        List<double[]> rescoredGenomes = new ArrayList<>();
+        for (int i : positions) {
+            if (solved[i]) {
+                rescored.add(i);
+                keys.add(GenomeKey.wrap(copies[i]));
+                rescoredGenomes.add(copies[i]);
+            }
+        }
+        double[] exact = exactFitness(keys, rescoredGenomes, executorService, AbortLimit.NONE);
+        for (int j = 0; j < rescored.size(); j++) {
+            int i = rescored.get(j);
+            genomes[i] = copies[i];
+            fitness[i] = exact[j];
+            refined[i] = true;
+        }
+    }
+
+    /**
+     * Refines the genomes at the given positions in place, one task per genome.
+     *
+     * @param solved Set for each genome whose normal equations could be solved.
+     */
+    private void refine(List<Integer> positions, double[][] genomes, ColumnarDataset data, boolean[] solved,
+                        ExecutorService executorService) {
+        runTasks(positions.size(), k -> {
+            int i = positions.get(k);
+            solved[i] = refine(genomes[i], data);
+        }, executorService, "consequent refinement");
+    }
+
+    /**
+     * Runs {@code count} independent tasks on the executor, or on the calling thread if there is no executor or only
+     * one task. Each task must write only its own result slots, so the results do not depend on scheduling.
+     *
+     * @param task        Runs the task with the given index.
+     * @param description What the tasks do, for the error message.
+     */
+    private static void runTasks(int count, IntConsumer task, ExecutorService executorService, String description) {
+        if (executorService == null || count < 2) {
+            for (int t = 0; t < count; t++) {
+                task.accept(t);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int t = 0; t < count; t++) {
+            int index = t;
+            futures.add(executorService.submit(() -> task.accept(index)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                throw new RuntimeException("Error during parallel " + description, e);
+            }
+        }
+    }
+
+    private boolean refine(double[] genes, ColumnarDataset data) {
+        boolean solved = refiner.refine(genes, data);
+        if (solved) {
+            refinements.increment();
+        }
+        return solved;
+    }
+
+    /**
+     * Scores the collected genomes and writes their fitness back. Early abort thresholds are taken from the
+     * individuals that already had a fitness; in mini-batch mode those are re-scored first and never aborted.
+     */
+    private void score(Pending exact, Pending estimated, ColumnarDataset sample, double[] fitness, int count,
+                       ExecutorService executorService) {
+        AbortLimit limit = sample == null ? abortLimit(fitness, count) : AbortLimit.NONE;
+        exact.store(exactFitness(exact.keys, exact.genomes, executorService, limit), fitness);
+        if (sample != null) {
+            estimated.store(estimatedFitness(estimated.genomes, sample, executorService, abortLimit(fitness, count)), fitness);
+        }
+    }
+
+    /**
+     * The fitness below which new individuals are abandoned, and the highest fitness an abandoned individual may
+     * report. The threshold can be any quantile of the known fitness values, so the partial bound of an aborted
+     * evaluation may exceed the worst of them; the ceiling keeps it below all of them.
+     */
+    private record AbortLimit(double threshold, double ceiling) {
+        private static final AbortLimit NONE = new AbortLimit(Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Gets the early abort limit of a pass: the configured quantile of the fitness values already known in this
+     * population, and a ceiling just below the worst of them.
+     *
+     * @return The limit, or {@link AbortLimit#NONE} if early abort is off or no fitness is known yet.
+     */
+    private AbortLimit abortLimit(double[] fitness, int count) {
+        if (!earlyAbort) {
+            return AbortLimit.NONE;
+        }
+        double[] known = new double[count];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (fitness[i] >= 0) {
+                known[size++] = fitness[i];
+            }
+        }
+        if (size == 0) {
+            return AbortLimit.NONE;
+        }
+        Arrays.sort(known, 0, size);
+        return new AbortLimit(known[(int) Math.floor(earlyAbortQuantile * (size - 1))],
+            Math.max(0.0, Math.nextDown(known[0])));
+    }
+
+    /**
+     * Converts a threshold fitness into the sum of squared errors over {@code rows} rows beyond which an
+     * individual's fitness is certain to fall below it.
+     */
+    private static double maxSquaredError(double thresholdFitness, int rows) {
+        return Double.isNaN(thresholdFitness) || thresholdFitness <= 0
+            ? Double.POSITIVE_INFINITY
+            : (1.0 / thresholdFitness - 1.0) * rows;
+    }
+
+    /**
+     * Returns the individual with its fitness computed on the full dataset, replacing a mini-batch estimate.
+     */
+    @Override
+    public Individual rescore(Individual individual) {
+        double[] genes = individual.chromosome().genes();
+        double fitness = exactFitness(List.of(GenomeKey.wrap(genes)), List.of(genes), null, AbortLimit.NONE)[0];
+        return fitness == individual.fitness() ? individual : new Individual(individual.chromosome(), fitness);
+    }
+
+    /**
+     * Genomes collected for one scoring pass, with the positions their fitness values are written back to.
+     */
+    private static final class Pending {
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<GenomeKey> keys = new ArrayList<>();
+        private final List<double[]> genomes = new ArrayList<>();
+
+        private void add(int position, GenomeKey key, double[] genes) {
+            positions.add(position);
+            keys.add(key);
+            genomes.add(genes);
+        }
+
+        private void store(double[] computed, double[] fitness) {
+            for (int i = 0; i < computed.length; i++) {
+                fitness[positions.get(i)] = computed[i];
+            }
+        }
     }
 
     public TskInferenceSystem decode(Chromosome chromosome) {
@@ -103,43 +824,539 @@ public class FuzzySystemFitnessEvaluator implements FitnessEvaluator {
         return new TskInferenceSystem(rules);
     }
 
-    private Individual evaluateIndividual(Individual individual) {
-        if (individual.fitness() >= 0) {
-            return individual; // Already evaluated (e.g., via elitism)
+    /**
+     * Decodes a chromosome directly into the array-backed {@link CompiledTskSystem}, without building
+     * the intermediate rule records that {@link #decode(Chromosome)} produces.
+     *
+     * @param chromosome The chromosome to decode.
+     * @return A compiled system whose inputs are ordered like {@link FuzzySystemDescriptor#inputVariables()}.
+     */
+    public CompiledTskSystem compile(Chromosome chromosome) {
+        return CompiledTskSystem.fromGrid(descriptor.inputVariables(), descriptor.numFuzzySetsPerVariable(), chromosome.genes());
+    }
+
+    /**
+     * Decodes a chromosome into a {@link GridTskSystem}, which evaluates each membership function once per
+     * (variable, set) and derives the firing strengths of all rules from those values.
+     *
+     * @param chromosome The chromosome to decode.
+     * @return A grid system whose inputs are ordered like {@link FuzzySystemDescriptor#inputVariables()}.
+     */
+    public GridTskSystem decodeGrid(Chromosome chromosome) {
+        // genes() already returns a private copy, so the system can own it.
+        return GridTskSystem.wrap(descriptor.inputVariables(), descriptor.numFuzzySetsPerVariable(), chromosome.genes());
+    }
+
+    private GridTskSystem wrap(double[] genes) {
+        return GridTskSystem.wrap(descriptor.inputVariables(), descriptor.numFuzzySetsPerVariable(), genes);
+    }
+
+    private double fitnessFromError(double totalError, int rows) {
+        double mse = totalError / rows;
+        return 1.0 / (1.0 + mse);
+    }
+
+    /**
+     * Computes the fitness of each genome on the full dataset. Cached genomes, duplicates and genomes that delta
+     * evaluation can score are resolved first; newly computed values are added to the cache, except the upper bounds
+     * of aborted evaluations.
+     *
+     * @param limit The early abort limit, or {@link AbortLimit#NONE} to evaluate every genome completely.
+     */
+    private double[] exactFitness(List<GenomeKey> keys, List<double[]> genomes, ExecutorService executorService,
+                                  AbortLimit limit) {
+        double[] fitness = new double[keys.size()];
+        int[] systemOf = new int[keys.size()];
+        int[] firstOf = new int[keys.size()];
+        Map<GenomeKey, Integer> firstOccurrence = new HashMap<>();
+        List<Integer> deltaPositions = new ArrayList<>();
+        List<DeltaState> deltaParents = new ArrayList<>();
+        List<GenomeKey> systemKeys = new ArrayList<>();
+        List<double[]> systemGenomes = new ArrayList<>();
+        List<GridTskSystem> systems = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            GenomeKey key = keys.get(i);
+            Integer first = firstOccurrence.putIfAbsent(key, i);
+            firstOf[i] = (first == null) ? i : first;
+            systemOf[i] = -1;
+            if (first != null) {
+                // A duplicate within this pass shares the result of its first occurrence.
+                continue;
+            }
+            Double cached = fitnessCache.getIfPresent(key);
+            if (cached != null) {
+                fitness[i] = cached;
+                continue;
+            }
+            DeltaState parent = deltaParent(genomes.get(i));
+            if (parent != null) {
+                deltaPositions.add(i);
+                deltaParents.add(parent);
+                continue;
+            }
+            systemOf[i] = systems.size();
+            systemKeys.add(key);
+            systemGenomes.add(genomes.get(i));
+            systems.add(wrap(genomes.get(i)));
         }
 
-        TskInferenceSystem system = decode(individual.chromosome());
+        // Incremental scores are independent of each other, so they run as separate tasks too.
+        double[] deltaErrors = new double[deltaPositions.size()];
+        runTasks(deltaErrors.length, d -> deltaErrors[d] = deltaParents.get(d).squaredError(
+            genomes.get(deltaPositions.get(d)), dataset), executorService, "delta evaluation");
+        for (int d = 0; d < deltaErrors.length; d++) {
+            int i = deltaPositions.get(d);
+            fitness[i] = fitnessFromError(deltaErrors[d], dataset.size());
+            fitnessCache.put(keys.get(i).owned(), fitness[i]);
+        }
+        deltaEvaluations.add(deltaErrors.length);
 
-        double totalError = dataset.dataPoints().stream()
-            .mapToDouble(point -> {
-                double actualOutput = system.calculate(point.inputs());
-                double error = point.expectedOutput() - actualOutput;
-                return error * error;
-            })
-            .sum();
+        if (!systems.isEmpty()) {
+            double[] computed = computedFitness(systemKeys, systemGenomes, systems, executorService, limit);
+            for (int i = 0; i < keys.size(); i++) {
+                if (systemOf[i] >= 0) {
+                    fitness[i] = computed[systemOf[i]];
+                }
+            }
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            fitness[i] = fitness[firstOf[i]];
+        }
+        return fitness;
+    }
 
-        double mse = totalError / dataset.size();
-        double fitness = 1.0 / (1.0 + mse);
+    /**
+     * Scores systems that no cache or kept parent could resolve, and caches their fitness unless their evaluation
+     * was aborted.
+     */
+    private double[] computedFitness(List<GenomeKey> systemKeys, List<double[]> systemGenomes,
+                                     List<GridTskSystem> systems, ExecutorService executorService,
+                                     AbortLimit limit) {
+        // Systems whose antecedent genes have cached firings reuse them; the others record theirs, once per pass.
+        Cache<GenomeKey, FiringMatrix> firings = firingCache;
+        FiringMatrix[] cachedFirings = null;
+        FiringMatrix[] recordedFirings = null;
+        GenomeKey[] antecedentKeys = null;
+        if (firings != null) {
+            int blocks = (dataset.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            cachedFirings = new FiringMatrix[systems.size()];
+            recordedFirings = new FiringMatrix[systems.size()];
+            antecedentKeys = new GenomeKey[systems.size()];
+            Set<GenomeKey> recording = new HashSet<>();
+            for (int s = 0; s < systems.size(); s++) {
+                GenomeKey antecedents = GenomeKey.wrap(Arrays.copyOf(systemGenomes.get(s), antecedentGeneCount));
+                cachedFirings[s] = firings.getIfPresent(antecedents);
+                if (cachedFirings[s] == null && recording.add(antecedents)) {
+                    recordedFirings[s] = new FiringMatrix(blocks);
+                    antecedentKeys[s] = antecedents;
+                }
+            }
+        }
 
-        return new Individual(individual.chromosome(), fitness);
+        ScoringPass pass = new ScoringPass(systems, dataset, executorService, false,
+            maxSquaredError(limit.threshold(), dataset.size()), cachedFirings, recordedFirings);
+        double[] computed = new double[systems.size()];
+        for (int s = 0; s < systems.size(); s++) {
+            computed[s] = fitnessFromError(pass.totals[s], dataset.size());
+            if (pass.aborted[s]) {
+                computed[s] = Math.min(computed[s], limit.ceiling());
+            } else {
+                fitnessCache.put(systemKeys.get(s).owned(), computed[s]);
+                if (recordedFirings != null && recordedFirings[s] != null) {
+                    firings.put(antecedentKeys[s], recordedFirings[s]);
+                }
+            }
+        }
+        return computed;
     }
 
-    private List<Individual> serialEvaluate(List<Individual> population) {
-        return population.stream().map(this::evaluateIndividual).collect(Collectors.toList());
+    /**
+     * Estimates the fitness of each genome on a mini-batch and records the variance of the completed estimates.
+     * Estimates are never cached, since they depend on the sample.
+     *
+     * @param limit The early abort limit, or {@link AbortLimit#NONE} to evaluate every genome completely.
+     */
+    private double[] estimatedFitness(List<double[]> genomes, ColumnarDataset sample, ExecutorService executorService,
+                                      AbortLimit limit) {
+        List<GridTskSystem> systems = new ArrayList<>(genomes.size());
+        for (double[] genes : genomes) {
+            systems.add(wrap(genes));
+        }
+        ScoringPass pass = new ScoringPass(systems, sample, executorService, true,
+            maxSquaredError(limit.threshold(), sample.size()), null, null);
+        double[] errors = pass.totals;
+        double[] fourthMoments = pass.fourthMoments;
+
+        int rows = sample.size();
+        double[] fitness = new double[systems.size()];
+        double varianceSum = 0.0;
+        double maxVariance = 0.0;
+        int estimates = 0;
+        for (int s = 0; s < systems.size(); s++) {
+            fitness[s] = fitnessFromError(errors[s], rows);
+            if (pass.aborted[s]) {
+                fitness[s] = Math.min(fitness[s], limit.ceiling());
+                continue;
+            }
+            estimates++;
+            // Sample variance of the per-row squared errors, scaled to the variance of their mean
+            // with the finite population correction for sampling without replacement.
+            double rowVariance = rows > 1 ? (fourthMoments[s] - errors[s] * errors[s] / rows) / (rows - 1) : 0.0;
+            double variance = Math.max(0.0, rowVariance / rows * (dataset.size() - rows) / Math.max(1, dataset.size() - 1));
+            varianceSum += variance;
+            maxVariance = Math.max(maxVariance, variance);
+        }
+        if (estimates > 0) {
+            miniBatchStats = new MiniBatchStats(rows, estimates, varianceSum / estimates, maxVariance);
+        }
+        return fitness;
     }
 
-    private List<Individual> parallelEvaluate(List<Individual> population, ExecutorService executorService) {
-        List<Future<Individual>> futures = population.stream()
-            .map(ind -> executorService.submit(() -> evaluateIndividual(ind)))
-            .collect(Collectors.toList());
+    /**
+     * One run of scoring a list of systems on some data: computes the sum of squared errors of each system,
+     * optionally with the sum of the squared per-row squared errors, and abandons a system once its error exceeds
+     * the abort limit.
+     * <p>
+     * The error of each 1024-row block is kept separately and the blocks are added in row order, so the totals do not
+     * depend on how the work was distributed. Early abort is only applied when each system is scored by a single
+     * task; when a fork-join pool splits systems over row ranges, every range is scored completely.
+     * <p>
+     * A system with cached firings is scored by a consequent pass over them; a system with a matrix to record fills
+     * it block by block while it is scored.
+     */
+    private final class ScoringPass {
+        private final List<GridTskSystem> systems;
+        private final ColumnarDataset data;
+        private final int chunks;
+        private final int blocksPerChunk;
+        private final double maxError;
+        private final double[][] errors;
+        private final double[][] moments;
+        private final FiringMatrix[] cachedFirings;
+        private final FiringMatrix[] recordedFirings;
 
-        return futures.stream().map(f -> {
-            try {
-                return f.get();
-            } catch (Exception e) {
-                throw new RuntimeException("Error during parallel fitness evaluation", e);
+        private final double[] totals;
+        private final double[] fourthMoments;
+        private final boolean[] aborted;
+
+        private ScoringPass(List<GridTskSystem> systems, ColumnarDataset data, ExecutorService executorService,
+                            boolean withMoments, double maxError, FiringMatrix[] cachedFirings,
+                            FiringMatrix[] recordedFirings) {
+            this.systems = systems;
+            this.data = data;
+            this.cachedFirings = cachedFirings;
+            this.recordedFirings = recordedFirings;
+            int blocks = (data.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            this.chunks = (executorService instanceof ForkJoinPool pool) ? rowChunks(systems.size(), blocks, pool.getParallelism()) : 1;
+            this.blocksPerChunk = (blocks + chunks - 1) / chunks;
+            this.maxError = chunks == 1 ? maxError : Double.POSITIVE_INFINITY;
+            this.errors = new double[systems.size()][blocks];
+            this.moments = withMoments ? new double[systems.size()][blocks] : null;
+            this.aborted = new boolean[systems.size()];
+
+            run(executorService);
+
+            this.totals = new double[systems.size()];
+            this.fourthMoments = withMoments ? new double[systems.size()] : null;
+            for (int s = 0; s < systems.size(); s++) {
+                for (int b = 0; b < blocks; b++) {
+                    totals[s] += errors[s][b];
+                    if (withMoments) {
+                        fourthMoments[s] += moments[s][b];
+                    }
+                }
+            }
+        }
+
+        private void run(ExecutorService executorService) {
+            int units = systems.size() * chunks;
+            if (executorService == null) {
+                for (int unit = 0; unit < units; unit++) {
+                    score(unit);
+                }
+            } else if (executorService instanceof ForkJoinPool pool) {
+                pool.invoke(new BlockErrorTask(this, 0, units));
+            } else {
+                List<Future<?>> futures = new ArrayList<>(units);
+                for (int unit = 0; unit < units; unit++) {
+                    int task = unit;
+                    futures.add(executorService.submit(() -> score(task)));
+                }
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (Exception e) {
+                        throw new RuntimeException("Error during parallel fitness evaluation", e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Scores one (system, row range) unit. Each unit writes only its own block slots, so no synchronization is needed.
+         */
+        private void score(int unit) {
+            int system = unit / chunks;
+            int chunk = unit % chunks;
+            double[] systemErrors = errors[system];
+            int firstBlock = chunk * blocksPerChunk;
+            int lastBlock = Math.min(systemErrors.length, firstBlock + blocksPerChunk);
+            Scratch buffers = scratch.get();
+            FiringMatrix cached = cachedFirings == null ? null : cachedFirings[system];
+            FiringMatrix recorded = recordedFirings == null ? null : recordedFirings[system];
+            double runningError = 0.0;
+            for (int b = firstBlock; b < lastBlock; b++) {
+                systemErrors[b] = (cached == null && recorded == null)
+                    ? blockSquaredError(systems.get(system), data, b * BLOCK_SIZE, buffers)
+                    : firingBlockSquaredError(systems.get(system), data, b, buffers, cached, recorded);
+                if (moments != null) {
+                    double moment = 0.0;
+                    for (int i = 0, length = Math.min(BLOCK_SIZE, data.size() - b * BLOCK_SIZE); i < length; i++) {
+                        moment += buffers.squaredErrors[i] * buffers.squaredErrors[i];
+                    }
+                    moments[system][b] = moment;
+                }
+                runningError += systemErrors[b];
+                if (runningError > maxError && b + 1 < lastBlock) {
+                    // The remaining blocks can only add error: the fitness is already below the threshold.
+                    aborted[system] = true;
+                    earlyAborts.increment();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scores a range of work units of a {@link ScoringPass}, splitting it in halves until a single unit remains.
+     */
+    private static final class BlockErrorTask extends RecursiveAction {
+        private final ScoringPass pass;
+        private final int from;
+        private final int to;
+
+        private BlockErrorTask(ScoringPass pass, int from, int to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BlockErrorTask(pass, from, middle), new BlockErrorTask(pass, middle, to));
+            } else if (to > from) {
+                pass.score(from);
+            }
+        }
+    }
+
+    /**
+     * Sums the squared errors of the rows in the block starting at {@code from}.
+     * The squared error of each row is left in {@code buffers.squaredErrors}.
+     */
+    private double blockSquaredError(GridTskSystem system, ColumnarDataset data, int from, Scratch buffers) {
+        int numInputs = inputColumns.length;
+        InferenceMode mode = inferenceMode;
+        double[][] block = buffers.block;
+        double[] expected = buffers.expected;
+        double[] squaredErrors = buffers.squaredErrors;
+        int length = copyBlock(data, from, buffers);
+
+        double error = 0.0;
+        if (mode == InferenceMode.BATCH) {
+            double[] outputs = buffers.outputs;
+            system.calculateBatch(block, length, outputs, buffers.batchWorkspace());
+            for (int i = 0; i < length; i++) {
+                double difference = expected[i] - outputs[i];
+                squaredErrors[i] = difference * difference;
+                error += squaredErrors[i];
             }
-        }).collect(Collectors.toList());
+        } else {
+            GridTskSystem.Workspace workspace = buffers.workspace;
+            double[] inputs = buffers.inputs;
+            for (int i = 0; i < length; i++) {
+                for (int v = 0; v < numInputs; v++) {
+                    inputs[v] = block[v][i];
+                }
+                double difference = expected[i] - system.calculate(inputs, workspace, mode);
+                squaredErrors[i] = difference * difference;
+                error += squaredErrors[i];
+            }
+        }
+        return error;
+    }
+
+    /**
+     * Sums the squared errors of the rows in block {@code b} like {@link #blockSquaredError}, either from the cached
+     * firings of the system's antecedent genes or while recording them. The outputs are identical to rule-by-rule
+     * inference.
+     *
+     * @param cached   The cached firings, or null to compute and record them.
+     * @param recorded The matrix that receives the block's firings when {@code cached} is null.
+     */
+    private double firingBlockSquaredError(GridTskSystem system, ColumnarDataset data, int b, Scratch buffers,
+                                           FiringMatrix cached, FiringMatrix recorded) {
+        int numInputs = inputColumns.length;
+        double[][] block = buffers.block;
+        double[] expected = buffers.expected;
+        double[] squaredErrors = buffers.squaredErrors;
+        double[] inputs = buffers.inputs;
+        int length = copyBlock(data, b * BLOCK_SIZE, buffers);
+
+        int[] offsets = cached != null ? cached.offsets[b] : new int[length + 1];
+        int[] rules = cached != null ? cached.rules[b] : buffers.firingRules;
+        double[] strengths = cached != null ? cached.strengths[b] : buffers.firingStrengths;
+        int firings = 0;
+        double error = 0.0;
+        for (int i = 0; i < length; i++) {
+            for (int v = 0; v < numInputs; v++) {
+                inputs[v] = block[v][i];
+            }
+            double output;
+            if (cached != null) {
+                output = system.defuzzify(inputs, rules, strengths, offsets[i], offsets[i + 1] - offsets[i]);
+            } else {
+                if (rules.length - firings < buffers.ruleFirings.length) {
+                    rules = Arrays.copyOf(rules, 2 * rules.length + buffers.ruleFirings.length);
+                    strengths = Arrays.copyOf(strengths, rules.length);
+                    buffers.firingRules = rules;
+                    buffers.firingStrengths = strengths;
+                }
+                int count = system.firingRules(inputs, buffers.workspace, buffers.ruleFirings, buffers.ruleStrengths);
+                System.arraycopy(buffers.ruleFirings, 0, rules, firings, count);
+                System.arraycopy(buffers.ruleStrengths, 0, strengths, firings, count);
+                output = system.defuzzify(inputs, rules, strengths, firings, count);
+                firings += count;
+                offsets[i + 1] = firings;
+            }
+            double difference = expected[i] - output;
+            squaredErrors[i] = difference * difference;
+            error += squaredErrors[i];
+        }
+        if (cached == null) {
+            recorded.offsets[b] = offsets;
+            recorded.rules[b] = Arrays.copyOf(rules, firings);
+            recorded.strengths[b] = Arrays.copyOf(strengths, firings);
+        }
+        return error;
+    }
+
+    /**
+     * Copies the inputs and expected outputs of the block starting at {@code from} into the scratch buffers.
+     *
+     * @return The number of rows in the block.
+     */
+    private int copyBlock(ColumnarDataset data, int from, Scratch buffers) {
+        int length = Math.min(BLOCK_SIZE, data.size() - from);
+        for (int v = 0; v < inputColumns.length; v++) {
+            data.copyInputs(inputColumns[v], from, buffers.block[v], 0, length);
+        }
+        data.copyExpectedOutputs(from, buffers.expected, 0, length);
+        return length;
+    }
+
+    /**
+     * Chooses how many row ranges each individual's evaluation is split into, so that there are about
+     * {@value #TASKS_PER_WORKER} tasks per worker: large populations are split by individual only,
+     * while small populations on large datasets are also split by rows.
+     *
+     * @param individuals The number of individuals to evaluate.
+     * @param blocks      The number of row blocks in the dataset.
+     * @param parallelism The number of workers.
+     * @return The number of row ranges per individual, between 1 and {@code blocks}.
+     */
+    static int rowChunks(int individuals, int blocks, int parallelism) {
+        int targetTasks = parallelism * TASKS_PER_WORKER;
+        int chunks = (targetTasks + individuals - 1) / Math.max(1, individuals);
+        return Math.max(1, Math.min(chunks, blocks));
+    }
+
+    /**
+     * Draws a new random sample of rows for mini-batch mode. The sample depends only on the generator's state, not on
+     * earlier samples, so engines that share this evaluator on several threads each draw reproducible samples from
+     * their own stream.
+     *
+     * @param callerRandom The generator to draw from, or null to use this evaluator's own generator.
+     * @return The sampled rows, or null if mini-batch mode is off or the batch would cover the whole dataset.
+     */
+    private ColumnarDataset nextMiniBatch(RandomGenerator callerRandom) {
+        int batchSize = miniBatchSize;
+        int rows = dataset.size();
+        if (batchSize <= 0 || batchSize >= rows) {
+            return null;
+        }
+        int[] sample = new int[batchSize];
+        int[] swaps = new int[batchSize];
+        synchronized (randomLock) {
+            RandomGenerator source = (callerRandom != null) ? callerRandom : random;
+            if (rowPermutation == null || rowPermutation.length != rows) {
+                rowPermutation = IntStream.range(0, rows).toArray();
+            }
+            // Partial Fisher-Yates shuffle: the first batchSize entries become a uniform sample without replacement.
+            for (int i = 0; i < batchSize; i++) {
+                int j = i + source.nextInt(rows - i);
+                int row = rowPermutation[j];
+                rowPermutation[j] = rowPermutation[i];
+                rowPermutation[i] = row;
+                sample[i] = row;
+                swaps[i] = j;
+            }
+            // Undo the swaps in reverse, so the next sample starts from the identity permutation again.
+            for (int i = batchSize - 1; i >= 0; i--) {
+                int j = swaps[i];
+                int row = rowPermutation[j];
+                rowPermutation[j] = rowPermutation[i];
+                rowPermutation[i] = row;
+            }
+        }
+        Arrays.sort(sample); // Read the data sequentially
+        return dataset.select(sample);
+    }
+
+    private Scratch newScratch() {
+        GridTskSystem shape = GridTskSystem.of(descriptor.inputVariables(), descriptor.numFuzzySetsPerVariable(),
+            new double[chromosomeLength]);
+        return new Scratch(shape, inputColumns.length);
+    }
+
+    /**
+     * One thread's row block and inference workspaces.
+     */
+    private static final class Scratch {
+        private final GridTskSystem shape;
+        private final double[][] block;
+        private final double[] expected = new double[BLOCK_SIZE];
+        private final double[] inputs;
+        private final double[] outputs = new double[BLOCK_SIZE];
+        private final double[] squaredErrors = new double[BLOCK_SIZE];
+        private final GridTskSystem.Workspace workspace;
+        private GridTskSystem.BatchWorkspace batchWorkspace;
+
+        // The firings of one row, and those of a whole block while it is being recorded.
+        private final int[] ruleFirings;
+        private final double[] ruleStrengths;
+        private int[] firingRules;
+        private double[] firingStrengths;
+
+        private Scratch(GridTskSystem shape, int numInputs) {
+            this.shape = shape;
+            this.block = new double[numInputs][BLOCK_SIZE];
+            this.inputs = new double[numInputs];
+            this.workspace = shape.newWorkspace();
+            this.ruleFirings = new int[shape.ruleCount()];
+            this.ruleStrengths = new double[shape.ruleCount()];
+            this.firingRules = new int[BLOCK_SIZE];
+            this.firingStrengths = new double[BLOCK_SIZE];
+        }
+
+        private GridTskSystem.BatchWorkspace batchWorkspace() {
+            if (batchWorkspace == null) {
+                batchWorkspace = shape.newBatchWorkspace(BLOCK_SIZE);
+            }
+            return batchWorkspace;
+        }
     }
 
     private int calculateChromosomeLength() {
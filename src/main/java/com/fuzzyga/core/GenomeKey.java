@@ -0,0 +1,57 @@
+package com.fuzzyga.core;
+
+import java.util.Arrays;
+
+/**
+ * A cache key that identifies a genome by its contents.
+ * <p>
+ * A key either owns its gene array, in which case callers must hand over an array that is never modified afterwards,
+ * or borrows it for lookups only. Borrowed keys must be converted with {@link #owned()} before they are stored.
+ * The hash is computed once, since keys are hashed on every cache lookup.
+ */
+final class GenomeKey {
+
+    private final double[] genes;
+    private final int hash;
+    private final boolean borrowed;
+
+    private GenomeKey(double[] genes, int hash, boolean borrowed) {
+        this.genes = genes;
+        this.hash = hash;
+        this.borrowed = borrowed;
+    }
+
+    /**
+     * Creates a key that takes ownership of the given array.
+     */
+    static GenomeKey wrap(double[] genes) {
+        return new GenomeKey(genes, Arrays.hashCode(genes), false);
+    }
+
+    /**
+     * Creates a key that only borrows the given array, for looking up buffers that will be reused. The array must not
+     * change while the key is in use.
+     */
+    static GenomeKey borrow(double[] genes) {
+        return new GenomeKey(genes, Arrays.hashCode(genes), true);
+    }
+
+    /**
+     * Gets a key that can be stored: this key if it owns its array, or else a key that owns a copy of it.
+     */
+    GenomeKey owned() {
+        return borrowed ? new GenomeKey(genes.clone(), hash, false) : this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GenomeKey that)) return false;
+        return hash == that.hash && Arrays.equals(genes, that.genes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
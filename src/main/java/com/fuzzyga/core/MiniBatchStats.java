@@ -0,0 +1,24 @@
+package com.fuzzyga.core;
+
+/**
+ * How noisy the fitness estimates of one mini-batch evaluation were.
+ * <p>
+ * Each estimate is a mean squared error over a random sample of rows; its variance is estimated from the spread of
+ * the per-row squared errors, with the finite population correction for sampling without replacement.
+ *
+ * @param batchSize       The number of rows in the sample.
+ * @param estimates       The number of individuals scored on the sample.
+ * @param meanMseVariance The mean, over those individuals, of the estimated variance of their sampled MSE.
+ * @param maxMseVariance  The largest estimated variance of a sampled MSE.
+ */
+public record MiniBatchStats(int batchSize, int estimates, double meanMseVariance, double maxMseVariance) {
+
+    /**
+     * Gets the typical standard error of a sampled MSE, in the units of the MSE itself.
+     *
+     * @return The square root of {@link #meanMseVariance()}.
+     */
+    public double meanStandardError() {
+        return Math.sqrt(meanMseVariance);
+    }
+}
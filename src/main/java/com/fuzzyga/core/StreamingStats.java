@@ -0,0 +1,17 @@
+package com.fuzzyga.core;
+
+/**
+ * The throughput of a {@link StreamingTrainer} run so far.
+ *
+ * @param rowsIngested         The rows read from the source.
+ * @param rowsDropped          The rows discarded unseen because the trainer fell more than a whole window behind.
+ * @param rowsPerSecond        The rows read per second, since the run started.
+ * @param generations          The generations evaluated.
+ * @param generationsPerSecond The generations evaluated per second, since the run started.
+ * @param windowSize           The number of rows in the window.
+ * @param bestFitness          The fitness of the best individual on the window when it was last evaluated, or -1
+ *                             before the first generation.
+ */
+public record StreamingStats(long rowsIngested, long rowsDropped, double rowsPerSecond, long generations,
+                             double generationsPerSecond, int windowSize, double bestFitness) {
+}
@@ -0,0 +1,272 @@
+package com.fuzzyga.core;
+
+import com.fuzzyga.core.data.RowSource;
+import com.fuzzyga.core.data.SlidingWindowDataset;
+import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.GeneticAlgorithmEngine;
+import com.fuzzyga.ga.Individual;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+
+/**
+ * Evolves fuzzy systems on a stream of data, against a sliding window of its most recent rows.
+ * <p>
+ * A background thread reads rows from a {@link RowSource} into a queue as fast as they arrive. Before each
+ * generation, the trainer moves the queued rows into the window, evicting the oldest ones, and if the window
+ * changed, discards every cached fitness value and re-scores the whole population on the new window, so that
+ * selection always compares individuals on the same data. Between arrivals, the population keeps evolving on the
+ * current window.
+ * <p>
+ * Memory stays bounded however long the run: the window and the queue each hold at most the window capacity, and
+ * the queue drops its oldest rows when the trainer falls that far behind. The evaluator's caches are bounded by
+ * their own settings.
+ * <p>
+ * A run continues until {@link #stop} is called. If the source ends, the run also ends once
+ * {@link GaConfig#maxGenerations()} generations have passed without new rows, or when the fitness threshold is
+ * reached, so a finite source trains like a static dataset after its last row.
+ */
+public class StreamingTrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingTrainer.class);
+
+    // How long the trainer waits for rows while the window is too small to train on.
+    private static final long ROW_WAIT_MILLIS = 100;
+
+    // How often throughput is logged.
+    private static final long STATS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final GaConfig config;
+    private final FuzzySystemFitnessEvaluator evaluator;
+    private final SlidingWindowDataset window;
+    private final RowSource source;
+    private final GeneticAlgorithmEngine engine;
+    private final BlockingQueue<double[]> pending;
+    private int minimumWindowSize;
+
+    private final AtomicLong rowsIngested = new AtomicLong();
+    private final AtomicLong rowsDropped = new AtomicLong();
+    private volatile long generations;
+    private volatile int windowSize;
+    private volatile Individual best;
+    private volatile long startNanos;
+    private volatile boolean sourceEnded;
+    private volatile IOException sourceFailure;
+    private volatile boolean stopped;
+
+    /**
+     * Creates a trainer.
+     *
+     * @param config    The GA parameters.
+     * @param evaluator An evaluator created on {@code window}.
+     * @param window    The window the population is evaluated on. It is only modified by {@link #run}.
+     * @param source    The rows to train on, with the same input variables as the window. It is closed when the run
+     *                  ends.
+     * @param random    The source of randomness for the initial population, selection, crossover and mutation.
+     */
+    public StreamingTrainer(GaConfig config, FuzzySystemFitnessEvaluator evaluator, SlidingWindowDataset window,
+                            RowSource source, RandomGenerator random) {
+        if (!source.inputVariables().equals(window.inputVariables())) {
+            throw new IllegalArgumentException("Source columns " + source.inputVariables()
+                + " do not match window columns " + window.inputVariables());
+        }
+        this.config = config;
+        this.evaluator = evaluator;
+        this.window = window;
+        this.source = source;
+        this.engine = new GeneticAlgorithmEngine(config, evaluator, random);
+        this.pending = new ArrayBlockingQueue<>(window.capacity());
+        this.minimumWindowSize = Math.min(window.capacity(), config.populationSize());
+    }
+
+    /**
+     * Sets how many rows the window must hold before the first generation is evaluated. Defaults to the population
+     * size, or the window capacity if that is smaller.
+     *
+     * @param minimumWindowSize The minimum number of rows.
+     * @throws IllegalArgumentException If it is not between 1 and the window capacity.
+     */
+    public void setMinimumWindowSize(int minimumWindowSize) {
+        if (minimumWindowSize < 1 || minimumWindowSize > window.capacity()) {
+            throw new IllegalArgumentException("Minimum window size must be between 1 and " + window.capacity()
+                + ": " + minimumWindowSize);
+        }
+        this.minimumWindowSize = minimumWindowSize;
+    }
+
+    public int getMinimumWindowSize() {
+        return minimumWindowSize;
+    }
+
+    /**
+     * Trains until {@link #stop} is called or the source is exhausted, as described above.
+     *
+     * @param executorService Optional ExecutorService for parallel fitness evaluation. If null, evaluation is serial.
+     * @return The best individual of the last generation, scored on the final window, or null if the source ended
+     *         before the window reached its minimum size.
+     * @throws RuntimeException If the source cannot be read.
+     */
+    public Individual run(ExecutorService executorService) {
+        startNanos = System.nanoTime();
+        Thread ingest = new Thread(this::ingest, "fuzzyga-ingest");
+        ingest.setDaemon(true);
+        ingest.start();
+        try {
+            return train(executorService);
+        } finally {
+            stopped = true;
+            try {
+                source.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close the row source", e);
+            }
+            ingest.interrupt();
+        }
+    }
+
+    private Individual train(ExecutorService executorService) {
+        List<Individual> population = engine.initializePopulation();
+        long idleGenerations = 0;
+        long lastStats = System.nanoTime();
+
+        while (!stopped) {
+            // Checked before draining, so that an empty queue afterwards means every row has been seen.
+            boolean ended = sourceEnded;
+            if (sourceFailure != null) {
+                throw new RuntimeException("Error reading the row source", sourceFailure);
+            }
+            if (drain() > 0) {
+                evaluator.invalidateFitnessCache();
+                population = population.stream().map(i -> new Individual(i.chromosome(), -1))
+                    .collect(Collectors.toList());
+                idleGenerations = 0;
+            }
+            if (window.size() < minimumWindowSize) {
+                if (ended && pending.isEmpty()) {
+                    break;
+                }
+                awaitRow();
+                continue;
+            }
+
+            population = engine.evaluate(population, executorService);
+            Individual bestOfGeneration = population.get(0);
+            best = bestOfGeneration;
+            generations++;
+            logger.info("Generation {}: Best Fitness = {} on {} rows", generations - 1, bestOfGeneration.fitness(),
+                window.size());
+
+            if (System.nanoTime() - lastStats >= STATS_INTERVAL_NANOS) {
+                lastStats = System.nanoTime();
+                logger.info("Streaming: {}", getStats());
+            }
+            if (ended && pending.isEmpty()
+                    && (++idleGenerations >= config.maxGenerations() || bestOfGeneration.fitness() >= config.fitnessThreshold())) {
+                break;
+            }
+            population = engine.breed(population);
+        }
+        Individual result = best;
+        return (result == null) ? null : evaluator.rescore(result);
+    }
+
+    /**
+     * Moves the queued rows into the window.
+     *
+     * @return The number of rows moved.
+     */
+    private int drain() {
+        int moved = 0;
+        for (double[] row = pending.poll(); row != null; row = pending.poll()) {
+            window.append(row);
+            moved++;
+        }
+        windowSize = window.size();
+        return moved;
+    }
+
+    /**
+     * Waits a little for the next row and moves it into the window. Only called before the first generation, so
+     * there is no fitness yet to invalidate.
+     */
+    private void awaitRow() {
+        try {
+            double[] row = pending.poll(ROW_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            if (row != null) {
+                window.append(row);
+                windowSize = window.size();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+    }
+
+    /**
+     * The ingest thread: reads rows from the source into the queue until the source ends or the run stops.
+     */
+    private void ingest() {
+        int width = source.inputVariables().size() + 1;
+        try {
+            double[] row = new double[width];
+            while (!stopped && source.next(row)) {
+                double[] copy = row.clone();
+                while (!pending.offer(copy)) {
+                    if (pending.poll() != null) {
+                        rowsDropped.incrementAndGet(); // The trainer is a whole window behind
+                    }
+                }
+                rowsIngested.incrementAndGet();
+            }
+        } catch (IOException e) {
+            if (!stopped) {
+                sourceFailure = e;
+            }
+        } finally {
+            sourceEnded = true;
+        }
+    }
+
+    /**
+     * Makes {@link #run} return after the generation in progress. Can be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Gets the best individual of the last evaluated generation, scored on the window at that time.
+     *
+     * @return The individual, or null before the first generation.
+     */
+    public Individual getBest() {
+        return best;
+    }
+
+    /**
+     * Takes a snapshot of the throughput of the current or last run. Can be called from any thread.
+     *
+     * @return The statistics.
+     */
+    public StreamingStats getStats() {
+        double seconds = (startNanos == 0) ? 0 : (System.nanoTime() - startNanos) / 1e9;
+        long rows = rowsIngested.get();
+        long evaluated = generations;
+        Individual current = best;
+        return new StreamingStats(rows, rowsDropped.get(),
+            seconds > 0 ? rows / seconds : 0,
+            evaluated,
+            seconds > 0 ? evaluated / seconds : 0,
+            windowSize,
+            current == null ? -1 : current.fitness());
+    }
+}
@@ -0,0 +1,261 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes the compact binary dataset format.
+ * <p>
+ * All values are little-endian. The file starts with a header:
+ * <pre>
+ *   magic        4 bytes  "FGDS"
+ *   version      int32    {@value #VERSION}
+ *   columnCount  int32    number of input columns + 1
+ *   rowCount     int64
+ *   columnNames  columnCount x (uint16 byte length, UTF-8 bytes), the output column last
+ *   padding      zero bytes up to the next multiple of 8
+ * </pre>
+ * followed by the data, one column after another, each column being {@code rowCount} doubles.
+ * Because every column is a contiguous, aligned run of doubles, the file can be memory-mapped and read in
+ * place by {@link MappedColumnarDataset} without any parsing.
+ */
+public final class BinaryDatasetFormat {
+
+    static final byte[] MAGIC = {'F', 'G', 'D', 'S'};
+    static final int VERSION = 1;
+
+    // Number of doubles buffered per column while converting a text file.
+    private static final int WRITE_BUFFER_DOUBLES = 1 << 13;
+
+    private BinaryDatasetFormat() {
+    }
+
+    /**
+     * A parsed file header.
+     *
+     * @param columnNames The column names, the output column last.
+     * @param rowCount    The number of rows.
+     * @param dataOffset  The file offset of the first column.
+     */
+    record Header(List<String> columnNames, long rowCount, long dataOffset) {
+
+        /**
+         * Gets the file offset of a column.
+         *
+         * @param column The column index; the output column is the last one.
+         * @return The offset of the column's first value.
+         */
+        long columnOffset(int column) {
+            return dataOffset + column * rowCount * Double.BYTES;
+        }
+    }
+
+    /**
+     * Writes a dataset in the binary format.
+     *
+     * @param dataset The dataset to write.
+     * @param file    The file to create or overwrite.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(ColumnarDataset dataset, Path file) throws IOException {
+        List<String> columnNames = new ArrayList<>();
+        dataset.inputVariables().forEach(variable -> columnNames.add(variable.name()));
+        columnNames.add("output");
+
+        int rows = dataset.size();
+        int inputs = dataset.inputVariables().size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = encodeHeader(columnNames, rows);
+            long position = header.remaining();
+            writeFully(channel, header, 0);
+
+            double[] values = new double[WRITE_BUFFER_DOUBLES];
+            ByteBuffer bytes = ByteBuffer.allocateDirect(WRITE_BUFFER_DOUBLES * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int column = 0; column <= inputs; column++) {
+                for (int from = 0; from < rows; from += WRITE_BUFFER_DOUBLES) {
+                    int length = Math.min(WRITE_BUFFER_DOUBLES, rows - from);
+                    if (column < inputs) {
+                        dataset.copyInputs(column, from, values, 0, length);
+                    } else {
+                        dataset.copyExpectedOutputs(from, values, 0, length);
+                    }
+                    bytes.clear();
+                    bytes.asDoubleBuffer().put(values, 0, length);
+                    bytes.limit(length * Double.BYTES);
+                    writeFully(channel, bytes, position);
+                    position += (long) length * Double.BYTES;
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts a whitespace-separated text dataset into the binary format.
+     * <p>
+     * The conversion streams the text file twice, first to count the rows and then to scatter each row into
+     * its columns, so memory use is bounded regardless of the file size.
+     *
+     * @param textFile   The text file to convert, in the format read by {@link HeapColumnarDataset#fromPath(Path)}.
+     * @param binaryFile The binary file to create or overwrite.
+     * @return The number of rows written.
+     * @throws IOException If either file cannot be accessed or the text is malformed.
+     */
+    public static long convertText(Path textFile, Path binaryFile) throws IOException {
+        List<String> columnNames;
+        long rows = 0;
+        try (InputStream is = Files.newInputStream(textFile)) {
+            TextDatasetParser parser = new TextDatasetParser(is);
+            columnNames = parser.columnNames();
+            double[] row = new double[columnNames.size()];
+            while (parser.nextRow(row)) {
+                rows++;
+            }
+        }
+
+        int columns = columnNames.size();
+        try (InputStream is = Files.newInputStream(textFile);
+             FileChannel channel = FileChannel.open(binaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                 StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer headerBytes = encodeHeader(columnNames, rows);
+            Header header = new Header(columnNames, rows, headerBytes.remaining());
+            writeFully(channel, headerBytes, 0);
+
+            ByteBuffer[] columnBuffers = new ByteBuffer[columns];
+            for (int c = 0; c < columns; c++) {
+                columnBuffers[c] = ByteBuffer.allocateDirect(WRITE_BUFFER_DOUBLES * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+
+            TextDatasetParser parser = new TextDatasetParser(is);
+            double[] row = new double[columns];
+            long written = 0;
+            long flushedRows = 0;
+            while (parser.nextRow(row)) {
+                if (written == rows) {
+                    throw new IOException("File changed during conversion: " + textFile);
+                }
+                for (int c = 0; c < columns; c++) {
+                    columnBuffers[c].putDouble(row[c]);
+                }
+                written++;
+                if (written - flushedRows == WRITE_BUFFER_DOUBLES) {
+                    flushColumns(channel, header, columnBuffers, flushedRows);
+                    flushedRows = written;
+                }
+            }
+            if (written != rows) {
+                throw new IOException("File changed during conversion: " + textFile);
+            }
+            flushColumns(channel, header, columnBuffers, flushedRows);
+        }
+        return rows;
+    }
+
+    /**
+     * Reads the header of a binary dataset file.
+     */
+    static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer fixed = readFully(channel, 0, 20);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (fixed.get() != MAGIC[i]) {
+                throw new IOException("Not a binary dataset file.");
+            }
+        }
+        int version = fixed.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary dataset version: " + version);
+        }
+        int columns = fixed.getInt();
+        long rows = fixed.getLong();
+        if (columns < 2 || rows < 0) {
+            throw new IOException("Corrupt binary dataset header.");
+        }
+
+        List<String> names = new ArrayList<>(columns);
+        long position = 20;
+        for (int c = 0; c < columns; c++) {
+            int length = Short.toUnsignedInt(readFully(channel, position, Short.BYTES).getShort());
+            position += Short.BYTES;
+            ByteBuffer name = readFully(channel, position, length);
+            position += length;
+            names.add(StandardCharsets.UTF_8.decode(name).toString());
+        }
+
+        Header header = new Header(names, rows, align(position));
+        long expectedSize = header.columnOffset(columns);
+        if (channel.size() < expectedSize) {
+            throw new IOException("Binary dataset is truncated: expected " + expectedSize + " bytes but found " + channel.size());
+        }
+        return header;
+    }
+
+    private static ByteBuffer encodeHeader(List<String> columnNames, long rows) {
+        List<byte[]> encodedNames = new ArrayList<>();
+        int size = 20;
+        for (String name : columnNames) {
+            byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+            if (encoded.length > 0xFFFF) {
+                throw new IllegalArgumentException("Column name is too long: " + name);
+            }
+            encodedNames.add(encoded);
+            size += Short.BYTES + encoded.length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((int) align(size)).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(MAGIC).putInt(VERSION).putInt(columnNames.size()).putLong(rows);
+        for (byte[] name : encodedNames) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.position(0);
+        return header;
+    }
+
+    private static void flushColumns(FileChannel channel, Header header, ByteBuffer[] columnBuffers, long firstRow) throws IOException {
+        for (int c = 0; c < columnBuffers.length; c++) {
+            ByteBuffer buffer = columnBuffers[c];
+            buffer.flip();
+            writeFully(channel, buffer, header.columnOffset(c) + firstRow * Double.BYTES);
+            buffer.clear();
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of binary dataset file.");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static long align(long position) {
+        return (position + Double.BYTES - 1) & -Double.BYTES;
+    }
+
+    /**
+     * Converts the column names of a header into input variables.
+     */
+    static List<InputVariable> inputVariables(Header header) {
+        List<String> names = header.columnNames();
+        return names.subList(0, names.size() - 1).stream().map(InputVariable::new).toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.util.List;
+
+/**
+ * A dataset stored column by column as primitive doubles.
+ * <p>
+ * Unlike {@link Dataset}, which holds one {@link DataPoint} with a boxed input map per row, a columnar dataset
+ * keeps one column of values per input variable plus one column of expected outputs. Rows are addressed by
+ * index and columns by the position of their variable in {@link #inputVariables()}, so the fitness evaluator
+ * can scan the data in blocks without boxing or hashing.
+ */
+public interface ColumnarDataset {
+
+    /**
+     * Gets the input variables, in column order.
+     *
+     * @return An unmodifiable list of the input variables.
+     */
+    List<InputVariable> inputVariables();
+
+    /**
+     * Gets the number of rows in the dataset.
+     *
+     * @return The row count.
+     */
+    int size();
+
+    /**
+     * Gets a single input value.
+     *
+     * @param column The column index, i.e. the position of the variable in {@link #inputVariables()}.
+     * @param row    The row index.
+     * @return The input value.
+     */
+    double input(int column, int row);
+
+    /**
+     * Gets the expected output of a row.
+     *
+     * @param row The row index.
+     * @return The expected output value.
+     */
+    double expectedOutput(int row);
+
+    /**
+     * Copies a contiguous range of an input column into an array.
+     * Implementations should override this with a bulk copy.
+     *
+     * @param column      The column index.
+     * @param fromRow     The first row to copy.
+     * @param destination The array to copy into.
+     * @param offset      The position in {@code destination} of the first copied value.
+     * @param length      The number of rows to copy.
+     */
+    default void copyInputs(int column, int fromRow, double[] destination, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = input(column, fromRow + i);
+        }
+    }
+
+    /**
+     * Copies a contiguous range of expected outputs into an array.
+     * Implementations should override this with a bulk copy.
+     *
+     * @param fromRow     The first row to copy.
+     * @param destination The array to copy into.
+     * @param offset      The position in {@code destination} of the first copied value.
+     * @param length      The number of rows to copy.
+     */
+    default void copyExpectedOutputs(int fromRow, double[] destination, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            destination[offset + i] = expectedOutput(fromRow + i);
+        }
+    }
+
+    /**
+     * Gets the column index of an input variable.
+     *
+     * @param variable The variable to look up.
+     * @return The column index, or -1 if the dataset has no column for the variable.
+     */
+    default int columnOf(InputVariable variable) {
+        return inputVariables().indexOf(variable);
+    }
+
+    /**
+     * Copies a subset of the rows into a new heap dataset, e.g. to score on a random sample of the data.
+     * Implementations can override this with direct column access.
+     *
+     * @param rows The rows to copy, in the order they should appear. Ascending order reads the data sequentially.
+     * @return A new dataset with one row per entry of {@code rows}.
+     */
+    default HeapColumnarDataset select(int[] rows) {
+        int columns = inputVariables().size();
+        double[][] inputs = new double[columns][rows.length];
+        double[] outputs = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            for (int c = 0; c < columns; c++) {
+                inputs[c][i] = input(c, rows[i]);
+            }
+            outputs[i] = expectedOutput(rows[i]);
+        }
+        return new HeapColumnarDataset(inputVariables(), inputs, outputs);
+    }
+}
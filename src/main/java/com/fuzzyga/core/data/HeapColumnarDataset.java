@@ -0,0 +1,161 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A {@link ColumnarDataset} held on the heap as one {@code double[]} per column.
+ * <p>
+ * This costs exactly 8 bytes per value. Text files are loaded with a byte-level parser that
+ * does not go through {@code String.split} or create a {@code String} per number, which keeps loading
+ * large training files cheap.
+ */
+public final class HeapColumnarDataset implements ColumnarDataset, Serializable {
+
+    private final List<InputVariable> inputVariables;
+    private final double[][] inputColumns;
+    private final double[] expectedOutputs;
+
+    /**
+     * Creates a dataset from existing column arrays. The arrays are used directly, not copied.
+     *
+     * @param inputVariables  The input variables, in column order.
+     * @param inputColumns    One array of values per input variable.
+     * @param expectedOutputs The expected output of each row.
+     * @throws IllegalArgumentException If the number or lengths of the columns are inconsistent.
+     */
+    public HeapColumnarDataset(List<InputVariable> inputVariables, double[][] inputColumns, double[] expectedOutputs) {
+        if (inputColumns.length != inputVariables.size()) {
+            throw new IllegalArgumentException("Expected " + inputVariables.size() + " input columns but got " + inputColumns.length);
+        }
+        for (double[] column : inputColumns) {
+            if (column.length != expectedOutputs.length) {
+                throw new IllegalArgumentException("All columns must have " + expectedOutputs.length + " rows.");
+            }
+        }
+        this.inputVariables = List.copyOf(inputVariables);
+        this.inputColumns = inputColumns;
+        this.expectedOutputs = expectedOutputs;
+    }
+
+    /**
+     * Converts a row-oriented {@link Dataset} into columns.
+     * Inputs that a data point does not define are treated as 0, as in {@link com.fuzzyga.fuzzy.TskInferenceSystem}.
+     *
+     * @param dataset   The dataset to convert.
+     * @param variables The input variables that become the columns, in order.
+     * @return A new columnar dataset.
+     */
+    public static HeapColumnarDataset from(Dataset dataset, List<InputVariable> variables) {
+        int rows = dataset.size();
+        double[][] columns = new double[variables.size()][rows];
+        double[] outputs = new double[rows];
+        for (int row = 0; row < rows; row++) {
+            DataPoint point = dataset.dataPoints().get(row);
+            for (int v = 0; v < variables.size(); v++) {
+                columns[v][row] = point.inputs().getOrDefault(variables.get(v), 0.0);
+            }
+            outputs[row] = point.expectedOutput();
+        }
+        return new HeapColumnarDataset(variables, columns, outputs);
+    }
+
+    /**
+     * Loads a dataset from a whitespace-separated text resource on the classpath.
+     *
+     * @param path The path to the resource file.
+     * @return A new {@link HeapColumnarDataset} instance.
+     * @throws IOException If the resource cannot be found, read or parsed.
+     * @see #read(InputStream)
+     */
+    public static HeapColumnarDataset fromResource(String path) throws IOException {
+        try (InputStream is = HeapColumnarDataset.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IOException("Resource not found: " + path);
+            }
+            return read(is);
+        }
+    }
+
+    /**
+     * Loads a dataset from a whitespace-separated text file.
+     *
+     * @param path The path to the file.
+     * @return A new {@link HeapColumnarDataset} instance.
+     * @throws IOException If the file cannot be read or parsed.
+     * @see #read(InputStream)
+     */
+    public static HeapColumnarDataset fromPath(Path path) throws IOException {
+        try (InputStream is = Files.newInputStream(path)) {
+            return read(is);
+        }
+    }
+
+    /**
+     * Reads a dataset in the whitespace-separated text format.
+     * <p>
+     * The first line is a header with one name per column (e.g. "x y z"); the last column is the output.
+     * If the first line consists only of numbers the file is treated as headerless, and the input columns
+     * are named {@code x1, x2, ...}.
+     *
+     * @param is The stream to read. It is not closed.
+     * @return A new {@link HeapColumnarDataset} instance.
+     * @throws IOException If the stream cannot be read or contains malformed rows.
+     */
+    public static HeapColumnarDataset read(InputStream is) throws IOException {
+        return new TextDatasetParser(is).parse();
+    }
+
+    @Override
+    public List<InputVariable> inputVariables() {
+        return inputVariables;
+    }
+
+    @Override
+    public int size() {
+        return expectedOutputs.length;
+    }
+
+    @Override
+    public double input(int column, int row) {
+        return inputColumns[column][row];
+    }
+
+    @Override
+    public double expectedOutput(int row) {
+        return expectedOutputs[row];
+    }
+
+    @Override
+    public void copyInputs(int column, int fromRow, double[] destination, int offset, int length) {
+        System.arraycopy(inputColumns[column], fromRow, destination, offset, length);
+    }
+
+    @Override
+    public void copyExpectedOutputs(int fromRow, double[] destination, int offset, int length) {
+        System.arraycopy(expectedOutputs, fromRow, destination, offset, length);
+    }
+
+    @Override
+    public HeapColumnarDataset select(int[] rows) {
+        double[][] inputs = new double[inputColumns.length][rows.length];
+        double[] outputs = new double[rows.length];
+        for (int c = 0; c < inputColumns.length; c++) {
+            double[] source = inputColumns[c];
+            double[] target = inputs[c];
+            for (int i = 0; i < rows.length; i++) {
+                target[i] = source[rows[i]];
+            }
+        }
+        for (int i = 0; i < rows.length; i++) {
+            outputs[i] = expectedOutputs[rows[i]];
+        }
+        return new HeapColumnarDataset(inputVariables, inputs, outputs);
+    }
+}
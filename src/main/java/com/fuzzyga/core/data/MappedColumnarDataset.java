@@ -0,0 +1,134 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * A {@link ColumnarDataset} read in place from a memory-mapped file in the {@link BinaryDatasetFormat}.
+ * <p>
+ * Opening a file only reads its header; the column data is mapped read-only with {@link FileChannel#map} and
+ * paged in by the operating system as rows are scanned. The dataset therefore does not need to fit in the heap
+ * or even in physical memory, opening is nearly instantaneous, and concurrent runs over the same file share
+ * the page cache.
+ * <p>
+ * A single mapping is limited to 2 GiB, so each column is mapped as a sequence of fixed-size chunks.
+ */
+public final class MappedColumnarDataset implements ColumnarDataset {
+
+    // Each chunk maps 2^27 doubles (1 GiB).
+    private static final int CHUNK_SHIFT = 27;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final Path file;
+    private final List<InputVariable> inputVariables;
+    private final int size;
+    private final DoubleBuffer[][] inputChunks;
+    private final DoubleBuffer[] outputChunks;
+
+    private MappedColumnarDataset(Path file, List<InputVariable> inputVariables, int size,
+                                  DoubleBuffer[][] inputChunks, DoubleBuffer[] outputChunks) {
+        this.file = file;
+        this.inputVariables = inputVariables;
+        this.size = size;
+        this.inputChunks = inputChunks;
+        this.outputChunks = outputChunks;
+    }
+
+    /**
+     * Opens and maps a binary dataset file.
+     *
+     * @param file The file to open, as written by {@link BinaryDatasetFormat}.
+     * @return The mapped dataset.
+     * @throws IOException If the file cannot be read or is not a valid binary dataset.
+     */
+    public static MappedColumnarDataset open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            BinaryDatasetFormat.Header header = BinaryDatasetFormat.readHeader(channel);
+            if (header.rowCount() > Integer.MAX_VALUE) {
+                throw new IOException("Binary dataset has too many rows: " + header.rowCount());
+            }
+            int rows = (int) header.rowCount();
+            List<InputVariable> inputVariables = BinaryDatasetFormat.inputVariables(header);
+
+            DoubleBuffer[][] inputChunks = new DoubleBuffer[inputVariables.size()][];
+            for (int column = 0; column < inputVariables.size(); column++) {
+                inputChunks[column] = mapColumn(channel, header.columnOffset(column), rows);
+            }
+            DoubleBuffer[] outputChunks = mapColumn(channel, header.columnOffset(inputVariables.size()), rows);
+
+            // The mappings stay valid after the channel is closed.
+            return new MappedColumnarDataset(file, inputVariables, rows, inputChunks, outputChunks);
+        }
+    }
+
+    private static DoubleBuffer[] mapColumn(FileChannel channel, long offset, int rows) throws IOException {
+        int chunks = (int) (((long) rows + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+        DoubleBuffer[] mapped = new DoubleBuffer[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            long firstRow = (long) chunk << CHUNK_SHIFT;
+            long length = Math.min(CHUNK_SIZE, rows - firstRow);
+            mapped[chunk] = channel.map(FileChannel.MapMode.READ_ONLY, offset + firstRow * Double.BYTES, length * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asDoubleBuffer();
+        }
+        return mapped;
+    }
+
+    /**
+     * Gets the file this dataset is mapped from.
+     *
+     * @return The file path.
+     */
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public List<InputVariable> inputVariables() {
+        return inputVariables;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double input(int column, int row) {
+        return inputChunks[column][row >>> CHUNK_SHIFT].get(row & CHUNK_MASK);
+    }
+
+    @Override
+    public double expectedOutput(int row) {
+        return outputChunks[row >>> CHUNK_SHIFT].get(row & CHUNK_MASK);
+    }
+
+    @Override
+    public void copyInputs(int column, int fromRow, double[] destination, int offset, int length) {
+        copy(inputChunks[column], fromRow, destination, offset, length);
+    }
+
+    @Override
+    public void copyExpectedOutputs(int fromRow, double[] destination, int offset, int length) {
+        copy(outputChunks, fromRow, destination, offset, length);
+    }
+
+    private static void copy(DoubleBuffer[] chunks, int fromRow, double[] destination, int offset, int length) {
+        while (length > 0) {
+            int index = fromRow & CHUNK_MASK;
+            int count = Math.min(length, CHUNK_SIZE - index);
+            chunks[fromRow >>> CHUNK_SHIFT].get(index, destination, offset, count);
+            fromRow += count;
+            offset += count;
+            length -= count;
+        }
+    }
+}
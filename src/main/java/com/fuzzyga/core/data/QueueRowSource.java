@@ -0,0 +1,107 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link RowSource} fed by other threads of the same process through a bounded queue.
+ * <p>
+ * Producers add rows with {@link #put} or {@link #offer}; {@link #close} marks the end of the data, after which
+ * the rows already queued are still delivered.
+ */
+public final class QueueRowSource implements RowSource {
+
+    // How often a reader waiting on an empty queue checks whether the source was closed.
+    private static final long CLOSE_CHECK_MILLIS = 50;
+
+    private final List<InputVariable> inputVariables;
+    private final BlockingQueue<double[]> queue;
+    private volatile boolean closed;
+
+    /**
+     * Creates an empty source.
+     *
+     * @param inputVariables The input variables, in row order.
+     * @param capacity       The number of rows the queue holds before producers have to wait.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public QueueRowSource(List<InputVariable> inputVariables, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+        }
+        this.inputVariables = List.copyOf(inputVariables);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Adds a row, waiting for space in the queue if it is full.
+     *
+     * @param row The inputs followed by the expected output. The array is copied.
+     * @throws InterruptedException     If interrupted while waiting.
+     * @throws IllegalArgumentException If the row has the wrong length.
+     * @throws IllegalStateException    If the source is closed.
+     */
+    public void put(double[] row) throws InterruptedException {
+        queue.put(copy(row));
+    }
+
+    /**
+     * Adds a row if the queue has space for it.
+     *
+     * @param row The inputs followed by the expected output. The array is copied.
+     * @return false if the queue was full and the row was not added.
+     * @throws IllegalArgumentException If the row has the wrong length.
+     * @throws IllegalStateException    If the source is closed.
+     */
+    public boolean offer(double[] row) {
+        return queue.offer(copy(row));
+    }
+
+    private double[] copy(double[] row) {
+        if (closed) {
+            throw new IllegalStateException("Row source is closed.");
+        }
+        if (row.length != inputVariables.size() + 1) {
+            throw new IllegalArgumentException("Expected " + (inputVariables.size() + 1) + " values but got " + row.length);
+        }
+        return row.clone();
+    }
+
+    @Override
+    public List<InputVariable> inputVariables() {
+        return inputVariables;
+    }
+
+    @Override
+    public boolean next(double[] row) throws IOException {
+        try {
+            while (true) {
+                double[] queued = queue.poll(CLOSE_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                if (queued != null) {
+                    System.arraycopy(queued, 0, row, 0, queued.length);
+                    return true;
+                }
+                if (closed && queue.isEmpty()) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a row");
+        }
+    }
+
+    /**
+     * Marks the end of the data. Readers receive the rows already queued, then the end of the source.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A possibly unbounded stream of data rows, such as a growing file, standard input or an in-process queue.
+ * <p>
+ * Rows have the layout of a text dataset line: one value per input variable, in {@link #inputVariables()} order,
+ * followed by the expected output. A source is read by a single thread, but may be closed from any thread to make
+ * a blocked {@link #next} return.
+ */
+public interface RowSource extends Closeable {
+
+    /**
+     * Gets the input variables, in the order their values appear in each row.
+     *
+     * @return An unmodifiable list of the input variables.
+     */
+    List<InputVariable> inputVariables();
+
+    /**
+     * Reads the next row, waiting until one is available.
+     *
+     * @param row An array of at least {@code inputVariables().size() + 1} elements that receives the row.
+     * @return true if a row was read, false if the source has ended or was closed.
+     * @throws IOException If the source cannot be read or the row is malformed.
+     */
+    boolean next(double[] row) throws IOException;
+}
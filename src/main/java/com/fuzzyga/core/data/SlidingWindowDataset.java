@@ -0,0 +1,128 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.util.List;
+
+/**
+ * A {@link ColumnarDataset} holding the most recent rows of a stream, up to a fixed capacity.
+ * <p>
+ * The columns are ring buffers allocated once, so the window uses the same memory however many rows pass through
+ * it. Once it is full, each appended row evicts the oldest one. Row 0 is always the oldest row in the window.
+ * <p>
+ * A window is not thread-safe: it must not be appended to while it is being read, e.g. by an evaluation in
+ * progress.
+ */
+public final class SlidingWindowDataset implements ColumnarDataset {
+
+    private final List<InputVariable> inputVariables;
+    private final double[][] inputColumns;
+    private final double[] expectedOutputs;
+    private final int capacity;
+
+    // The physical position of row 0, and the number of rows held.
+    private int start;
+    private int size;
+    private long appended;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param inputVariables The input variables, in column order.
+     * @param capacity       The maximum number of rows held.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public SlidingWindowDataset(List<InputVariable> inputVariables, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Window capacity must be positive: " + capacity);
+        }
+        this.inputVariables = List.copyOf(inputVariables);
+        this.inputColumns = new double[inputVariables.size()][capacity];
+        this.expectedOutputs = new double[capacity];
+        this.capacity = capacity;
+    }
+
+    /**
+     * Appends a row, evicting the oldest row if the window is full.
+     *
+     * @param row The inputs in column order, followed by the expected output.
+     */
+    public void append(double[] row) {
+        int position;
+        if (size < capacity) {
+            position = physical(size);
+            size++;
+        } else {
+            position = start;
+            start = physical(1);
+        }
+        for (int c = 0; c < inputColumns.length; c++) {
+            inputColumns[c][position] = row[c];
+        }
+        expectedOutputs[position] = row[inputColumns.length];
+        appended++;
+    }
+
+    /**
+     * Gets the maximum number of rows the window holds.
+     *
+     * @return The capacity.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of rows appended since the window was created, including those already evicted.
+     *
+     * @return The row count.
+     */
+    public long appendedCount() {
+        return appended;
+    }
+
+    private int physical(int row) {
+        int position = start + row;
+        return position >= capacity ? position - capacity : position;
+    }
+
+    @Override
+    public List<InputVariable> inputVariables() {
+        return inputVariables;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public double input(int column, int row) {
+        return inputColumns[column][physical(row)];
+    }
+
+    @Override
+    public double expectedOutput(int row) {
+        return expectedOutputs[physical(row)];
+    }
+
+    @Override
+    public void copyInputs(int column, int fromRow, double[] destination, int offset, int length) {
+        copy(inputColumns[column], fromRow, destination, offset, length);
+    }
+
+    @Override
+    public void copyExpectedOutputs(int fromRow, double[] destination, int offset, int length) {
+        copy(expectedOutputs, fromRow, destination, offset, length);
+    }
+
+    /**
+     * Copies a range of rows out of a ring buffer, in at most two pieces.
+     */
+    private void copy(double[] column, int fromRow, double[] destination, int offset, int length) {
+        int from = physical(fromRow);
+        int first = Math.min(length, capacity - from);
+        System.arraycopy(column, from, destination, offset, first);
+        System.arraycopy(column, 0, destination, offset + first, length - first);
+    }
+}
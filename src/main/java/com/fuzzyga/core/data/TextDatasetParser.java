@@ -0,0 +1,364 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A streaming parser for the whitespace-separated text dataset format.
+ * <p>
+ * The parser works directly on bytes: it splits lines and tokens by scanning a reusable buffer and converts
+ * numbers without creating intermediate {@code String}s. Plain decimal numbers with up to 15-16 significant
+ * digits (the common case) are converted exactly with a single floating-point operation; anything else
+ * falls back to {@link Double#parseDouble(String)}.
+ */
+final class TextDatasetParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfStream;
+
+    private int lineStart;
+    private int lineEnd;
+    private long lineNumber;
+
+    private final List<String> columnNames = new ArrayList<>();
+    private final boolean headerless;
+    private double[] pendingRow;
+
+    /**
+     * Creates a parser and reads the header line.
+     *
+     * @param in The stream to read. It is not closed by the parser.
+     * @throws IOException If the stream is empty or cannot be read.
+     */
+    TextDatasetParser(InputStream in) throws IOException {
+        this.in = in;
+
+        List<String> firstLine = new ArrayList<>();
+        while (firstLine.isEmpty()) {
+            if (!nextLine()) {
+                throw new IOException("Dataset file is empty or has no header.");
+            }
+            firstLine = tokens();
+        }
+        if (firstLine.size() < 2) {
+            throw new IOException("Dataset must have at least one input column and one output column.");
+        }
+
+        double[] numericHeader = tryParseAll(firstLine);
+        this.headerless = numericHeader != null;
+        if (headerless) {
+            for (int i = 1; i < firstLine.size(); i++) {
+                columnNames.add("x" + i);
+            }
+            columnNames.add("y");
+            pendingRow = numericHeader;
+        } else {
+            columnNames.addAll(firstLine);
+        }
+    }
+
+    /**
+     * Gets the column names, the last one being the output column.
+     *
+     * @return The column names.
+     */
+    List<String> columnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Gets the input variables defined by the header, i.e. every column but the last.
+     *
+     * @return The input variables, in column order.
+     */
+    List<InputVariable> inputVariables() {
+        return columnNames.subList(0, columnNames.size() - 1).stream().map(InputVariable::new).toList();
+    }
+
+    /**
+     * Indicates whether the first line held data rather than column names.
+     *
+     * @return true if the file had no header line.
+     */
+    boolean isHeaderless() {
+        return headerless;
+    }
+
+    /**
+     * Reads the next data row, skipping blank lines.
+     *
+     * @param values An array of at least {@code columnNames().size()} elements that receives the row.
+     * @return true if a row was read, false at the end of the stream.
+     * @throws IOException If the stream cannot be read or the row is malformed.
+     */
+    boolean nextRow(double[] values) throws IOException {
+        if (pendingRow != null) {
+            System.arraycopy(pendingRow, 0, values, 0, pendingRow.length);
+            pendingRow = null;
+            return true;
+        }
+        int columns = columnNames.size();
+        while (nextLine()) {
+            int count = 0;
+            int i = lineStart;
+            while (true) {
+                while (i < lineEnd && isWhitespace(buffer[i])) {
+                    i++;
+                }
+                if (i >= lineEnd) {
+                    break;
+                }
+                int tokenStart = i;
+                while (i < lineEnd && !isWhitespace(buffer[i])) {
+                    i++;
+                }
+                if (count == columns) {
+                    throw malformed(count + 1);
+                }
+                values[count++] = parseNumber(tokenStart, i);
+            }
+            if (count == 0) {
+                continue; // Blank line
+            }
+            if (count != columns) {
+                throw malformed(count);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads all remaining rows into a {@link HeapColumnarDataset}.
+     *
+     * @return The parsed dataset.
+     * @throws IOException If the stream cannot be read or contains malformed rows.
+     */
+    HeapColumnarDataset parse() throws IOException {
+        int columns = columnNames.size();
+        double[][] data = new double[columns][INITIAL_CAPACITY];
+        double[] row = new double[columns];
+        int rows = 0;
+        while (nextRow(row)) {
+            if (rows == data[0].length) {
+                int capacity = Math.addExact(rows, rows >> 1);
+                for (int c = 0; c < columns; c++) {
+                    data[c] = Arrays.copyOf(data[c], capacity);
+                }
+            }
+            for (int c = 0; c < columns; c++) {
+                data[c][rows] = row[c];
+            }
+            rows++;
+        }
+
+        double[][] inputColumns = new double[columns - 1][];
+        for (int c = 0; c < columns - 1; c++) {
+            inputColumns[c] = Arrays.copyOf(data[c], rows);
+        }
+        return new HeapColumnarDataset(inputVariables(), inputColumns, Arrays.copyOf(data[columns - 1], rows));
+    }
+
+    /**
+     * Advances to the next line, refilling (and if needed growing) the buffer so that the whole line
+     * is available between {@link #lineStart} and {@link #lineEnd}.
+     */
+    private boolean nextLine() throws IOException {
+        int scan = position;
+        while (true) {
+            for (int i = scan; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    lineStart = position;
+                    lineEnd = i;
+                    position = i + 1;
+                    lineNumber++;
+                    return true;
+                }
+            }
+            if (endOfStream) {
+                if (position < limit) {
+                    lineStart = position;
+                    lineEnd = limit;
+                    position = limit;
+                    lineNumber++;
+                    return true;
+                }
+                return false;
+            }
+
+            int remaining = limit - position;
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, remaining);
+            } else if (remaining == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2); // A line longer than the buffer
+            }
+            position = 0;
+            limit = remaining;
+            scan = remaining;
+
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfStream = true;
+            } else {
+                limit += read;
+            }
+        }
+    }
+
+    private List<String> tokens() {
+        List<String> tokens = new ArrayList<>();
+        int i = lineStart;
+        while (i < lineEnd) {
+            while (i < lineEnd && isWhitespace(buffer[i])) {
+                i++;
+            }
+            int tokenStart = i;
+            while (i < lineEnd && !isWhitespace(buffer[i])) {
+                i++;
+            }
+            if (i > tokenStart) {
+                tokens.add(new String(buffer, tokenStart, i - tokenStart, StandardCharsets.UTF_8));
+            }
+        }
+        return tokens;
+    }
+
+    private static double[] tryParseAll(List<String> tokens) {
+        double[] values = new double[tokens.size()];
+        try {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Double.parseDouble(tokens.get(i));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return values;
+    }
+
+    private double parseNumber(int start, int end) throws IOException {
+        double value = parseDouble(buffer, start, end);
+        if (Double.isNaN(value) && !isLiteralNaN(start, end)) {
+            String token = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+            throw new IOException("Malformed number '" + token + "' at line " + lineNumber);
+        }
+        return value;
+    }
+
+    private boolean isLiteralNaN(int start, int end) {
+        String token = new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        return token.equals("NaN") || token.equals("+NaN") || token.equals("-NaN");
+    }
+
+    /**
+     * Parses a decimal number from a range of ASCII bytes.
+     * <p>
+     * When the significant digits fit in 53 bits and the decimal exponent is at most 22 in magnitude, both the
+     * mantissa and the power of ten are exact doubles, so a single multiplication or division yields the
+     * correctly rounded result. Other inputs are delegated to {@link Double#parseDouble(String)}.
+     *
+     * @return The parsed value, or NaN if the bytes are not a number.
+     */
+    static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean exact = true;
+
+        for (; i < end && isDigit(bytes[i]); i++) {
+            sawDigit = true;
+            if (significantDigits < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if (mantissa != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exact = false;
+            }
+        }
+        if (i < end && bytes[i] == '.') {
+            i++;
+            for (; i < end && isDigit(bytes[i]); i++) {
+                sawDigit = true;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if (mantissa != 0) {
+                        significantDigits++;
+                    }
+                    exponent--;
+                } else {
+                    exact = false;
+                }
+            }
+        }
+        if (sawDigit && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (j < end && (bytes[j] == '-' || bytes[j] == '+')) {
+                negativeExponent = bytes[j] == '-';
+                j++;
+            }
+            int explicitExponent = 0;
+            boolean sawExponentDigit = false;
+            for (; j < end && isDigit(bytes[j]); j++) {
+                sawExponentDigit = true;
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (bytes[j] - '0');
+                }
+            }
+            if (sawExponentDigit) {
+                exponent += negativeExponent ? -explicitExponent : explicitExponent;
+                i = j;
+            }
+        }
+
+        if (sawDigit && i == end && exact && mantissa <= MAX_EXACT_MANTISSA
+                && exponent >= -22 && exponent <= 22) {
+            double value = mantissa;
+            value = exponent < 0 ? value / POWERS_OF_TEN[-exponent] : value * POWERS_OF_TEN[exponent];
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private IOException malformed(int found) {
+        return new IOException("Expected " + columnNames.size() + " values at line " + lineNumber + " but found " + found + ".");
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+}
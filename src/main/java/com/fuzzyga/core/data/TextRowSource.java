@@ -0,0 +1,131 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A {@link RowSource} that reads rows in the whitespace-separated text dataset format, with the same parser as
+ * {@link HeapColumnarDataset#read}.
+ * <p>
+ * The header line (or, for a headerless stream, the first row) is read when the source is created, which blocks
+ * until it is available.
+ */
+public final class TextRowSource implements RowSource {
+
+    private final InputStream in;
+    private final TextDatasetParser parser;
+
+    private TextRowSource(InputStream in) throws IOException {
+        this.in = in;
+        try {
+            this.parser = new TextDatasetParser(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a source that reads a stream until it ends, e.g. {@code System.in}.
+     *
+     * @param in The stream to read. It is closed with the source.
+     * @return The source.
+     * @throws IOException If the stream is empty or its header cannot be read.
+     */
+    public static TextRowSource of(InputStream in) throws IOException {
+        return new TextRowSource(in);
+    }
+
+    /**
+     * Creates a source that follows a file as it grows, like {@code tail -f}: at the end of the file it waits for
+     * more data instead of ending, and it ends only when closed. If the file is truncated, reading starts over
+     * from its beginning.
+     *
+     * @param path         The file to follow.
+     * @param pollInterval How long to wait before checking the file again when there is no new data.
+     * @return The source.
+     * @throws IOException If the file cannot be opened or its header cannot be read.
+     */
+    public static TextRowSource tail(Path path, Duration pollInterval) throws IOException {
+        return new TextRowSource(new TailInputStream(FileChannel.open(path, StandardOpenOption.READ), pollInterval));
+    }
+
+    @Override
+    public List<InputVariable> inputVariables() {
+        return parser.inputVariables();
+    }
+
+    @Override
+    public boolean next(double[] row) throws IOException {
+        return parser.nextRow(row);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * A stream over a file that waits for the file to grow instead of reporting its end, until it is closed.
+     */
+    private static final class TailInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long pollMillis;
+        private volatile boolean closed;
+
+        private TailInputStream(FileChannel channel, Duration pollInterval) {
+            this.channel = channel;
+            this.pollMillis = Math.max(1, pollInterval.toMillis());
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                while (!closed) {
+                    if (channel.position() > channel.size()) {
+                        channel.position(0); // Truncated, e.g. by log rotation
+                    }
+                    int read = channel.read(ByteBuffer.wrap(b, off, len));
+                    if (read > 0) {
+                        return read;
+                    }
+                    Thread.sleep(pollMillis);
+                }
+            } catch (ClosedChannelException e) {
+                if (!closed) {
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the file to grow");
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.fuzzyga.fuzzy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The element-wise operations behind {@link GridTskSystem#calculateBatch}, applied to blocks of samples.
+ * <p>
+ * Every operation performs exactly the same floating-point steps, in the same order, as the scalar inference path,
+ * so a batch produces the same outputs as evaluating its samples one at a time. There are two implementations:
+ * {@link VectorBatchKernel}, which uses the incubating JDK Vector API, and a portable scalar fallback. The vector
+ * kernel is used whenever the {@code jdk.incubator.vector} module has been added to the JVM
+ * ({@code --add-modules jdk.incubator.vector}), unless the system property {@value #SCALAR_PROPERTY} is set to true.
+ */
+interface BatchKernel {
+
+    String SCALAR_PROPERTY = "fuzzyga.batch.scalar";
+
+    /**
+     * The kernel chosen for this JVM.
+     */
+    BatchKernel INSTANCE = Selector.select();
+
+    /**
+     * Gets a short name of the implementation, for logging.
+     */
+    String name();
+
+    /**
+     * Computes {@code out[i] = triangular(x[i], center, width)} for {@code i < length}.
+     */
+    void triangular(double[] x, double center, double width, double[] out, int length);
+
+    /**
+     * Computes the Einstein product {@code out[i] = T(a[i], b[i])} for {@code i < length}. {@code out} may alias {@code a}.
+     */
+    void einsteinProduct(double[] a, double[] b, double[] out, int length);
+
+    /**
+     * Indicates whether any of the first {@code length} values is non-zero.
+     */
+    boolean anyNonZero(double[] values, int length);
+
+    /**
+     * Adds one rule's contribution to the defuzzification sums: with the linear consequent
+     * {@code z[i] = sum(coefficients[v] * inputs[v][i]) + constant}, computes {@code numerator[i] += firing[i] * z[i]}
+     * and {@code denominator[i] += firing[i]}.
+     *
+     * @param parameters   The array holding the rule's coefficients followed by its constant.
+     * @param offset       The position of the first coefficient in {@code parameters}.
+     */
+    void accumulateRule(double[][] inputs, double[] parameters, int offset, double[] firing,
+                        double[] numerator, double[] denominator, int length);
+
+    /**
+     * Computes {@code out[i] = denominator[i] == 0 ? 0 : numerator[i] / denominator[i]}.
+     */
+    void defuzzify(double[] numerator, double[] denominator, double[] out, int length);
+
+    /**
+     * Picks the vector kernel when the Vector API is available, and the scalar kernel otherwise.
+     */
+    final class Selector {
+        private static final Logger logger = LoggerFactory.getLogger(BatchKernel.class);
+
+        private Selector() {
+        }
+
+        private static BatchKernel select() {
+            if (Boolean.getBoolean(SCALAR_PROPERTY)) {
+                return new ScalarBatchKernel();
+            }
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                try {
+                    return (BatchKernel) Class.forName("com.fuzzyga.fuzzy.VectorBatchKernel")
+                        .getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    logger.warn("Vector API is present but unusable, falling back to scalar batch inference.", e);
+                }
+            }
+            return new ScalarBatchKernel();
+        }
+    }
+}
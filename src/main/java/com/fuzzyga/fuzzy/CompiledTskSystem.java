@@ -0,0 +1,224 @@
+package com.fuzzyga.fuzzy;
+
+import com.fuzzyga.fuzzy.membership.MembershipFunction;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled, array-backed form of a {@link TskInferenceSystem}.
+ * <p>
+ * Where {@link TskInferenceSystem} walks a list of {@link FuzzyRule} records and looks every input up in a map,
+ * this class flattens the whole rule base into primitive arrays indexed by rule and by variable position.
+ * Inputs are passed as a {@code double[]} in the same variable order the system was compiled with, and
+ * {@link #calculate(double[])} performs no allocation, boxing or hashing. This makes it suitable for the
+ * inner loop of fitness evaluation, where a system is evaluated once per data point.
+ * <p>
+ * The antecedent of each rule is stored as a run of terms (variable index, center, width) so that rules
+ * which do not constrain every variable are represented faithfully. The consequent coefficients are stored
+ * densely, one row of {@code numInputs} values per rule, with a separate array of constants.
+ */
+public final class CompiledTskSystem implements Serializable {
+
+    private final List<InputVariable> variables;
+    private final int numInputs;
+    private final int numRules;
+
+    // Antecedent terms of rule r occupy [termOffsets[r], termOffsets[r + 1]).
+    private final int[] termOffsets;
+    private final int[] termVariables;
+    private final double[] termCenters;
+    private final double[] termWidths;
+
+    // Consequent of rule r: coefficients[r * numInputs + v] and constants[r].
+    private final double[] coefficients;
+    private final double[] constants;
+
+    private CompiledTskSystem(List<InputVariable> variables, int[] termOffsets, int[] termVariables,
+                              double[] termCenters, double[] termWidths, double[] coefficients, double[] constants) {
+        this.variables = List.copyOf(variables);
+        this.numInputs = variables.size();
+        this.numRules = constants.length;
+        this.termOffsets = termOffsets;
+        this.termVariables = termVariables;
+        this.termCenters = termCenters;
+        this.termWidths = termWidths;
+        this.coefficients = coefficients;
+        this.constants = constants;
+    }
+
+    /**
+     * Compiles a rule base into its array-backed form.
+     *
+     * @param ruleBase  The rules to compile.
+     * @param variables The variable order that defines the layout of the {@code double[]} inputs
+     *                  passed to {@link #calculate(double[])}.
+     * @return The compiled system.
+     * @throws IllegalArgumentException If a rule references a variable that is not in {@code variables}.
+     */
+    public static CompiledTskSystem compile(List<FuzzyRule> ruleBase, List<InputVariable> variables) {
+        Map<InputVariable, Integer> positions = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            positions.put(variables.get(i), i);
+        }
+
+        int numRules = ruleBase.size();
+        int numInputs = variables.size();
+        int totalTerms = ruleBase.stream().mapToInt(rule -> rule.antecedent().size()).sum();
+
+        int[] termOffsets = new int[numRules + 1];
+        int[] termVariables = new int[totalTerms];
+        double[] termCenters = new double[totalTerms];
+        double[] termWidths = new double[totalTerms];
+        double[] coefficients = new double[numRules * numInputs];
+        double[] constants = new double[numRules];
+
+        int term = 0;
+        for (int r = 0; r < numRules; r++) {
+            FuzzyRule rule = ruleBase.get(r);
+            termOffsets[r] = term;
+            // Terms follow the iteration order of the antecedent map, not the variable order. The t-norm chain
+            // matches TskInferenceSystem#calculate only because it iterates the same map the same way.
+            for (Map.Entry<InputVariable, MembershipFunction> entry : rule.antecedent().entrySet()) {
+                if (!(entry.getValue() instanceof MembershipFunction.TriangularMembershipFunction mf)) {
+                    throw new IllegalArgumentException("Unsupported membership function: " + entry.getValue());
+                }
+                termVariables[term] = positionOf(positions, entry.getKey());
+                termCenters[term] = mf.center();
+                termWidths[term] = mf.width();
+                term++;
+            }
+            for (Map.Entry<InputVariable, Double> entry : rule.consequent().coefficients().entrySet()) {
+                coefficients[r * numInputs + positionOf(positions, entry.getKey())] = entry.getValue();
+            }
+            constants[r] = rule.consequent().constant();
+        }
+        termOffsets[numRules] = term;
+
+        return new CompiledTskSystem(variables, termOffsets, termVariables, termCenters, termWidths, coefficients, constants);
+    }
+
+    /**
+     * Creates a compiled system for the full rule grid of a chromosome-encoded TSK system.
+     * <p>
+     * The parameters use the same layout as the GA chromosome: first a (center, width) pair for every fuzzy set
+     * of every variable, grouped by variable; then, for every rule of the Cartesian product of those sets
+     * (the first variable varying slowest), one coefficient per variable followed by the constant term.
+     *
+     * @param variables       The input variables, in chromosome order.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @param parameters      The encoded parameters. They are read, not retained.
+     * @return The compiled system.
+     */
+    public static CompiledTskSystem fromGrid(List<InputVariable> variables, int setsPerVariable, double[] parameters) {
+        int numInputs = variables.size();
+        int numRules = 1;
+        for (int v = 0; v < numInputs; v++) {
+            numRules = Math.multiplyExact(numRules, setsPerVariable);
+        }
+        int antecedentGenes = numInputs * setsPerVariable * 2;
+
+        int[] termOffsets = new int[numRules + 1];
+        int[] termVariables = new int[numRules * numInputs];
+        double[] termCenters = new double[numRules * numInputs];
+        double[] termWidths = new double[numRules * numInputs];
+        double[] coefficients = new double[numRules * numInputs];
+        double[] constants = new double[numRules];
+
+        int geneIndex = antecedentGenes;
+        for (int r = 0; r < numRules; r++) {
+            termOffsets[r] = r * numInputs;
+            // Decode the mixed-radix rule index into one fuzzy set per variable, last variable fastest.
+            int remainder = r;
+            for (int v = numInputs - 1; v >= 0; v--) {
+                int set = remainder % setsPerVariable;
+                remainder /= setsPerVariable;
+                int term = r * numInputs + v;
+                int setGene = (v * setsPerVariable + set) * 2;
+                termVariables[term] = v;
+                termCenters[term] = parameters[setGene];
+                termWidths[term] = parameters[setGene + 1];
+            }
+            for (int v = 0; v < numInputs; v++) {
+                coefficients[r * numInputs + v] = parameters[geneIndex++];
+            }
+            constants[r] = parameters[geneIndex++];
+        }
+        termOffsets[numRules] = numRules * numInputs;
+
+        return new CompiledTskSystem(variables, termOffsets, termVariables, termCenters, termWidths, coefficients, constants);
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system for a given set of crisp inputs.
+     *
+     * @param inputs The input values, indexed by the position of each variable in {@link #variables()}.
+     * @return The final, defuzzified output value.
+     */
+    public double calculate(double[] inputs) {
+        if (inputs.length < numInputs) {
+            throw new IllegalArgumentException("Expected " + numInputs + " inputs but got " + inputs.length);
+        }
+
+        double totalFiringStrength = 0.0;
+        double weightedConsequentSum = 0.0;
+
+        for (int r = 0; r < numRules; r++) {
+            // 1. Firing strength (α) as a t-norm chain over the rule's antecedent terms.
+            double firingStrength = 1.0;
+            for (int t = termOffsets[r], end = termOffsets[r + 1]; t < end && firingStrength != 0.0; t++) {
+                double membership = MembershipFunction.TriangularMembershipFunction.membership(
+                    inputs[termVariables[t]], termCenters[t], termWidths[t]);
+                firingStrength = FuzzyOperators.einsteinProduct(firingStrength, membership);
+            }
+            if (firingStrength == 0.0) {
+                continue; // A rule that does not fire contributes nothing to either sum.
+            }
+
+            // 2. Consequent value (z).
+            double consequentValue = 0.0;
+            int base = r * numInputs;
+            for (int v = 0; v < numInputs; v++) {
+                consequentValue += coefficients[base + v] * inputs[v];
+            }
+            consequentValue += constants[r];
+
+            totalFiringStrength += firingStrength;
+            weightedConsequentSum += firingStrength * consequentValue;
+        }
+
+        // 3. Defuzzify. If no rule fired there is no meaningful output.
+        if (totalFiringStrength == 0) {
+            return 0.0;
+        }
+        return weightedConsequentSum / totalFiringStrength;
+    }
+
+    /**
+     * Gets the variable order of the {@code double[]} inputs expected by {@link #calculate(double[])}.
+     *
+     * @return An unmodifiable list of the input variables.
+     */
+    public List<InputVariable> variables() {
+        return variables;
+    }
+
+    /**
+     * Gets the number of rules in the compiled rule base.
+     *
+     * @return The number of rules.
+     */
+    public int ruleCount() {
+        return numRules;
+    }
+
+    private static int positionOf(Map<InputVariable, Integer> positions, InputVariable variable) {
+        Integer position = positions.get(variable);
+        if (position == null) {
+            throw new IllegalArgumentException("Variable " + variable.name() + " is not part of the compiled variable order.");
+        }
+        return position;
+    }
+}
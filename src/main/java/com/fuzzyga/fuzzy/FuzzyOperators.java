@@ -21,12 +21,24 @@ public final class FuzzyOperators {
      * <p>
      * Formula: T(a, b) = (a * b) / (2 - (a + b - a * b))
      */
-    public static final DoubleBinaryOperator EINSTEIN_PRODUCT = (a, b) -> {
+    public static final DoubleBinaryOperator EINSTEIN_PRODUCT = FuzzyOperators::einsteinProduct;
+
+    /**
+     * Computes the Einstein Product of two membership values.
+     * <p>
+     * This is the primitive form of {@link #EINSTEIN_PRODUCT}, called directly by the compiled
+     * inference kernels to avoid going through a functional interface in their inner loops.
+     *
+     * @param a The first membership value.
+     * @param b The second membership value.
+     * @return The t-norm of {@code a} and {@code b}.
+     */
+    public static double einsteinProduct(double a, double b) {
         double denominator = 2 - (a + b - a * b);
         // The denominator can only be zero if a=1 and b=1, in which case it is 2 - (1+1-1) = 1.
         // It's safe from division by zero for valid membership values [0, 1].
         return (a * b) / denominator;
-    };
+    }
 
     /**
      * Aggregates a collection of membership values using a specified t-norm.
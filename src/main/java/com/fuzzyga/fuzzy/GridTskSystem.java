@@ -0,0 +1,537 @@
+package com.fuzzyga.fuzzy;
+
+import com.fuzzyga.fuzzy.membership.MembershipFunction;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A TSK system whose rule base is the full Cartesian grid of per-variable fuzzy sets.
+ * <p>
+ * This is the structure produced by the GA chromosome: every variable has the same number of triangular fuzzy
+ * sets, and there is one rule for every combination of one set per variable. Because each rule's antecedent
+ * is just a choice of set index per variable, the system never evaluates a membership function more than once
+ * per (variable, set) and input: {@link #calculate(double[], Workspace)} first fills a small table of
+ * memberships, then walks the rules in order with a mixed-radix counter, deriving every firing strength from
+ * that table.
+ * <p>
+ * The t-norm chain is shared between neighbouring rules: the counter keeps the partial t-norm of the leading
+ * variables, and advancing it only recomputes the levels whose set index changed. Since the last variable
+ * varies fastest, this costs about one t-norm per rule instead of one per rule and variable.
+ * <p>
+ * With {@link InferenceMode#SPARSE}, the walk is restricted to the sets with non-zero membership, so rules that
+ * cannot fire are skipped without computing either their t-norm or their consequent.
+ * <p>
+ * For bulk scoring, {@link #calculateBatch(double[][], int, double[], BatchWorkspace)} runs the same algorithm over a
+ * columnar block of samples at once, with SIMD over the samples when the JDK Vector API is available.
+ * <p>
+ * The parameters use the chromosome layout: first a (center, width) pair for every fuzzy set, grouped by
+ * variable; then, for every rule (the first variable varying slowest), one coefficient per variable followed
+ * by the constant term.
+ */
+public final class GridTskSystem implements Serializable {
+
+    private final List<InputVariable> variables;
+    private final int numInputs;
+    private final int setsPerVariable;
+    private final int numRules;
+    private final int consequentOffset;
+    private final double[] parameters;
+
+    // ruleStrides[v] is the distance between consecutive rules that differ only in the set of variable v.
+    private final int[] ruleStrides;
+
+    private GridTskSystem(List<InputVariable> variables, int setsPerVariable, double[] parameters) {
+        this.variables = List.copyOf(variables);
+        this.numInputs = variables.size();
+        this.setsPerVariable = setsPerVariable;
+        this.numRules = ruleCount(numInputs, setsPerVariable);
+        this.consequentOffset = numInputs * setsPerVariable * 2;
+        if (parameters.length != parameterCount(numInputs, setsPerVariable)) {
+            throw new IllegalArgumentException("Expected " + parameterCount(numInputs, setsPerVariable)
+                + " parameters but got " + parameters.length);
+        }
+        this.parameters = parameters;
+        this.ruleStrides = new int[numInputs];
+        for (int v = numInputs - 1, stride = 1; v >= 0; v--) {
+            ruleStrides[v] = stride;
+            stride *= setsPerVariable;
+        }
+    }
+
+    /**
+     * Creates a grid system from a copy of the given parameters.
+     *
+     * @param variables       The input variables, in parameter order.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @param parameters      The parameters in chromosome layout.
+     * @return The grid system.
+     */
+    public static GridTskSystem of(List<InputVariable> variables, int setsPerVariable, double[] parameters) {
+        return new GridTskSystem(variables, setsPerVariable, parameters.clone());
+    }
+
+    /**
+     * Creates a grid system that reads the given parameter array directly, without copying it.
+     * The caller must not modify the array while the system is in use.
+     *
+     * @param variables       The input variables, in parameter order.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @param parameters      The parameters in chromosome layout.
+     * @return The grid system.
+     */
+    public static GridTskSystem wrap(List<InputVariable> variables, int setsPerVariable, double[] parameters) {
+        return new GridTskSystem(variables, setsPerVariable, parameters);
+    }
+
+    /**
+     * Computes the number of rules of a full grid.
+     *
+     * @param numInputs       The number of input variables.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @return {@code setsPerVariable ^ numInputs}.
+     * @throws ArithmeticException If the rule count does not fit in an int.
+     */
+    public static int ruleCount(int numInputs, int setsPerVariable) {
+        int rules = 1;
+        for (int v = 0; v < numInputs; v++) {
+            rules = Math.multiplyExact(rules, setsPerVariable);
+        }
+        return rules;
+    }
+
+    /**
+     * Computes the number of parameters of a full grid.
+     *
+     * @param numInputs       The number of input variables.
+     * @param setsPerVariable The number of fuzzy sets per variable.
+     * @return The antecedent (center, width) pairs plus {@code numInputs + 1} consequent parameters per rule.
+     */
+    public static int parameterCount(int numInputs, int setsPerVariable) {
+        return numInputs * setsPerVariable * 2 + Math.multiplyExact(ruleCount(numInputs, setsPerVariable), numInputs + 1);
+    }
+
+    /**
+     * Scratch buffers for one thread's calls to {@link #calculate(double[], Workspace)}.
+     * A workspace may be reused across calls and across systems of the same shape, but not shared between threads.
+     */
+    public static final class Workspace {
+        private final double[] memberships;
+        private final double[] partialFiringStrengths;
+        private final int[] setIndices;
+        private final int[] activeSets;
+        private final int[] activeCounts;
+        private final int[] partialRuleIndices;
+        private final int[] firingRules;
+        private final double[] firingStrengths;
+
+        private Workspace(int numInputs, int setsPerVariable) {
+            this.memberships = new double[numInputs * setsPerVariable];
+            this.partialFiringStrengths = new double[numInputs];
+            this.setIndices = new int[numInputs];
+            this.activeSets = new int[numInputs * setsPerVariable];
+            this.activeCounts = new int[numInputs];
+            this.partialRuleIndices = new int[numInputs];
+            int numRules = ruleCount(numInputs, setsPerVariable);
+            this.firingRules = new int[numRules];
+            this.firingStrengths = new double[numRules];
+        }
+    }
+
+    /**
+     * Scratch buffers for one thread's calls to {@link #calculateBatch(double[][], int, double[], BatchWorkspace)}.
+     * A workspace may be reused across calls and across systems of the same shape, but not shared between threads.
+     */
+    public static final class BatchWorkspace {
+        private final int capacity;
+        private final double[] ones;
+        private final double[][] memberships;
+        private final double[][] partialFiringStrengths;
+        private final int[] setIndices;
+        private final double[] numerator;
+        private final double[] denominator;
+
+        private BatchWorkspace(int numInputs, int setsPerVariable, int capacity) {
+            this.capacity = capacity;
+            this.ones = new double[capacity];
+            Arrays.fill(ones, 1.0);
+            this.memberships = new double[numInputs * setsPerVariable][capacity];
+            this.partialFiringStrengths = new double[numInputs][capacity];
+            this.setIndices = new int[numInputs];
+            this.numerator = new double[capacity];
+            this.denominator = new double[capacity];
+        }
+
+        /**
+         * Gets the maximum number of samples per batch.
+         *
+         * @return The batch capacity.
+         */
+        public int capacity() {
+            return capacity;
+        }
+    }
+
+    /**
+     * Creates a batch workspace sized for this system.
+     *
+     * @param capacity The maximum number of samples per batch.
+     * @return A new batch workspace.
+     */
+    public BatchWorkspace newBatchWorkspace(int capacity) {
+        return new BatchWorkspace(numInputs, setsPerVariable, capacity);
+    }
+
+    /**
+     * Gets the name of the batch kernel in use, e.g. "scalar" or "vector-256bit".
+     *
+     * @return The batch implementation name.
+     */
+    public static String batchImplementation() {
+        return BatchKernel.INSTANCE.name();
+    }
+
+    /**
+     * Creates a workspace sized for this system.
+     *
+     * @return A new workspace.
+     */
+    public Workspace newWorkspace() {
+        return new Workspace(numInputs, setsPerVariable);
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system, allocating a temporary workspace.
+     *
+     * @param inputs The input values, indexed by the position of each variable in {@link #variables()}.
+     * @return The final, defuzzified output value.
+     */
+    public double calculate(double[] inputs) {
+        return calculate(inputs, newWorkspace());
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system without allocating, using the given rule enumeration strategy.
+     *
+     * @param inputs    The input values, indexed by the position of each variable in {@link #variables()}.
+     * @param workspace Scratch buffers created by {@link #newWorkspace()}.
+     * @param mode      How to enumerate the rules.
+     * @return The final, defuzzified output value.
+     */
+    public double calculate(double[] inputs, Workspace workspace, InferenceMode mode) {
+        return switch (mode) {
+            case DENSE, BATCH -> calculate(inputs, workspace);
+            case SPARSE -> calculateSparse(inputs, workspace);
+        };
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system without allocating, walking every rule of the grid.
+     *
+     * @param inputs    The input values, indexed by the position of each variable in {@link #variables()}.
+     * @param workspace Scratch buffers created by {@link #newWorkspace()}.
+     * @return The final, defuzzified output value.
+     */
+    public double calculate(double[] inputs, Workspace workspace) {
+        double[] memberships = workspace.memberships;
+        double[] partial = workspace.partialFiringStrengths;
+        int[] setIndices = workspace.setIndices;
+
+        // 1. Fuzzification: one membership per (variable, set).
+        fuzzify(inputs, memberships);
+
+        // 2. Walk the rule grid, last variable fastest, reusing the t-norm of the unchanged leading variables.
+        for (int v = 0; v < numInputs; v++) {
+            setIndices[v] = 0;
+        }
+        int changedFrom = 0;
+        double totalFiringStrength = 0.0;
+        double weightedConsequentSum = 0.0;
+
+        for (int r = 0; r < numRules; r++) {
+            double firingStrength = changedFrom == 0 ? 1.0 : partial[changedFrom - 1];
+            for (int v = changedFrom; v < numInputs; v++) {
+                firingStrength = FuzzyOperators.einsteinProduct(firingStrength, memberships[v * setsPerVariable + setIndices[v]]);
+                partial[v] = firingStrength;
+            }
+
+            if (firingStrength != 0.0) {
+                double consequentValue = consequent(r, inputs);
+                totalFiringStrength += firingStrength;
+                weightedConsequentSum += firingStrength * consequentValue;
+            }
+
+            // Advance the mixed-radix counter.
+            int v = numInputs - 1;
+            while (v >= 0 && ++setIndices[v] == setsPerVariable) {
+                setIndices[v] = 0;
+                v--;
+            }
+            changedFrom = v;
+        }
+
+        // 3. Defuzzify. If no rule fired there is no meaningful output.
+        if (totalFiringStrength == 0) {
+            return 0.0;
+        }
+        return weightedConsequentSum / totalFiringStrength;
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system without allocating, visiting only the rules whose
+     * antecedent sets all have non-zero membership. The result is identical to {@link #calculate(double[], Workspace)}.
+     *
+     * @param inputs    The input values, indexed by the position of each variable in {@link #variables()}.
+     * @param workspace Scratch buffers created by {@link #newWorkspace()}.
+     * @return The final, defuzzified output value.
+     */
+    public double calculateSparse(double[] inputs, Workspace workspace) {
+        int[] rules = workspace.firingRules;
+        double[] strengths = workspace.firingStrengths;
+        int count = firingRules(inputs, workspace, rules, strengths);
+        return defuzzify(inputs, rules, strengths, 0, count);
+    }
+
+    /**
+     * Calculates the crisp output of the fuzzy system from rule firings found by
+     * {@link #firingRules(double[], Workspace, int[], double[])}, possibly for another system with the same antecedent
+     * parameters. Only the consequents are evaluated, in the same order as {@link #calculate(double[], Workspace)},
+     * so the result is identical.
+     *
+     * @param inputs    The input values, indexed by the position of each variable in {@link #variables()}.
+     * @param rules     The indices of the firing rules, in ascending order.
+     * @param strengths Their firing strengths.
+     * @param offset    The position of the first firing in {@code rules} and {@code strengths}.
+     * @param count     The number of firings.
+     * @return The final, defuzzified output value.
+     */
+    public double defuzzify(double[] inputs, int[] rules, double[] strengths, int offset, int count) {
+        double totalFiringStrength = 0.0;
+        double weightedConsequentSum = 0.0;
+        for (int i = offset, end = offset + count; i < end; i++) {
+            totalFiringStrength += strengths[i];
+            weightedConsequentSum += strengths[i] * consequent(rules[i], inputs);
+        }
+
+        // If no rule fired there is no meaningful output.
+        if (totalFiringStrength == 0) {
+            return 0.0;
+        }
+        return weightedConsequentSum / totalFiringStrength;
+    }
+
+    /**
+     * Finds the rules that fire for one input vector, visiting only the rules whose antecedent sets all have
+     * non-zero membership. Rules are reported in ascending index order, which is the order in which
+     * {@link #calculate(double[], Workspace)} adds them up.
+     *
+     * @param inputs    The input values, indexed by the position of each variable in {@link #variables()}.
+     * @param workspace Scratch buffers created by {@link #newWorkspace()}.
+     * @param rules     Receives the index of each firing rule; must hold {@link #ruleCount()} elements.
+     * @param strengths Receives the (unnormalized) firing strength of each firing rule.
+     * @return The number of firing rules written to {@code rules} and {@code strengths}.
+     */
+    public int firingRules(double[] inputs, Workspace workspace, int[] rules, double[] strengths) {
+        double[] memberships = workspace.memberships;
+        double[] partial = workspace.partialFiringStrengths;
+        int[] positions = workspace.setIndices;
+        int[] activeSets = workspace.activeSets;
+        int[] activeCounts = workspace.activeCounts;
+        int[] partialRules = workspace.partialRuleIndices;
+
+        // 1. Fuzzification, collecting the active sets of each variable in ascending order.
+        fuzzify(inputs, memberships);
+        for (int v = 0; v < numInputs; v++) {
+            int count = 0;
+            for (int s = 0; s < setsPerVariable; s++) {
+                if (memberships[v * setsPerVariable + s] != 0.0) {
+                    activeSets[v * setsPerVariable + count++] = s;
+                }
+            }
+            if (count == 0) {
+                return 0; // Every rule needs one set of this variable, so no rule can fire.
+            }
+            activeCounts[v] = count;
+            positions[v] = 0;
+        }
+
+        // 2. Walk the grid of active sets only, in ascending rule order like the dense walk.
+        int changedFrom = 0;
+        int firing = 0;
+
+        while (changedFrom >= 0) {
+            double firingStrength = changedFrom == 0 ? 1.0 : partial[changedFrom - 1];
+            int rule = changedFrom == 0 ? 0 : partialRules[changedFrom - 1];
+            for (int v = changedFrom; v < numInputs; v++) {
+                int set = activeSets[v * setsPerVariable + positions[v]];
+                firingStrength = FuzzyOperators.einsteinProduct(firingStrength, memberships[v * setsPerVariable + set]);
+                rule += set * ruleStrides[v];
+                partial[v] = firingStrength;
+                partialRules[v] = rule;
+            }
+
+            if (firingStrength != 0.0) {
+                rules[firing] = rule;
+                strengths[firing] = firingStrength;
+                firing++;
+            }
+
+            int v = numInputs - 1;
+            while (v >= 0 && ++positions[v] == activeCounts[v]) {
+                positions[v] = 0;
+                v--;
+            }
+            changedFrom = v;
+        }
+        return firing;
+    }
+
+    /**
+     * Calculates the outputs for a block of samples at once.
+     * <p>
+     * This is the dense grid walk of {@link #calculate(double[], Workspace)} with every scalar replaced by a block of
+     * samples, using SIMD instructions when available. Subtrees of the grid whose partial firing strength is zero
+     * for every sample of the block are skipped. Each output equals the corresponding single-sample result.
+     *
+     * @param inputs    A columnar block: {@code inputs[v][i]} is the value of variable {@code v} for sample {@code i}.
+     * @param length    The number of samples, at most the workspace capacity.
+     * @param outputs   Receives the output of sample {@code i} at index {@code i}.
+     * @param workspace Scratch buffers created by {@link #newBatchWorkspace(int)}.
+     */
+    public void calculateBatch(double[][] inputs, int length, double[] outputs, BatchWorkspace workspace) {
+        if (length > workspace.capacity) {
+            throw new IllegalArgumentException("Batch of " + length + " exceeds workspace capacity " + workspace.capacity);
+        }
+        BatchKernel kernel = BatchKernel.INSTANCE;
+        double[][] memberships = workspace.memberships;
+        double[][] partial = workspace.partialFiringStrengths;
+        int[] setIndices = workspace.setIndices;
+        double[] numerator = workspace.numerator;
+        double[] denominator = workspace.denominator;
+
+        // 1. Fuzzification: one block of memberships per (variable, set).
+        for (int v = 0, m = 0; v < numInputs; v++) {
+            for (int s = 0; s < setsPerVariable; s++, m++) {
+                kernel.triangular(inputs[v], parameters[2 * m], parameters[2 * m + 1], memberships[m], length);
+            }
+        }
+        Arrays.fill(numerator, 0, length, 0.0);
+        Arrays.fill(denominator, 0, length, 0.0);
+        for (int v = 0; v < numInputs; v++) {
+            setIndices[v] = 0;
+        }
+
+        // 2. Walk the rule grid, skipping every subtree whose partial firing strength is zero for the whole block.
+        int changedFrom = 0;
+        while (changedFrom >= 0) {
+            int advanceAt = numInputs - 1;
+            boolean fires = true;
+            for (int v = changedFrom; v < numInputs; v++) {
+                double[] previous = v == 0 ? workspace.ones : partial[v - 1];
+                kernel.einsteinProduct(previous, memberships[v * setsPerVariable + setIndices[v]], partial[v], length);
+                if (!kernel.anyNonZero(partial[v], length)) {
+                    advanceAt = v;
+                    fires = false;
+                    break;
+                }
+            }
+            if (fires) {
+                int rule = 0;
+                for (int v = 0; v < numInputs; v++) {
+                    rule += setIndices[v] * ruleStrides[v];
+                }
+                kernel.accumulateRule(inputs, parameters, consequentOffset + rule * (numInputs + 1),
+                    partial[numInputs - 1], numerator, denominator, length);
+            }
+
+            for (int v = advanceAt + 1; v < numInputs; v++) {
+                setIndices[v] = 0;
+            }
+            int v = advanceAt;
+            while (v >= 0 && ++setIndices[v] == setsPerVariable) {
+                setIndices[v] = 0;
+                v--;
+            }
+            changedFrom = v;
+        }
+
+        // 3. Defuzzify each sample.
+        kernel.defuzzify(numerator, denominator, outputs, length);
+    }
+
+    /**
+     * Calculates the outputs for a block of samples, allocating a temporary workspace.
+     *
+     * @param inputs A columnar block: {@code inputs[v][i]} is the value of variable {@code v} for sample {@code i}.
+     * @return The output of each sample.
+     */
+    public double[] calculateBatch(double[][] inputs) {
+        int length = inputs.length == 0 ? 0 : inputs[0].length;
+        double[] outputs = new double[length];
+        calculateBatch(inputs, length, outputs, newBatchWorkspace(length));
+        return outputs;
+    }
+
+    /**
+     * Fills the membership table for one input vector: {@code memberships[v * setsPerVariable + s]}
+     * is the membership of input {@code v} in its fuzzy set {@code s}.
+     */
+    private void fuzzify(double[] inputs, double[] memberships) {
+        for (int v = 0, m = 0; v < numInputs; v++) {
+            double x = inputs[v];
+            for (int s = 0; s < setsPerVariable; s++, m++) {
+                memberships[m] = MembershipFunction.TriangularMembershipFunction.membership(
+                    x, parameters[2 * m], parameters[2 * m + 1]);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the linear consequent of a rule.
+     */
+    private double consequent(int rule, double[] inputs) {
+        int base = consequentOffset + rule * (numInputs + 1);
+        double value = 0.0;
+        for (int v = 0; v < numInputs; v++) {
+            value += parameters[base + v] * inputs[v];
+        }
+        return value + parameters[base + numInputs];
+    }
+
+    /**
+     * Gets the variable order of the {@code double[]} inputs.
+     *
+     * @return An unmodifiable list of the input variables.
+     */
+    public List<InputVariable> variables() {
+        return variables;
+    }
+
+    /**
+     * Gets the number of fuzzy sets per variable.
+     *
+     * @return The number of sets per variable.
+     */
+    public int setsPerVariable() {
+        return setsPerVariable;
+    }
+
+    /**
+     * Gets the number of rules in the grid.
+     *
+     * @return {@code setsPerVariable ^ numInputs}.
+     */
+    public int ruleCount() {
+        return numRules;
+    }
+
+    /**
+     * Gets the parameters in chromosome layout, without copying them, for {@link ModelFormat}.
+     *
+     * @return The system's own parameter array, which must not be modified.
+     */
+    double[] parameters() {
+        return parameters;
+    }
+}
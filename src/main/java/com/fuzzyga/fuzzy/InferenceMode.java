@@ -0,0 +1,28 @@
+package com.fuzzyga.fuzzy;
+
+/**
+ * Selects how a {@link GridTskSystem} enumerates its rules.
+ * All modes produce the same output; they differ only in how much work is spent on rules that do not fire
+ * and in how many samples are processed at once.
+ */
+public enum InferenceMode {
+
+    /**
+     * Walks every rule of the grid. Best when most sets overlap, so that most rules fire for a typical input.
+     */
+    DENSE,
+
+    /**
+     * First finds, for each variable, the fuzzy sets with non-zero membership, then enumerates only the rules formed
+     * from those sets. With triangular sets only a few sets per variable are active for any input, so the number of
+     * rules visited grows with the overlap of the sets rather than with the size of the grid.
+     */
+    SPARSE,
+
+    /**
+     * Evaluates whole blocks of samples with {@link GridTskSystem#calculateBatch}, using SIMD over the samples when
+     * the JDK Vector API is available. Rules are walked densely, but subtrees that do not fire for any sample of
+     * the block are skipped. A single input vector is evaluated as in {@link #DENSE}.
+     */
+    BATCH
+}
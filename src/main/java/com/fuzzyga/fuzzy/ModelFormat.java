@@ -0,0 +1,188 @@
+package com.fuzzyga.fuzzy;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads and writes the compact model file format for trained {@link GridTskSystem}s.
+ * <p>
+ * A model is stored as its shape and one flat array of parameters, so loading it costs a single bulk copy into the
+ * array that the system then reads directly, with no object per rule or fuzzy set. All values are little-endian:
+ * <pre>
+ *   magic           4 bytes  "FGMD"
+ *   version         int32    {@value #VERSION}
+ *   membership      int32    {@value #TRIANGULAR} for triangular fuzzy sets
+ *   setsPerVariable int32
+ *   variableCount   int32
+ *   parameterCount  int32
+ *   variableNames   variableCount x (uint16 byte length, UTF-8 bytes), in input order
+ *   padding         zero bytes up to the next multiple of 8
+ *   parameters      parameterCount doubles, in chromosome layout
+ *   checksum        int64    CRC-32C of all preceding bytes
+ * </pre>
+ * The checksum lets a model shipped between hosts be rejected if it was damaged on the way, instead of serving
+ * wrong predictions.
+ */
+public final class ModelFormat {
+
+    static final byte[] MAGIC = {'F', 'G', 'M', 'D'};
+    static final int VERSION = 1;
+
+    /**
+     * The membership code of triangular fuzzy sets, the only kind {@link GridTskSystem} uses.
+     */
+    static final int TRIANGULAR = 1;
+
+    private static final int FIXED_HEADER_BYTES = 24;
+
+    private ModelFormat() {
+    }
+
+    /**
+     * Encodes a model.
+     *
+     * @param system The model.
+     * @return The model file contents.
+     * @throws IllegalArgumentException If a variable name is longer than 65535 bytes in UTF-8.
+     */
+    public static byte[] toBytes(GridTskSystem system) {
+        List<byte[]> names = new ArrayList<>();
+        int size = FIXED_HEADER_BYTES;
+        for (InputVariable variable : system.variables()) {
+            byte[] name = variable.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                throw new IllegalArgumentException("Variable name is too long: " + variable.name());
+            }
+            names.add(name);
+            size += Short.BYTES + name.length;
+        }
+        double[] parameters = system.parameters();
+        int dataOffset = align(size);
+
+        ByteBuffer buffer = ByteBuffer.allocate(dataOffset + parameters.length * Double.BYTES + Long.BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(MAGIC).putInt(VERSION).putInt(TRIANGULAR).putInt(system.setsPerVariable())
+            .putInt(names.size()).putInt(parameters.length);
+        for (byte[] name : names) {
+            buffer.putShort((short) name.length).put(name);
+        }
+        buffer.position(dataOffset);
+        buffer.asDoubleBuffer().put(parameters);
+        int checksumOffset = dataOffset + parameters.length * Double.BYTES;
+        buffer.putLong(checksumOffset, checksum(buffer.array(), checksumOffset));
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a model.
+     *
+     * @param bytes The model file contents.
+     * @return A system that owns a fresh parameter array.
+     * @throws IOException If the bytes are not a model file of a supported version, or are damaged.
+     */
+    public static GridTskSystem fromBytes(byte[] bytes) throws IOException {
+        if (bytes.length < FIXED_HEADER_BYTES + Long.BYTES) {
+            throw new IOException("Model file is truncated: " + bytes.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte b : MAGIC) {
+            if (buffer.get() != b) {
+                throw new IOException("Not a model file.");
+            }
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported model version: " + version);
+        }
+        long expected = buffer.getLong(bytes.length - Long.BYTES);
+        if (checksum(bytes, bytes.length - Long.BYTES) != expected) {
+            throw new IOException("Model file is damaged: checksum mismatch.");
+        }
+
+        int membership = buffer.getInt();
+        if (membership != TRIANGULAR) {
+            throw new IOException("Unsupported membership function type: " + membership);
+        }
+        int setsPerVariable = buffer.getInt();
+        int variableCount = buffer.getInt();
+        int parameterCount = buffer.getInt();
+        if (setsPerVariable < 1 || variableCount < 1) {
+            throw new IOException("Corrupt model header: " + variableCount + " variables of " + setsPerVariable + " sets");
+        }
+        try {
+            if (parameterCount != GridTskSystem.parameterCount(variableCount, setsPerVariable)) {
+                throw new IOException("Corrupt model header: " + parameterCount + " parameters for " + variableCount
+                    + " variables of " + setsPerVariable + " sets");
+            }
+            List<InputVariable> variables = new ArrayList<>(variableCount);
+            for (int v = 0; v < variableCount; v++) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                variables.add(new InputVariable(new String(bytes, buffer.position(), length, StandardCharsets.UTF_8)));
+                buffer.position(buffer.position() + length);
+            }
+            int dataOffset = align(buffer.position());
+            if ((long) dataOffset + (long) parameterCount * Double.BYTES != bytes.length - Long.BYTES) {
+                throw new IOException("Model file has " + bytes.length + " bytes, which does not match its header.");
+            }
+            double[] parameters = new double[parameterCount];
+            buffer.position(dataOffset);
+            buffer.asDoubleBuffer().get(parameters);
+            return GridTskSystem.wrap(variables, setsPerVariable, parameters);
+        } catch (ArithmeticException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt model file.", e);
+        }
+    }
+
+    /**
+     * Writes a model file, replacing it atomically: the data goes to a temporary file next to it, is forced to disk,
+     * and is then renamed over the target, so a scoring process never loads a partly written model.
+     *
+     * @param system The model.
+     * @param file   The model file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(GridTskSystem system, Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer bytes = ByteBuffer.wrap(toBytes(system));
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a model file.
+     *
+     * @param file The model file.
+     * @return The model.
+     * @throws IOException If the file cannot be read, is not a model file of a supported version, or is damaged.
+     */
+    public static GridTskSystem read(Path file) throws IOException {
+        return fromBytes(Files.readAllBytes(file));
+    }
+
+    private static long checksum(byte[] bytes, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    private static int align(int position) {
+        return (position + Double.BYTES - 1) & -Double.BYTES;
+    }
+}
@@ -0,0 +1,62 @@
+package com.fuzzyga.fuzzy;
+
+import com.fuzzyga.fuzzy.membership.MembershipFunction;
+
+/**
+ * The portable {@link BatchKernel}, used when the Vector API is not available.
+ * The loops are simple enough for the JIT to unroll, and in places auto-vectorize.
+ */
+final class ScalarBatchKernel implements BatchKernel {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void triangular(double[] x, double center, double width, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = MembershipFunction.TriangularMembershipFunction.membership(x[i], center, width);
+        }
+    }
+
+    @Override
+    public void einsteinProduct(double[] a, double[] b, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = FuzzyOperators.einsteinProduct(a[i], b[i]);
+        }
+    }
+
+    @Override
+    public boolean anyNonZero(double[] values, int length) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] != 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void accumulateRule(double[][] inputs, double[] parameters, int offset, double[] firing,
+                               double[] numerator, double[] denominator, int length) {
+        int numInputs = inputs.length;
+        double constant = parameters[offset + numInputs];
+        for (int i = 0; i < length; i++) {
+            double value = 0.0;
+            for (int v = 0; v < numInputs; v++) {
+                value += parameters[offset + v] * inputs[v][i];
+            }
+            value += constant;
+            numerator[i] += firing[i] * value;
+            denominator[i] += firing[i];
+        }
+    }
+
+    @Override
+    public void defuzzify(double[] numerator, double[] denominator, double[] out, int length) {
+        for (int i = 0; i < length; i++) {
+            out[i] = denominator[i] == 0 ? 0.0 : numerator[i] / denominator[i];
+        }
+    }
+}
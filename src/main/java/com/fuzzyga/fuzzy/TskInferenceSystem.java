@@ -87,6 +87,16 @@ public class TskInferenceSystem implements Serializable {
         return weightedConsequentSum / totalFiringStrength;
     }
 
+    /**
+     * Compiles this system into an array-backed {@link CompiledTskSystem} for fast repeated evaluation.
+     *
+     * @param variables The variable order of the {@code double[]} inputs the compiled system will accept.
+     * @return The compiled form of this system.
+     */
+    public CompiledTskSystem compile(List<InputVariable> variables) {
+        return CompiledTskSystem.compile(ruleBase, variables);
+    }
+
     /**
      * Gets the list of rules that make up this system.
      *
@@ -0,0 +1,121 @@
+package com.fuzzyga.fuzzy;
+
+import com.fuzzyga.fuzzy.membership.MembershipFunction;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A {@link BatchKernel} that processes {@link #SPECIES} samples per instruction with the JDK Vector API.
+ * <p>
+ * Branches of the scalar code become lane masks and blends, and products and sums are kept as separate
+ * multiply and add operations (no fused multiply-add), so each lane reproduces the scalar result exactly.
+ * Tails shorter than a vector are handled by the scalar code.
+ * <p>
+ * This class must only be loaded when the {@code jdk.incubator.vector} module is present; see {@link BatchKernel}.
+ */
+final class VectorBatchKernel implements BatchKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize() + "bit";
+    }
+
+    @Override
+    public void triangular(double[] x, double center, double width, double[] out, int length) {
+        int i = 0;
+        if (width != 0) {
+            double left = center - width;
+            double right = center + width;
+            DoubleVector rightEdge = DoubleVector.broadcast(SPECIES, right);
+            for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+                DoubleVector xs = DoubleVector.fromArray(SPECIES, x, i);
+                DoubleVector rising = xs.sub(left).div(width);
+                DoubleVector falling = rightEdge.sub(xs).div(width);
+                DoubleVector membership = falling.blend(rising, xs.compare(VectorOperators.LT, center));
+                membership = membership.blend(1.0, xs.compare(VectorOperators.EQ, center));
+                VectorMask<Double> outside = xs.compare(VectorOperators.LE, left).or(xs.compare(VectorOperators.GE, right));
+                membership.blend(0.0, outside).intoArray(out, i);
+            }
+        }
+        for (; i < length; i++) {
+            out[i] = MembershipFunction.TriangularMembershipFunction.membership(x[i], center, width);
+        }
+    }
+
+    @Override
+    public void einsteinProduct(double[] a, double[] b, double[] out, int length) {
+        int i = 0;
+        DoubleVector two = DoubleVector.broadcast(SPECIES, 2.0);
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            DoubleVector as = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector bs = DoubleVector.fromArray(SPECIES, b, i);
+            DoubleVector product = as.mul(bs);
+            DoubleVector denominator = two.sub(as.add(bs).sub(product));
+            product.div(denominator).intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = FuzzyOperators.einsteinProduct(a[i], b[i]);
+        }
+    }
+
+    @Override
+    public boolean anyNonZero(double[] values, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            if (DoubleVector.fromArray(SPECIES, values, i).compare(VectorOperators.NE, 0.0).anyTrue()) {
+                return true;
+            }
+        }
+        for (; i < length; i++) {
+            if (values[i] != 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void accumulateRule(double[][] inputs, double[] parameters, int offset, double[] firing,
+                               double[] numerator, double[] denominator, int length) {
+        int numInputs = inputs.length;
+        double constant = parameters[offset + numInputs];
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            DoubleVector value = DoubleVector.zero(SPECIES);
+            for (int v = 0; v < numInputs; v++) {
+                value = value.add(DoubleVector.fromArray(SPECIES, inputs[v], i).mul(parameters[offset + v]));
+            }
+            value = value.add(constant);
+            DoubleVector fire = DoubleVector.fromArray(SPECIES, firing, i);
+            DoubleVector.fromArray(SPECIES, numerator, i).add(fire.mul(value)).intoArray(numerator, i);
+            DoubleVector.fromArray(SPECIES, denominator, i).add(fire).intoArray(denominator, i);
+        }
+        for (; i < length; i++) {
+            double value = 0.0;
+            for (int v = 0; v < numInputs; v++) {
+                value += parameters[offset + v] * inputs[v][i];
+            }
+            value += constant;
+            numerator[i] += firing[i] * value;
+            denominator[i] += firing[i];
+        }
+    }
+
+    @Override
+    public void defuzzify(double[] numerator, double[] denominator, double[] out, int length) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(length); i < upper; i += SPECIES.length()) {
+            DoubleVector den = DoubleVector.fromArray(SPECIES, denominator, i);
+            DoubleVector.fromArray(SPECIES, numerator, i).div(den)
+                .blend(0.0, den.compare(VectorOperators.EQ, 0.0))
+                .intoArray(out, i);
+        }
+        for (; i < length; i++) {
+            out[i] = denominator[i] == 0 ? 0.0 : numerator[i] / denominator[i];
+        }
+    }
+}
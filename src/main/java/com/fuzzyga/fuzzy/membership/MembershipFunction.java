@@ -36,6 +36,20 @@ public sealed interface MembershipFunction extends Serializable {
          */
         @Override
         public double getMembership(double x) {
+            return membership(x, center, width);
+        }
+
+        /**
+         * Calculates the membership degree for a triangular function given by its raw parameters.
+         * This is the primitive form used by the compiled inference kernels, which keep centers and
+         * widths in flat arrays instead of one record per fuzzy set.
+         *
+         * @param x      The input value.
+         * @param center The center of the triangle.
+         * @param width  The half-width of the triangle's base.
+         * @return The degree of membership.
+         */
+        public static double membership(double x, double center, double width) {
             if (width == 0) {
                 return x == center ? 1.0 : 0.0;
             }
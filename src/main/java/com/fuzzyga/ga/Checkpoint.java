@@ -0,0 +1,151 @@
+package com.fuzzyga.ga;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A snapshot of a generational run, from which {@link GeneticAlgorithmEngine#resume} continues exactly where the
+ * run stopped.
+ * <p>
+ * A checkpoint is stored in a compact big-endian binary file:
+ * <pre>
+ *   magic           4 bytes  "FGCP"
+ *   version         int32    {@value #VERSION}
+ *   generation      int32
+ *   randomSeed      int64
+ *   chromosomeLength int32
+ *   populationSize  int32
+ *   population      populationSize x (chromosomeLength float64 genes, float64 fitness)
+ *   hasBestEver     int8     0 or 1
+ *   bestEver        chromosomeLength float64 genes, float64 fitness (if present)
+ * </pre>
+ *
+ * @param generation The generation the population belongs to, i.e. the next one to evaluate.
+ * @param randomSeed The seed the engine's random generator was reset to when the snapshot was taken.
+ * @param population The population, with fitness -1 for individuals not evaluated yet.
+ * @param bestEver   The best individual found so far, or null if none was evaluated yet.
+ */
+public record Checkpoint(int generation, long randomSeed, List<Individual> population, Individual bestEver) {
+
+    static final byte[] MAGIC = {'F', 'G', 'C', 'P'};
+    static final int VERSION = 1;
+    // Magic, version, generation, seed, chromosome length and population size.
+    private static final int HEADER_BYTES = 28;
+
+    public Checkpoint {
+        if (population.isEmpty()) {
+            throw new IllegalArgumentException("A checkpoint needs a population");
+        }
+        population = List.copyOf(population);
+    }
+
+    /**
+     * Writes the checkpoint to a file, replacing it atomically: the data goes to a temporary file next to it, is
+     * forced to disk, and is then renamed over the target, so a crash leaves either the old or the new checkpoint.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream stream = Channels.newOutputStream(channel);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            write(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint file.
+     *
+     * @param file The checkpoint file.
+     * @return The checkpoint.
+     * @throws IOException If the file cannot be read or is not a checkpoint.
+     */
+    public static Checkpoint read(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            return read(new DataInputStream(new BufferedInputStream(stream, 1 << 16)), Files.size(file));
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        int length = population.get(0).chromosome().length();
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(generation);
+        out.writeLong(randomSeed);
+        out.writeInt(length);
+        out.writeInt(population.size());
+        for (Individual individual : population) {
+            writeIndividual(out, individual, length);
+        }
+        out.writeByte(bestEver == null ? 0 : 1);
+        if (bestEver != null) {
+            writeIndividual(out, bestEver, length);
+        }
+    }
+
+    private static Checkpoint read(DataInputStream in, long fileSize) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a checkpoint file");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version: " + version);
+        }
+        int generation = in.readInt();
+        long randomSeed = in.readLong();
+        int length = in.readInt();
+        int size = in.readInt();
+        // The population and the best-ever flag must fit in the rest of the file, which bounds every allocation below
+        long individualBytes = (length + 1L) * Double.BYTES;
+        if (length < 0 || size <= 0 || size > (fileSize - HEADER_BYTES - 1) / individualBytes) {
+            throw new IOException("Corrupt checkpoint header: " + size + " individuals of " + length + " genes");
+        }
+        List<Individual> population = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            population.add(readIndividual(in, length));
+        }
+        Individual bestEver = in.readByte() == 0 ? null : readIndividual(in, length);
+        return new Checkpoint(generation, randomSeed, population, bestEver);
+    }
+
+    private static void writeIndividual(DataOutputStream out, Individual individual, int length) throws IOException {
+        double[] genes = individual.chromosome().sharedGenes();
+        if (genes.length != length) {
+            throw new IOException("All chromosomes in a checkpoint must have " + length + " genes");
+        }
+        for (double gene : genes) {
+            out.writeDouble(gene);
+        }
+        out.writeDouble(individual.fitness());
+    }
+
+    private static Individual readIndividual(DataInputStream in, int length) throws IOException {
+        double[] genes = new double[length];
+        for (int i = 0; i < length; i++) {
+            genes[i] = in.readDouble();
+        }
+        return new Individual(new Chromosome(genes), in.readDouble());
+    }
+}
@@ -0,0 +1,65 @@
+package com.fuzzyga.ga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes checkpoints on a background thread, so the GA thread only pays for taking the snapshot.
+ * <p>
+ * At most one checkpoint waits while another is being written; if the disk falls behind, a waiting checkpoint is
+ * replaced by the newer one. A failed write is logged and does not stop the run.
+ */
+final class CheckpointWriter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointWriter.class);
+
+    private final Path file;
+    private final ThreadPoolExecutor executor;
+
+    CheckpointWriter(Path file) {
+        this.file = file;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "checkpoint-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * Queues a checkpoint for writing.
+     */
+    void submit(Checkpoint checkpoint) {
+        executor.execute(() -> {
+            try {
+                checkpoint.write(file);
+                logger.debug("Checkpoint of generation {} written to {}", checkpoint.generation(), file);
+            } catch (IOException e) {
+                logger.error("Failed to write checkpoint to {}", file, e);
+            }
+        });
+    }
+
+    /**
+     * Waits for the queued checkpoints to be written.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.warn("Gave up waiting for the last checkpoint to be written to {}", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -30,6 +30,33 @@ public record Chromosome(double[] genes) implements Serializable {
         return Arrays.copyOf(genes, genes.length);
     }
 
+    /**
+     * Gets a single gene without copying the array.
+     *
+     * @param index The gene index.
+     * @return The gene value.
+     */
+    public double gene(int index) {
+        return genes[index];
+    }
+
+    /**
+     * Gives the operators in this package read access to the genes without a defensive copy.
+     * The returned array must never be modified.
+     */
+    double[] sharedGenes() {
+        return genes;
+    }
+
+    /**
+     * Copies the genes into an existing array, avoiding the allocation made by {@link #genes()}.
+     *
+     * @param destination The array to fill; must hold at least {@link #length()} elements.
+     */
+    public void copyInto(double[] destination) {
+        System.arraycopy(genes, 0, destination, 0, genes.length);
+    }
+
     /**
      * Returns the number of genes in the chromosome.
      * @return The length of the genes array.
@@ -1,7 +1,9 @@
 package com.fuzzyga.ga;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.random.RandomGenerator;
 
 /**
  * Defines the contract for a fitness evaluator.
@@ -22,6 +24,19 @@ public interface FitnessEvaluator {
      */
     List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService);
 
+    /**
+     * Evaluates a population like {@link #evaluatePopulation(List, ExecutorService)}, drawing the random choices of
+     * the evaluation itself, such as the rows of a data sample, from the given generator. Engines pass their own
+     * stream, so that engines sharing an evaluator on several threads stay reproducible. The default implementation
+     * ignores the generator.
+     *
+     * @param random The generator to draw from; only used by the calling thread.
+     */
+    default List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService,
+                                                RandomGenerator random) {
+        return evaluatePopulation(population, executorService);
+    }
+
     /**
      * Creates a single, randomly initialized chromosome.
      * The structure and parameter ranges of the chromosome are specific to the problem domain.
@@ -29,4 +44,112 @@ public interface FitnessEvaluator {
      * @return A new {@link Chromosome} with random gene values.
      */
     Chromosome createRandomChromosome();
+
+    /**
+     * Creates a random chromosome drawing from the given generator, so that engines with their own random streams
+     * produce reproducible populations. The default implementation ignores the generator and delegates to
+     * {@link #createRandomChromosome()}; implementations should override it.
+     *
+     * @param random The generator to draw from; only used by the calling thread.
+     * @return A new {@link Chromosome} with random gene values.
+     */
+    default Chromosome createRandomChromosome(RandomGenerator random) {
+        return createRandomChromosome();
+    }
+
+    /**
+     * Fills a gene array with random values drawn from the given generator, as
+     * {@link #createRandomChromosome(RandomGenerator)} would.
+     *
+     * @param genes  The array to fill; its length must be the chromosome length.
+     * @param random The generator to draw from.
+     */
+    default void randomGenes(double[] genes, RandomGenerator random) {
+        double[] values = createRandomChromosome(random).genes();
+        System.arraycopy(values, 0, genes, 0, genes.length);
+    }
+
+    /**
+     * Fills a gene array with random values, as {@link #createRandomChromosome()} would.
+     * Implementations can override this to write straight into the array without creating a chromosome.
+     *
+     * @param genes The array to fill; its length must be the chromosome length.
+     */
+    default void randomGenes(double[] genes) {
+        double[] random = createRandomChromosome().genes();
+        System.arraycopy(random, 0, genes, 0, genes.length);
+    }
+
+    /**
+     * Evaluates a population stored as a gene matrix. Only rows whose fitness is negative are evaluated,
+     * mirroring how {@link #evaluatePopulation} skips individuals that already carry a fitness.
+     * <p>
+     * The default implementation wraps the rows into individuals and delegates to {@link #evaluatePopulation};
+     * implementations can override it to score the rows in place without allocating per individual.
+     *
+     * @param genes           The gene matrix, one row per individual. Rows are not modified.
+     * @param fitness         The fitness of each row, negative if not yet evaluated; updated in place.
+     * @param count           The number of rows to consider.
+     * @param executorService An optional {@link ExecutorService} for parallel evaluation.
+     */
+    default void evaluateGenes(double[][] genes, double[] fitness, int count, ExecutorService executorService) {
+        List<Individual> pending = new ArrayList<>();
+        int[] rows = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (fitness[i] < 0) {
+                rows[pending.size()] = i;
+                pending.add(new Individual(new Chromosome(genes[i]), -1));
+            }
+        }
+        List<Individual> evaluated = evaluatePopulation(pending, executorService);
+        for (int i = 0; i < evaluated.size(); i++) {
+            fitness[rows[i]] = evaluated.get(i).fitness();
+        }
+    }
+
+    /**
+     * Evaluates a gene matrix like {@link #evaluateGenes(double[][], double[], int, ExecutorService)}, drawing the
+     * random choices of the evaluation from the given generator, as
+     * {@link #evaluatePopulation(List, ExecutorService, RandomGenerator)} does. The default implementation ignores
+     * the generator.
+     *
+     * @param random The generator to draw from; only used by the calling thread.
+     */
+    default void evaluateGenes(double[][] genes, double[] fitness, int count, ExecutorService executorService,
+                               RandomGenerator random) {
+        evaluateGenes(genes, fitness, count, executorService);
+    }
+
+    /**
+     * Evaluates a single individual on the calling thread, for engines that score children one at a time.
+     * The default implementation delegates to {@link #evaluatePopulation}; it must be safe to call from
+     * several threads at once.
+     *
+     * @param individual The individual to evaluate.
+     * @return The individual, or a copy of it with its fitness.
+     */
+    default Individual evaluate(Individual individual) {
+        return individual.fitness() >= 0 ? individual : evaluatePopulation(List.of(individual), null).get(0);
+    }
+
+    /**
+     * Gets the number of fitness cache hits so far, for the engines' generation metrics.
+     *
+     * @return The hit count, or -1 if the evaluator has no cache.
+     */
+    default long cacheHitCount() {
+        return -1;
+    }
+
+    /**
+     * Returns an individual with its exact fitness. Evaluators that may assign estimated fitness values
+     * (e.g. computed on a sample of the data) override this to recompute the fitness exactly; the engines
+     * call it on their final result.
+     *
+     * @param individual The individual to score.
+     * @return The individual, or a copy of it with its exact fitness.
+     */
+    default Individual rescore(Individual individual) {
+        return individual.fitness() >= 0 ? individual : evaluatePopulation(List.of(individual), null).get(0);
+    }
 }
@@ -6,10 +6,10 @@ import java.io.Serializable;
  * A configuration record for the Genetic Algorithm.
  * <p>
  * This record holds all the hyperparameters that control the behavior of the
- * {@link GeneticAlgorithmEngine}. It is immutable and serves as a single source
+ * {@link GeneticAlgorithmEngine} and the {@link IslandModelEngine}. It is immutable and serves as a single source
  * of configuration.
  *
- * @param populationSize     The number of individuals in the population.
+ * @param populationSize     The number of individuals in the population (in each island, for the island model).
  * @param maxGenerations     The maximum number of generations to evolve.
  * @param elitismCount       The number of the best individuals to carry over to the next generation.
  * @param crossoverRate      The probability (0.0 to 1.0) that a crossover operation will occur.
@@ -17,6 +17,10 @@ import java.io.Serializable;
  * @param mutationStrength   The standard deviation of the Gaussian distribution used for mutation.
  * @param tournamentSize     The number of individuals to select for a tournament selection.
  * @param fitnessThreshold   A fitness level that, if reached by the best individual, will terminate the evolution early.
+ * @param islandCount        The number of subpopulations evolved side by side by the island model.
+ * @param migrationInterval  The number of generations between two migrations.
+ * @param migrationCount     The number of best individuals each island sends to each of its neighbours.
+ * @param migrationTopology  Which islands exchange migrants.
  */
 public record GaConfig(
     int populationSize,
@@ -26,6 +30,40 @@ public record GaConfig(
     double mutationRate,
     double mutationStrength,
     int tournamentSize,
-    double fitnessThreshold
+    double fitnessThreshold,
+    int islandCount,
+    int migrationInterval,
+    int migrationCount,
+    MigrationTopology migrationTopology
 ) implements Serializable {
+
+    public static final int DEFAULT_ISLAND_COUNT = 1;
+    public static final int DEFAULT_MIGRATION_INTERVAL = 10;
+    public static final int DEFAULT_MIGRATION_COUNT = 2;
+    public static final MigrationTopology DEFAULT_MIGRATION_TOPOLOGY = MigrationTopology.RING;
+
+    public GaConfig {
+        if (islandCount < 1) {
+            throw new IllegalArgumentException("Island count must be at least 1: " + islandCount);
+        }
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1: " + migrationInterval);
+        }
+        if (migrationCount < 0) {
+            throw new IllegalArgumentException("Migration count cannot be negative: " + migrationCount);
+        }
+        if (migrationTopology == null) {
+            throw new IllegalArgumentException("Migration topology is required");
+        }
+    }
+
+    /**
+     * Creates a configuration for a single population, with the default island model settings.
+     */
+    public GaConfig(int populationSize, int maxGenerations, int elitismCount, double crossoverRate, double mutationRate,
+                    double mutationStrength, int tournamentSize, double fitnessThreshold) {
+        this(populationSize, maxGenerations, elitismCount, crossoverRate, mutationRate, mutationStrength, tournamentSize,
+            fitnessThreshold, DEFAULT_ISLAND_COUNT, DEFAULT_MIGRATION_INTERVAL, DEFAULT_MIGRATION_COUNT,
+            DEFAULT_MIGRATION_TOPOLOGY);
+    }
 }
@@ -0,0 +1,16 @@
+package com.fuzzyga.ga;
+
+/**
+ * Receives the {@link GenerationMetrics} of every generation of a {@link GeneticAlgorithmEngine} run.
+ * Listeners are called on the engine's thread, so they should return quickly.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * Called after each generation has been evaluated and the next one bred.
+     *
+     * @param metrics The generation's metrics.
+     */
+    void onGeneration(GenerationMetrics metrics);
+}
@@ -0,0 +1,98 @@
+package com.fuzzyga.ga;
+
+import java.util.Arrays;
+
+/**
+ * What happened in one generation of a {@link GeneticAlgorithmEngine} run, reported to
+ * {@link GenerationListener}s.
+ *
+ * @param generation       The generation number, starting at 0.
+ * @param evaluationNanos  Wall time spent evaluating the population.
+ * @param breedingNanos    Wall time spent on elitism, selection, crossover and mutation.
+ * @param evaluations      The number of individuals that needed a fitness in this generation.
+ * @param cacheHits        The number of fitness cache hits in this generation, or -1 if the evaluator has no cache.
+ * @param allocatedBytes   The bytes allocated by all threads of the JVM in this generation, including evaluation work
+ *                         on the executor's threads, or -1 if the JVM cannot measure it. Work running concurrently
+ *                         outside the engine, such as other islands, is counted too.
+ * @param bestFitness      The highest fitness in the population.
+ * @param meanFitness      The mean fitness of the population.
+ * @param medianFitness    The median fitness of the population.
+ * @param fitnessStdDev    The standard deviation of the population's fitness.
+ * @param diversity        The standard deviation of each gene across the population, averaged over the genes;
+ *                         0 when all individuals are identical.
+ */
+public record GenerationMetrics(
+    int generation,
+    long evaluationNanos,
+    long breedingNanos,
+    int evaluations,
+    long cacheHits,
+    long allocatedBytes,
+    double bestFitness,
+    double meanFitness,
+    double medianFitness,
+    double fitnessStdDev,
+    double diversity
+) {
+
+    /**
+     * Gets the evaluation throughput of this generation.
+     *
+     * @return Individuals evaluated per second of evaluation time.
+     */
+    public double evaluationsPerSecond() {
+        return evaluationNanos == 0 ? 0.0 : evaluations * 1e9 / evaluationNanos;
+    }
+
+    /**
+     * Gets the allocation rate of the JVM over this generation.
+     *
+     * @return Bytes per second of generation time, or -1 if allocations could not be measured.
+     */
+    public double allocationRate() {
+        long nanos = evaluationNanos + breedingNanos;
+        return allocatedBytes < 0 ? -1 : (nanos == 0 ? 0.0 : allocatedBytes * 1e9 / nanos);
+    }
+
+    /**
+     * Computes the metrics of a population stored as a gene matrix.
+     *
+     * @param genes   The gene matrix, one row per individual.
+     * @param fitness The fitness of each row.
+     * @param count   The number of rows in the population.
+     */
+    static GenerationMetrics of(int generation, long evaluationNanos, long breedingNanos, int evaluations, long cacheHits,
+                                long allocatedBytes, double[][] genes, double[] fitness, int count) {
+        double[] sorted = Arrays.copyOf(fitness, count);
+        Arrays.sort(sorted);
+        double sum = 0.0;
+        for (double value : sorted) {
+            sum += value;
+        }
+        double mean = sum / count;
+        double squares = 0.0;
+        for (double value : sorted) {
+            squares += (value - mean) * (value - mean);
+        }
+        double median = (count % 2 == 1) ? sorted[count / 2] : (sorted[count / 2 - 1] + sorted[count / 2]) / 2;
+
+        int length = genes[0].length;
+        double deviation = 0.0;
+        for (int g = 0; g < length; g++) {
+            double geneSum = 0.0;
+            for (int i = 0; i < count; i++) {
+                geneSum += genes[i][g];
+            }
+            double geneMean = geneSum / count;
+            double geneSquares = 0.0;
+            for (int i = 0; i < count; i++) {
+                double d = genes[i][g] - geneMean;
+                geneSquares += d * d;
+            }
+            deviation += Math.sqrt(geneSquares / count);
+        }
+
+        return new GenerationMetrics(generation, evaluationNanos, breedingNanos, evaluations, cacheHits, allocatedBytes,
+            sorted[count - 1], mean, median, Math.sqrt(squares / count), length == 0 ? 0.0 : deviation / length);
+    }
+}
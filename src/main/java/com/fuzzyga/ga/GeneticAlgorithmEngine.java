@@ -3,11 +3,14 @@ package com.fuzzyga.ga;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -20,11 +23,65 @@ public class GeneticAlgorithmEngine {
 
     private final GaConfig config;
     private final FitnessEvaluator fitnessEvaluator;
-    private final Random random = new Random();
+    private RandomGenerator random;
+
+    private Path checkpointFile;
+    private int checkpointInterval;
+
+    private final List<GenerationListener> listeners = new CopyOnWriteArrayList<>();
 
     public GeneticAlgorithmEngine(GaConfig config, FitnessEvaluator fitnessEvaluator) {
+        this(config, fitnessEvaluator, RandomStreams.create());
+    }
+
+    /**
+     * Creates an engine that draws all its random decisions from the given generator, so that a seeded generator
+     * makes runs reproducible.
+     *
+     * @param random The source of randomness for the initial population, selection, crossover and mutation;
+     *               used by this engine only, on the thread running it.
+     */
+    public GeneticAlgorithmEngine(GaConfig config, FitnessEvaluator fitnessEvaluator, RandomGenerator random) {
         this.config = config;
         this.fitnessEvaluator = fitnessEvaluator;
+        this.random = random;
+    }
+
+    /**
+     * Registers a listener for the {@link GenerationMetrics} of every generation of {@link #evolve},
+     * {@link #resume} and {@link #evolveBuffered}. Metrics are only collected while at least one listener is
+     * registered.
+     *
+     * @param listener The listener to add.
+     */
+    public void addGenerationListener(GenerationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGenerationListener(GenerationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Makes {@link #evolve} and {@link #resume} save a {@link Checkpoint} every {@code interval} generations.
+     * Checkpoints are written on a background thread and replace the file atomically. Taking a checkpoint replaces
+     * this engine's random generator with a new {@link RandomStreams} generator whose seed is stored in the
+     * checkpoint, so a resumed run with the same interval continues exactly like the uninterrupted one would have.
+     * That includes data samples, such as mini-batches, that the evaluator draws from the generator the engine passes
+     * it (see {@link FitnessEvaluator#evaluatePopulation(List, ExecutorService, RandomGenerator)}). Evaluator state
+     * that is not part of the checkpoint can still make the runs diverge: with delta evaluation, the resumed run
+     * scores its first offspring fully, and the results can differ from incremental ones by rounding.
+     *
+     * @param file     The checkpoint file, or null to disable checkpointing.
+     * @param interval The number of generations between checkpoints.
+     * @throws IllegalArgumentException If checkpointing is enabled with a non-positive interval.
+     */
+    public void setCheckpointing(Path file, int interval) {
+        if (file != null && interval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1: " + interval);
+        }
+        this.checkpointFile = file;
+        this.checkpointInterval = interval;
     }
 
     /**
@@ -39,13 +96,37 @@ public class GeneticAlgorithmEngine {
         List<Individual> population = (initialPopulation == null)
             ? initializePopulation()
             : initialPopulation;
+        return evolve(population, 0, null, executorService);
+    }
 
-        Individual bestEver = null;
+    /**
+     * Continues a run of {@link #evolve} from a checkpoint, up to the configured {@link GaConfig#maxGenerations()}.
+     *
+     * @param checkpoint      The checkpoint to resume from.
+     * @param executorService Optional ExecutorService for parallel fitness evaluation. If null, evaluation is serial.
+     * @return The best individual found, including those found before the checkpoint.
+     */
+    public Individual resume(Checkpoint checkpoint, ExecutorService executorService) {
+        logger.info("Resuming from the checkpoint of generation {}.", checkpoint.generation());
+        random = RandomStreams.create(checkpoint.randomSeed());
+        return evolve(new ArrayList<>(checkpoint.population()), checkpoint.generation(), checkpoint.bestEver(), executorService);
+    }
 
-        for (int generation = 0; generation < config.maxGenerations(); generation++) {
+    private Individual evolve(List<Individual> population, int firstGeneration, Individual bestEver,
+                              ExecutorService executorService) {
+        try (CheckpointWriter checkpoints = (checkpointFile == null) ? null : new CheckpointWriter(checkpointFile)) {
+            return evolve(population, firstGeneration, bestEver, executorService, checkpoints);
+        }
+    }
+
+    private Individual evolve(List<Individual> population, int firstGeneration, Individual bestEver,
+                              ExecutorService executorService, CheckpointWriter checkpoints) {
+        for (int generation = firstGeneration; generation < config.maxGenerations(); generation++) {
             // 2. Fitness Evaluation
-            population = fitnessEvaluator.evaluatePopulation(population, executorService);
-            Collections.sort(population); // Sorts by fitness, highest first
+            Probe probe = probe();
+            int evaluations = (probe == null) ? 0 : (int) population.stream().filter(i -> i.fitness() < 0).count();
+            population = evaluate(population, executorService);
+            long evaluated = System.nanoTime();
 
             Individual bestOfGeneration = population.get(0);
             if (bestEver == null || bestOfGeneration.fitness() > bestEver.fitness()) {
@@ -55,49 +136,270 @@ public class GeneticAlgorithmEngine {
             logger.info("Generation {}: Best Fitness = {}", generation, bestOfGeneration.fitness());
 
             // 3. Evolve New Generation
-            List<Individual> newPopulation = new ArrayList<>();
+            List<Individual> parents = population;
+            population = breed(population);
+            if (probe != null) {
+                double[][] genes = new double[parents.size()][];
+                double[] fitness = new double[parents.size()];
+                for (int i = 0; i < parents.size(); i++) {
+                    genes[i] = parents.get(i).chromosome().sharedGenes();
+                    fitness[i] = parents.get(i).fitness();
+                }
+                publish(probe, evaluated, generation, evaluations, genes, fitness, parents.size());
+            }
+
+            // Check for termination
+             if (bestOfGeneration.fitness() >= config.fitnessThreshold()) {
+                logger.info("Fitness threshold reached. Terminating evolution.");
+                break;
+            }
+
+            if (checkpoints != null && (generation + 1) % checkpointInterval == 0) {
+                long seed = random.nextLong();
+                random = RandomStreams.create(seed);
+                checkpoints.submit(new Checkpoint(generation + 1, seed, population, bestEver));
+            }
+        }
+
+        // Final evaluation of the last population
+        population = evaluate(population, executorService);
+        Individual finalBest = fitnessEvaluator.rescore(population.get(0));
+        if (bestEver != null) {
+            bestEver = fitnessEvaluator.rescore(bestEver);
+        }
 
-            // Elitism
-            int elitismCount = Math.min(config.elitismCount(), population.size());
-            newPopulation.addAll(population.subList(0, elitismCount));
+        return (bestEver != null && bestEver.fitness() > finalBest.fitness()) ? bestEver : finalBest;
+    }
+
+    /**
+     * Evaluates a population and sorts it by fitness, highest first. Together with {@link #breed} and
+     * {@link #initializePopulation}, this lets callers drive the generation loop themselves, e.g. to change the
+     * data between generations.
+     *
+     * @param population      The population; individuals with a negative fitness are evaluated.
+     * @param executorService Optional ExecutorService for parallel fitness evaluation. If null, evaluation is serial.
+     * @return The evaluated population, sorted.
+     */
+    public List<Individual> evaluate(List<Individual> population, ExecutorService executorService) {
+        List<Individual> evaluated = fitnessEvaluator.evaluatePopulation(population, executorService, random);
+        Collections.sort(evaluated);
+        return evaluated;
+    }
 
-            // Crossover and Mutation
-            while (newPopulation.size() < config.populationSize()) {
-                // Selection
-                Individual parent1 = select(population);
-                Individual parent2 = select(population);
+    /**
+     * Breeds the next generation from an evaluated population sorted by fitness, highest first.
+     * Elites and unchanged copies keep their fitness; new children are left unevaluated.
+     *
+     * @param population The parents, as returned by {@link #evaluate}.
+     * @return The next generation.
+     */
+    public List<Individual> breed(List<Individual> population) {
+        List<Individual> newPopulation = new ArrayList<>();
+        double[] childGenes = new double[population.get(0).chromosome().length()];
 
-                // Crossover
-                Chromosome childChromosome = (random.nextDouble() < config.crossoverRate())
-                    ? crossover(parent1.chromosome(), parent2.chromosome())
-                    : parent1.chromosome(); // Or just copy parent1
+        // Elitism
+        int elitismCount = Math.min(config.elitismCount(), population.size());
+        newPopulation.addAll(population.subList(0, elitismCount));
+
+        // Crossover and Mutation
+        while (newPopulation.size() < config.populationSize()) {
+            // Selection
+            Individual parent1 = select(population);
+            Individual parent2 = select(population);
+
+            // Each child is bred in the one scratch buffer: crossover (or a copy of parent1) writes it,
+            // mutation modifies it in place, and the chromosome constructor copies it exactly once.
+            boolean crossed = random.nextDouble() < config.crossoverRate();
+            if (crossed) {
+                GeneticOperators.blendCrossover(parent1.chromosome().sharedGenes(), parent2.chromosome().sharedGenes(),
+                    childGenes, random);
+            } else {
+                parent1.chromosome().copyInto(childGenes);
+            }
 
-                // Mutation
-                mutate(childChromosome);
+            // Mutation
+            boolean mutated = GeneticOperators.gaussianMutation(childGenes, config.mutationRate(), config.mutationStrength(), random);
 
+            if (!crossed && !mutated) {
+                // An unchanged copy of parent1 keeps its chromosome and fitness.
+                newPopulation.add(parent1);
+            } else {
                 // Add new individual to population (fitness will be calculated next generation)
-                newPopulation.add(new Individual(childChromosome, -1));
+                newPopulation.add(new Individual(new Chromosome(childGenes), -1));
             }
-            population = newPopulation;
+        }
+        return newPopulation;
+    }
+
+    /**
+     * Evolves a population like {@link #evolve(List, ExecutorService)}, but keeps it in two preallocated gene
+     * matrices (the current generation and the one being bred) plus primitive fitness arrays, swapping them every
+     * generation. Parents are read and children are written in place, so the generation loop allocates no
+     * individuals or chromosomes; those are only created for the returned result.
+     * <p>
+     * This mode is intended for large populations and long chromosomes, where per-child allocation and copying
+     * dominate. Fitness is computed through {@link FitnessEvaluator#evaluateGenes}.
+     *
+     * @param initialPopulation An initial population. Can be null, in which case a random population is generated.
+     * @param executorService Optional ExecutorService for parallel fitness evaluation. If null, evaluation is serial.
+     * @return The best individual found after all generations.
+     * @throws IllegalArgumentException If the initial population is empty.
+     */
+    public Individual evolveBuffered(List<Individual> initialPopulation, ExecutorService executorService) {
+        if (initialPopulation != null && initialPopulation.isEmpty()) {
+            throw new IllegalArgumentException("Initial population must not be empty");
+        }
+        int populationSize = (initialPopulation == null) ? config.populationSize() : initialPopulation.size();
+        int capacity = Math.max(populationSize, config.populationSize());
+        int length = (initialPopulation == null)
+            ? fitnessEvaluator.createRandomChromosome().length()
+            : initialPopulation.get(0).chromosome().length();
+
+        double[][] current = new double[capacity][length];
+        double[][] next = new double[capacity][length];
+        double[] fitness = new double[capacity];
+        double[] nextFitness = new double[capacity];
+        int elitismCount = Math.min(config.elitismCount(), capacity);
+        int[] order = new int[Math.max(1, elitismCount)];
+
+        // 1. Initialize Population
+        for (int i = 0; i < populationSize; i++) {
+            if (initialPopulation == null) {
+                fitnessEvaluator.randomGenes(current[i], random);
+                fitness[i] = -1;
+            } else {
+                Individual individual = initialPopulation.get(i);
+                individual.chromosome().copyInto(current[i]);
+                fitness[i] = individual.fitness();
+            }
+        }
+
+        double[] bestEverGenes = new double[length];
+        double bestEverFitness = Double.NEGATIVE_INFINITY;
+
+        for (int generation = 0; generation < config.maxGenerations(); generation++) {
+            // 2. Fitness Evaluation
+            Probe probe = probe();
+            int evaluations = 0;
+            for (int i = 0; probe != null && i < populationSize; i++) {
+                evaluations += fitness[i] < 0 ? 1 : 0;
+            }
+            fitnessEvaluator.evaluateGenes(current, fitness, populationSize, executorService, random);
+            long evaluated = System.nanoTime();
+            GeneticOperators.topIndices(fitness, populationSize, Math.max(1, elitismCount), order);
+
+            double bestOfGeneration = fitness[order[0]];
+            if (bestOfGeneration > bestEverFitness) {
+                bestEverFitness = bestOfGeneration;
+                System.arraycopy(current[order[0]], 0, bestEverGenes, 0, length);
+            }
+
+            logger.info("Generation {}: Best Fitness = {}", generation, bestOfGeneration);
+
+            // 3. Breed the next generation into the spare buffers
+            int elites = Math.min(elitismCount, populationSize);
+            for (int e = 0; e < elites; e++) {
+                System.arraycopy(current[order[e]], 0, next[e], 0, length);
+                nextFitness[e] = fitness[order[e]];
+            }
+            for (int i = elites; i < config.populationSize(); i++) {
+                int parent1 = GeneticOperators.tournament(fitness, populationSize, config.tournamentSize(), random);
+                int parent2 = GeneticOperators.tournament(fitness, populationSize, config.tournamentSize(), random);
+                double[] child = next[i];
+                boolean crossed = random.nextDouble() < config.crossoverRate();
+                if (crossed) {
+                    GeneticOperators.blendCrossover(current[parent1], current[parent2], child, random);
+                } else {
+                    System.arraycopy(current[parent1], 0, child, 0, length);
+                }
+                boolean mutated = GeneticOperators.gaussianMutation(child, config.mutationRate(), config.mutationStrength(), random);
+                nextFitness[i] = (crossed || mutated) ? -1 : fitness[parent1];
+            }
+            if (probe != null) {
+                publish(probe, evaluated, generation, evaluations, current, fitness, populationSize);
+            }
+            populationSize = Math.max(elites, config.populationSize());
+
+            double[][] genes = current;
+            current = next;
+            next = genes;
+            double[] scores = fitness;
+            fitness = nextFitness;
+            nextFitness = scores;
 
             // Check for termination
-             if (bestOfGeneration.fitness() >= config.fitnessThreshold()) {
+            if (bestOfGeneration >= config.fitnessThreshold()) {
                 logger.info("Fitness threshold reached. Terminating evolution.");
                 break;
             }
         }
 
         // Final evaluation of the last population
-        population = fitnessEvaluator.evaluatePopulation(population, executorService);
-        Collections.sort(population);
-        Individual finalBest = population.get(0);
+        fitnessEvaluator.evaluateGenes(current, fitness, populationSize, executorService, random);
+        GeneticOperators.topIndices(fitness, populationSize, 1, order);
 
-        return (bestEver != null && bestEver.fitness() > finalBest.fitness()) ? bestEver : finalBest;
+        Individual finalBest = fitnessEvaluator.rescore(new Individual(new Chromosome(current[order[0]]), fitness[order[0]]));
+        if (bestEverFitness == Double.NEGATIVE_INFINITY) {
+            return finalBest;
+        }
+        Individual bestEver = fitnessEvaluator.rescore(new Individual(new Chromosome(bestEverGenes), bestEverFitness));
+        return (bestEver.fitness() > finalBest.fitness()) ? bestEver : finalBest;
+    }
+
+    /**
+     * Counters sampled at the start of a generation, to compute its metrics at the end.
+     */
+    private record Probe(long startNanos, long cacheHits, long allocatedBytes) {
+    }
+
+    /**
+     * Samples the counters for a generation's metrics.
+     *
+     * @return The probe, or null if no listener is registered.
+     */
+    private Probe probe() {
+        return listeners.isEmpty() ? null
+            : new Probe(System.nanoTime(), fitnessEvaluator.cacheHitCount(), allocatedBytes());
+    }
+
+    private void publish(Probe probe, long evaluatedNanos, int generation, int evaluations, double[][] genes,
+                         double[] fitness, int count) {
+        long hits = fitnessEvaluator.cacheHitCount();
+        long allocated = allocatedBytes();
+        GenerationMetrics metrics = GenerationMetrics.of(generation,
+            evaluatedNanos - probe.startNanos(),
+            System.nanoTime() - evaluatedNanos,
+            evaluations,
+            (hits < 0 || probe.cacheHits() < 0) ? -1 : Math.max(0, hits - probe.cacheHits()),
+            (allocated < 0 || probe.allocatedBytes() < 0) ? -1 : allocated - probe.allocatedBytes(),
+            genes, fitness, count);
+        for (GenerationListener listener : listeners) {
+            listener.onGeneration(metrics);
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by all threads of the JVM, so that evaluation work on the executor's threads is
+     * counted along with this thread's breeding.
+     *
+     * @return The byte count, or -1 if the JVM does not support measuring it.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
     }
 
-    private List<Individual> initializePopulation() {
+    /**
+     * Creates a random population of {@link GaConfig#populationSize()} unevaluated individuals.
+     *
+     * @return The new population.
+     */
+    public List<Individual> initializePopulation() {
         return IntStream.range(0, config.populationSize())
-            .mapToObj(i -> new Individual(fitnessEvaluator.createRandomChromosome(), -1))
+            .mapToObj(i -> new Individual(fitnessEvaluator.createRandomChromosome(random), -1))
             .collect(Collectors.toList());
     }
 
@@ -105,39 +407,13 @@ public class GeneticAlgorithmEngine {
 
     private Individual select(List<Individual> population) {
         // Tournament Selection
-        int tournamentSize = config.tournamentSize();
-        List<Individual> tournament = new ArrayList<>();
-        for (int i = 0; i < tournamentSize; i++) {
-            tournament.add(population.get(random.nextInt(population.size())));
-        }
-        return Collections.min(tournament); // min because of inverted compareTo
-    }
-
-    private Chromosome crossover(Chromosome parent1, Chromosome parent2) {
-        // Blend Crossover (BLX-alpha)
-        double[] p1Genes = parent1.genes();
-        double[] p2Genes = parent2.genes();
-        double[] childGenes = new double[parent1.length()];
-        double alpha = 0.5;
-
-        for (int i = 0; i < parent1.length(); i++) {
-            double d = Math.abs(p1Genes[i] - p2Genes[i]);
-            double min = Math.min(p1Genes[i], p2Genes[i]) - alpha * d;
-            double max = Math.max(p1Genes[i], p2Genes[i]) + alpha * d;
-            childGenes[i] = min + random.nextDouble() * (max - min);
-            // Clamping to original gene boundaries can be added here if needed
-        }
-        return new Chromosome(childGenes);
-    }
-
-    private void mutate(Chromosome chromosome) {
-        // Gaussian Mutation
-        double[] genes = chromosome.genes();
-        for (int i = 0; i < chromosome.length(); i++) {
-            if (random.nextDouble() < config.mutationRate()) {
-                genes[i] += random.nextGaussian() * config.mutationStrength();
-                // Clamping to original gene boundaries can be added here if needed
+        Individual best = population.get(random.nextInt(population.size()));
+        for (int i = 1; i < config.tournamentSize(); i++) {
+            Individual candidate = population.get(random.nextInt(population.size()));
+            if (candidate.fitness() > best.fitness()) {
+                best = candidate;
             }
         }
+        return best;
     }
 }
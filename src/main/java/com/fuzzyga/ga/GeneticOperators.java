@@ -0,0 +1,87 @@
+package com.fuzzyga.ga;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Selection, crossover and mutation operators working directly on gene arrays and fitness values.
+ * <p>
+ * The operators write into caller-supplied buffers and never allocate, so a generation can be bred
+ * into preallocated storage.
+ */
+final class GeneticOperators {
+
+    // The BLX-alpha blend factor: children are drawn from the parents' interval widened by alpha on each side.
+    static final double BLEND_ALPHA = 0.5;
+
+    private GeneticOperators() {
+    }
+
+    /**
+     * Tournament selection over the first {@code count} fitness values.
+     *
+     * @return The index of the fittest of {@code tournamentSize} randomly drawn rows.
+     */
+    static int tournament(double[] fitness, int count, int tournamentSize, RandomGenerator random) {
+        int best = random.nextInt(count);
+        for (int i = 1; i < tournamentSize; i++) {
+            int candidate = random.nextInt(count);
+            if (fitness[candidate] > fitness[best]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Blend crossover (BLX-alpha) of two parents into a child buffer.
+     */
+    static void blendCrossover(double[] parent1, double[] parent2, double[] child, RandomGenerator random) {
+        for (int i = 0; i < child.length; i++) {
+            double d = Math.abs(parent1[i] - parent2[i]);
+            double min = Math.min(parent1[i], parent2[i]) - BLEND_ALPHA * d;
+            double max = Math.max(parent1[i], parent2[i]) + BLEND_ALPHA * d;
+            child[i] = min + random.nextDouble() * (max - min);
+        }
+    }
+
+    /**
+     * Gaussian mutation, in place: each gene is perturbed with probability {@code rate}.
+     *
+     * @return Whether any gene was perturbed.
+     */
+    static boolean gaussianMutation(double[] genes, double rate, double strength, RandomGenerator random) {
+        boolean mutated = false;
+        for (int i = 0; i < genes.length; i++) {
+            if (random.nextDouble() < rate) {
+                genes[i] += random.nextGaussian() * strength;
+                mutated = true;
+            }
+        }
+        return mutated;
+    }
+
+    /**
+     * Finds the indices of the {@code k} highest fitness values among the first {@code count}, best first.
+     * Ties keep the lower index first, matching a stable sort by descending fitness.
+     *
+     * @param order Receives the indices; must hold at least {@code k} elements.
+     */
+    static void topIndices(double[] fitness, int count, int k, int[] order) {
+        if (k <= 0) {
+            return;
+        }
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (size == k && fitness[i] <= fitness[order[k - 1]]) {
+                continue;
+            }
+            int position = Math.min(size, k - 1);
+            while (position > 0 && fitness[order[position - 1]] < fitness[i]) {
+                order[position] = order[position - 1];
+                position--;
+            }
+            order[position] = i;
+            size = Math.min(size + 1, k);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.fuzzyga.ga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Runs an island model whose islands are {@link IslandWorker}s in other processes or on other machines, connected
+ * over TCP with the {@link IslandProtocol}.
+ * <p>
+ * The coordinator waits for {@link GaConfig#islandCount()} workers, starts each with its own seed, and then drives
+ * them in epochs of {@link GaConfig#migrationInterval()} generations: it collects every worker's report, routes
+ * the emigrants along the {@link GaConfig#migrationTopology()} and sends the next run. It never evaluates
+ * individuals itself, so it needs no dataset.
+ * <p>
+ * A worker that disconnects, breaks the protocol or does not report within the worker timeout is dropped: the best
+ * individual it reported so far is kept, and the topology is rebuilt over the remaining workers. The run only
+ * fails if every worker is lost.
+ */
+public class IslandCoordinator implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandCoordinator.class);
+
+    public static final Duration DEFAULT_WORKER_TIMEOUT = Duration.ofMinutes(10);
+
+    private final GaConfig config;
+    private final ServerSocket serverSocket;
+    private Duration workerTimeout = DEFAULT_WORKER_TIMEOUT;
+
+    // The best individual reported by the workers lost so far in the current run.
+    private Individual lostBest;
+
+    /**
+     * Creates a coordinator listening on the given port.
+     *
+     * @param port The port to listen on, or 0 for any free port (see {@link #getPort()}).
+     * @throws IOException If the port cannot be opened.
+     */
+    public IslandCoordinator(GaConfig config, int port) throws IOException {
+        this.config = config;
+        this.serverSocket = new ServerSocket(port);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Sets how long to wait for a worker to connect or to report before giving up on it.
+     *
+     * @param workerTimeout A positive duration.
+     * @throws IllegalArgumentException If the timeout is not positive.
+     */
+    public void setWorkerTimeout(Duration workerTimeout) {
+        if (workerTimeout.isNegative() || workerTimeout.isZero()) {
+            throw new IllegalArgumentException("Worker timeout must be positive: " + workerTimeout);
+        }
+        this.workerTimeout = workerTimeout;
+    }
+
+    /**
+     * A connected worker and what it last reported.
+     */
+    private static final class Worker {
+        private final int island;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private Individual best;
+        private List<Individual> emigrants = List.of();
+
+        private Worker(int island, Socket socket) throws IOException {
+            this.island = island;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+    }
+
+    /**
+     * Waits for the workers and coordinates them until {@link GaConfig#maxGenerations()} generations have run or a
+     * worker reaches the fitness threshold.
+     *
+     * @param seeds Draws the seed of each island's {@link RandomStreams} generator.
+     * @return The best individual reported by any worker.
+     * @throws IOException If not every worker connects in time, or every worker is lost.
+     */
+    public Individual run(RandomGenerator seeds) throws IOException {
+        List<Worker> workers = new ArrayList<>();
+        lostBest = null;
+        try {
+            accept(workers, seeds);
+            Individual best = null;
+            for (Worker worker : List.copyOf(workers)) {
+                receiveReport(worker, workers);
+            }
+
+            int generation = 0;
+            while (!workers.isEmpty() && generation < config.maxGenerations()) {
+                best = best(workers, best);
+                if (best.fitness() >= config.fitnessThreshold()) {
+                    logger.info("Fitness threshold reached. Terminating evolution.");
+                    break;
+                }
+                int generations = Math.min(config.migrationInterval(), config.maxGenerations() - generation);
+                List<Worker> live = List.copyOf(workers);
+                for (int i = 0; i < live.size(); i++) {
+                    List<Individual> immigrants = new ArrayList<>();
+                    if (generation > 0) {
+                        for (int source : config.migrationTopology().sources(i, live.size())) {
+                            // A worker dropped by an earlier send in this loop no longer contributes emigrants
+                            Worker from = live.get(source);
+                            if (workers.contains(from)) {
+                                immigrants.addAll(from.emigrants);
+                            }
+                        }
+                    }
+                    sendRun(live.get(i), generations, immigrants, workers);
+                }
+                for (Worker worker : live) {
+                    if (workers.contains(worker)) {
+                        receiveReport(worker, workers);
+                    }
+                }
+                generation += generations;
+                best = best(workers, best);
+                logger.info("Generation {}: Best Fitness = {} ({} workers)", generation, best.fitness(), workers.size());
+            }
+
+            for (Worker worker : workers) {
+                try {
+                    worker.out.writeByte(IslandProtocol.STOP);
+                    worker.out.flush();
+                } catch (IOException e) {
+                    logger.warn("Could not stop island {}: {}", worker.island, e.getMessage());
+                }
+            }
+            if (workers.isEmpty()) {
+                throw new IOException("All island workers were lost");
+            }
+            return best(workers, best);
+        } finally {
+            for (Worker worker : workers) {
+                worker.socket.close();
+            }
+        }
+    }
+
+    /**
+     * Accepts the configured number of workers, checks their handshakes and starts them.
+     */
+    private void accept(List<Worker> workers, RandomGenerator seeds) throws IOException {
+        serverSocket.setSoTimeout(timeoutMillis());
+        while (workers.size() < config.islandCount()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketTimeoutException e) {
+                throw new IOException("Only " + workers.size() + " of " + config.islandCount()
+                    + " island workers connected within " + workerTimeout, e);
+            }
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis());
+            Worker worker = new Worker(workers.size(), socket);
+            try {
+                IslandProtocol.readHandshake(worker.in);
+                worker.out.writeByte(IslandProtocol.START);
+                worker.out.writeInt(worker.island);
+                worker.out.writeInt(config.islandCount());
+                worker.out.writeLong(seeds.nextLong());
+                IslandProtocol.writeConfig(worker.out, config);
+                worker.out.flush();
+            } catch (IOException e) {
+                logger.warn("Rejected connection from {}: {}", socket.getRemoteSocketAddress(), e.getMessage());
+                socket.close();
+                continue;
+            }
+            workers.add(worker);
+            logger.info("Island {} connected from {}.", worker.island, socket.getRemoteSocketAddress());
+        }
+    }
+
+    private void sendRun(Worker worker, int generations, List<Individual> immigrants, List<Worker> workers) {
+        try {
+            worker.out.writeByte(IslandProtocol.RUN);
+            worker.out.writeInt(generations);
+            IslandProtocol.writeIndividuals(worker.out, immigrants);
+            worker.out.flush();
+        } catch (IOException e) {
+            drop(worker, workers, e);
+        }
+    }
+
+    private void receiveReport(Worker worker, List<Worker> workers) {
+        try {
+            IslandProtocol.expect(worker.in, IslandProtocol.REPORT);
+            worker.in.readInt();
+            Individual best = IslandProtocol.readIndividual(worker.in);
+            worker.emigrants = IslandProtocol.readIndividuals(worker.in);
+            if (worker.best == null || best.fitness() > worker.best.fitness()) {
+                worker.best = best;
+            }
+        } catch (IOException e) {
+            drop(worker, workers, e);
+        }
+    }
+
+    /**
+     * Removes a lost worker, keeping its best individual as a candidate result.
+     */
+    private void drop(Worker worker, List<Worker> workers, IOException cause) {
+        if (!workers.remove(worker)) {
+            return;
+        }
+        logger.warn("Lost island {} ({} workers left): {}", worker.island, workers.size(), cause.getMessage());
+        if (worker.best != null) {
+            lostBest = (lostBest == null || worker.best.fitness() > lostBest.fitness()) ? worker.best : lostBest;
+        }
+        try {
+            worker.socket.close();
+        } catch (IOException e) {
+            logger.debug("Error closing the connection to island {}", worker.island, e);
+        }
+    }
+
+    private Individual best(List<Worker> workers, Individual best) {
+        if (lostBest != null && (best == null || lostBest.fitness() > best.fitness())) {
+            best = lostBest;
+        }
+        for (Worker worker : workers) {
+            if (worker.best != null && (best == null || worker.best.fitness() > best.fitness())) {
+                best = worker.best;
+            }
+        }
+        return best;
+    }
+
+    private int timeoutMillis() {
+        return (int) Math.min(Integer.MAX_VALUE, workerTimeout.toMillis());
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
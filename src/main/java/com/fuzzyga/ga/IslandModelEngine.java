@@ -0,0 +1,223 @@
+package com.fuzzyga.ga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Runs an island-model genetic algorithm: {@link GaConfig#islandCount()} subpopulations evolve independently, each
+ * with its own random stream and its own {@link GeneticAlgorithmEngine}, and every
+ * {@link GaConfig#migrationInterval()} generations the best {@link GaConfig#migrationCount()} individuals of each
+ * island replace the worst individuals of its neighbours in the {@link GaConfig#migrationTopology()}.
+ * <p>
+ * Between migrations the islands share nothing but the fitness evaluator, so they run concurrently and the whole
+ * algorithm, not just fitness evaluation, scales with the number of islands. Migration is synchronous: all islands
+ * finish an epoch of {@code migrationInterval} generations, migrants are exchanged, and the next epoch starts.
+ * The result therefore depends only on the seed, not on thread scheduling, as long as the evaluator draws its own
+ * random choices, such as mini-batch samples, from the stream each island passes it.
+ * <p>
+ * The fitness evaluator is called from several threads at once and must be thread-safe.
+ */
+public class IslandModelEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandModelEngine.class);
+
+    private final GaConfig config;
+    private final FitnessEvaluator fitnessEvaluator;
+    private final SplittableGenerator streams;
+
+    public IslandModelEngine(GaConfig config, FitnessEvaluator fitnessEvaluator) {
+        this(config, fitnessEvaluator, RandomStreams.create());
+    }
+
+    /**
+     * Creates an island model whose islands split their random streams off the given generator.
+     *
+     * @param streams The root generator; a seeded one makes the run reproducible whatever the thread count.
+     */
+    public IslandModelEngine(GaConfig config, FitnessEvaluator fitnessEvaluator, SplittableGenerator streams) {
+        this.config = config;
+        this.fitnessEvaluator = fitnessEvaluator;
+        this.streams = streams;
+    }
+
+    /**
+     * One subpopulation and the engine that evolves it. Between migrations the population is kept evaluated and
+     * sorted by fitness, highest first.
+     */
+    private static final class Island {
+        private final int index;
+        private final GeneticAlgorithmEngine engine;
+        private List<Individual> population;
+        private Individual best;
+
+        private Island(int index, GeneticAlgorithmEngine engine, List<Individual> population) {
+            this.index = index;
+            this.engine = engine;
+            this.population = population;
+        }
+
+        /**
+         * Records the best individual of the (sorted) population if it beats the best so far.
+         */
+        private void track() {
+            Individual candidate = population.get(0);
+            if (best == null || candidate.fitness() > best.fitness()) {
+                best = candidate;
+            }
+        }
+
+        /**
+         * Evolves the island for a number of generations, evaluating serially on the calling thread.
+         */
+        private void evolve(int generations) {
+            for (int g = 0; g < generations; g++) {
+                population = engine.evaluate(engine.breed(population), null);
+                track();
+            }
+        }
+    }
+
+    /**
+     * Evolves the islands for {@link GaConfig#maxGenerations()} generations, or until any island reaches the
+     * fitness threshold.
+     *
+     * @param initialPopulation An initial population, dealt out to the islands in turn. Can be null, in which case
+     *                          each island starts from {@link GaConfig#populationSize()} random individuals.
+     * @param executorService   Optional ExecutorService running the islands concurrently, ideally with one thread
+     *                          per island. If null, the islands take turns on the calling thread.
+     * @return The best individual found on any island.
+     */
+    public Individual evolve(List<Individual> initialPopulation, ExecutorService executorService) {
+        int islandCount = config.islandCount();
+        List<Island> islands = new ArrayList<>(islandCount);
+        for (int i = 0; i < islandCount; i++) {
+            GeneticAlgorithmEngine engine = new GeneticAlgorithmEngine(config, fitnessEvaluator, streams.split());
+            List<Individual> population = new ArrayList<>();
+            if (initialPopulation == null) {
+                population.addAll(engine.initializePopulation());
+            } else {
+                for (int j = i; j < initialPopulation.size(); j += islandCount) {
+                    population.add(initialPopulation.get(j));
+                }
+            }
+            if (population.isEmpty()) {
+                throw new IllegalArgumentException("The initial population must hold at least one individual per island");
+            }
+            islands.add(new Island(i, engine, population));
+        }
+
+        // Initial evaluation, split over the islands like the generations that follow
+        runEpoch(islands, 0, executorService);
+
+        int generation = 0;
+        while (generation < config.maxGenerations() && !thresholdReached(islands)) {
+            int generations = Math.min(config.migrationInterval(), config.maxGenerations() - generation);
+            runEpoch(islands, generations, executorService);
+            generation += generations;
+            logger.info("Generation {}: Best Fitness = {}", generation, best(islands).fitness());
+            if (generation < config.maxGenerations()) {
+                migrate(islands);
+            }
+        }
+        if (thresholdReached(islands)) {
+            logger.info("Fitness threshold reached. Terminating evolution.");
+        }
+
+        Individual bestEver = null;
+        for (Island island : islands) {
+            Individual candidate = fitnessEvaluator.rescore(island.best);
+            if (bestEver == null || candidate.fitness() > bestEver.fitness()) {
+                bestEver = candidate;
+            }
+        }
+        return bestEver;
+    }
+
+    /**
+     * Runs all islands for a number of generations; with zero generations the islands are only evaluated.
+     */
+    private void runEpoch(List<Island> islands, int generations, ExecutorService executorService) {
+        if (executorService == null) {
+            for (Island island : islands) {
+                runIsland(island, generations);
+            }
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(islands.size());
+        for (Island island : islands) {
+            futures.add(executorService.submit(() -> runIsland(island, generations)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                throw new RuntimeException("Error while evolving an island", e);
+            }
+        }
+    }
+
+    private void runIsland(Island island, int generations) {
+        if (generations == 0) {
+            island.population = island.engine.evaluate(island.population, null);
+            island.track();
+        } else {
+            island.evolve(generations);
+        }
+    }
+
+    /**
+     * Sends copies of each island's best individuals to its neighbours, where they replace the worst individuals.
+     * All emigrants are chosen before any island is modified, so the order of the islands does not matter.
+     */
+    private void migrate(List<Island> islands) {
+        List<List<Individual>> emigrants = new ArrayList<>(islands.size());
+        for (Island island : islands) {
+            emigrants.add(List.copyOf(island.population.subList(0, Math.min(config.migrationCount(), island.population.size()))));
+        }
+        for (Island island : islands) {
+            List<Individual> immigrants = new ArrayList<>();
+            for (int source : config.migrationTopology().sources(island.index, islands.size())) {
+                immigrants.addAll(emigrants.get(source));
+            }
+            island.population = acceptMigrants(island.population, immigrants, config.elitismCount());
+        }
+    }
+
+    /**
+     * Replaces the worst individuals of a sorted population with immigrants, never displacing its elites.
+     *
+     * @return The new population, sorted by fitness, highest first.
+     */
+    static List<Individual> acceptMigrants(List<Individual> population, List<Individual> immigrants, int elitismCount) {
+        int replaceable = population.size() - Math.min(elitismCount, population.size());
+        int count = Math.min(immigrants.size(), replaceable);
+        if (count == 0) {
+            return population;
+        }
+        List<Individual> merged = new ArrayList<>(population.subList(0, population.size() - count));
+        merged.addAll(immigrants.subList(0, count));
+        Collections.sort(merged);
+        return merged;
+    }
+
+    private boolean thresholdReached(List<Island> islands) {
+        return best(islands).fitness() >= config.fitnessThreshold();
+    }
+
+    private static Individual best(List<Island> islands) {
+        Individual best = null;
+        for (Island island : islands) {
+            if (best == null || island.best.fitness() > best.fitness()) {
+                best = island.best;
+            }
+        }
+        return best;
+    }
+}
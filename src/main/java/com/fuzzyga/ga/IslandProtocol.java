@@ -0,0 +1,158 @@
+package com.fuzzyga.ga;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The binary messages exchanged between an {@link IslandCoordinator} and its {@link IslandWorker}s.
+ * <p>
+ * All values are big-endian, as written by {@link DataOutput}. A worker opens the connection with a handshake:
+ * <pre>
+ *   magic    4 bytes  "FGIS"
+ *   version  int32    {@value #VERSION}
+ * </pre>
+ * Every later message starts with a one-byte type:
+ * <pre>
+ *   START   coordinator to worker  island int32, islandCount int32, seed int64, config
+ *   RUN     coordinator to worker  generations int32, migrants individuals
+ *   STOP    coordinator to worker  (no body)
+ *   REPORT  worker to coordinator  generations int32, best individual, emigrants individuals
+ * </pre>
+ * An individual is its gene count (int32), the genes (float64 each) and its fitness (float64); a list of
+ * individuals is preceded by its size (int32). The config is the fields of {@link GaConfig} in declaration order,
+ * the topology as its ordinal (int32).
+ */
+final class IslandProtocol {
+
+    static final byte[] MAGIC = {'F', 'G', 'I', 'S'};
+    static final int VERSION = 1;
+
+    static final byte START = 1;
+    static final byte RUN = 2;
+    static final byte STOP = 3;
+    static final byte REPORT = 4;
+
+    // Upper bounds that reject corrupt lengths before they turn into huge allocations.
+    private static final int MAX_GENES = 1 << 24;
+    private static final int MAX_INDIVIDUALS = 1 << 20;
+
+    private IslandProtocol() {
+    }
+
+    static void writeHandshake(DataOutput out) throws IOException {
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    /**
+     * Reads and checks the handshake.
+     *
+     * @throws IOException If the peer does not speak this protocol version.
+     */
+    static void readHandshake(DataInput in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an island worker: bad handshake");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported island protocol version: " + version);
+        }
+    }
+
+    /**
+     * Reads a message type and checks that it is the expected one.
+     */
+    static void expect(DataInput in, byte type) throws IOException {
+        byte actual = in.readByte();
+        if (actual != type) {
+            throw new IOException("Expected message " + type + " but received " + actual);
+        }
+    }
+
+    static void writeConfig(DataOutput out, GaConfig config) throws IOException {
+        out.writeInt(config.populationSize());
+        out.writeInt(config.maxGenerations());
+        out.writeInt(config.elitismCount());
+        out.writeDouble(config.crossoverRate());
+        out.writeDouble(config.mutationRate());
+        out.writeDouble(config.mutationStrength());
+        out.writeInt(config.tournamentSize());
+        out.writeDouble(config.fitnessThreshold());
+        out.writeInt(config.islandCount());
+        out.writeInt(config.migrationInterval());
+        out.writeInt(config.migrationCount());
+        out.writeInt(config.migrationTopology().ordinal());
+    }
+
+    static GaConfig readConfig(DataInput in) throws IOException {
+        int populationSize = in.readInt();
+        int maxGenerations = in.readInt();
+        int elitismCount = in.readInt();
+        double crossoverRate = in.readDouble();
+        double mutationRate = in.readDouble();
+        double mutationStrength = in.readDouble();
+        int tournamentSize = in.readInt();
+        double fitnessThreshold = in.readDouble();
+        int islandCount = in.readInt();
+        int migrationInterval = in.readInt();
+        int migrationCount = in.readInt();
+        int topology = in.readInt();
+        MigrationTopology[] topologies = MigrationTopology.values();
+        if (topology < 0 || topology >= topologies.length) {
+            throw new IOException("Unknown migration topology: " + topology);
+        }
+        try {
+            return new GaConfig(populationSize, maxGenerations, elitismCount, crossoverRate, mutationRate,
+                mutationStrength, tournamentSize, fitnessThreshold, islandCount, migrationInterval, migrationCount,
+                topologies[topology]);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid configuration received", e);
+        }
+    }
+
+    static void writeIndividual(DataOutput out, Individual individual) throws IOException {
+        double[] genes = individual.chromosome().sharedGenes();
+        out.writeInt(genes.length);
+        for (double gene : genes) {
+            out.writeDouble(gene);
+        }
+        out.writeDouble(individual.fitness());
+    }
+
+    static Individual readIndividual(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_GENES) {
+            throw new IOException("Invalid gene count: " + length);
+        }
+        double[] genes = new double[length];
+        for (int i = 0; i < length; i++) {
+            genes[i] = in.readDouble();
+        }
+        return new Individual(new Chromosome(genes), in.readDouble());
+    }
+
+    static void writeIndividuals(DataOutput out, List<Individual> individuals) throws IOException {
+        out.writeInt(individuals.size());
+        for (Individual individual : individuals) {
+            writeIndividual(out, individual);
+        }
+    }
+
+    static List<Individual> readIndividuals(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > MAX_INDIVIDUALS) {
+            throw new IOException("Invalid individual count: " + count);
+        }
+        List<Individual> individuals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            individuals.add(readIndividual(in));
+        }
+        return individuals;
+    }
+}
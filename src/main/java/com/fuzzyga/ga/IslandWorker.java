@@ -0,0 +1,106 @@
+package com.fuzzyga.ga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Evolves one island of a distributed island model on behalf of an {@link IslandCoordinator}.
+ * <p>
+ * The worker connects to the coordinator, receives its configuration and seed, and then evolves its population
+ * for as many generations as the coordinator asks for at a time, reporting its best individual and emigrants after
+ * each run and accepting the immigrants sent with the next one. The worker scores individuals with its own fitness
+ * evaluator, so each process can train on the full dataset or on its own shard of it; immigrants are re-scored
+ * on arrival, since the fitness they were sent with was measured on another worker's data.
+ */
+public class IslandWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(IslandWorker.class);
+
+    private final FitnessEvaluator fitnessEvaluator;
+
+    public IslandWorker(FitnessEvaluator fitnessEvaluator) {
+        this.fitnessEvaluator = fitnessEvaluator;
+    }
+
+    /**
+     * Connects to a coordinator and evolves an island until the coordinator stops it.
+     *
+     * @param host            The coordinator's host.
+     * @param port            The coordinator's port.
+     * @param executorService Optional ExecutorService for parallel fitness evaluation. If null, evaluation is serial.
+     * @return The best individual this island found, scored by this worker's evaluator.
+     * @throws IOException If the connection fails or the coordinator breaks the protocol.
+     */
+    public Individual run(String host, int port, ExecutorService executorService) throws IOException {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            IslandProtocol.writeHandshake(out);
+            out.flush();
+
+            IslandProtocol.expect(in, IslandProtocol.START);
+            int island = in.readInt();
+            int islandCount = in.readInt();
+            long seed = in.readLong();
+            GaConfig config = IslandProtocol.readConfig(in);
+            logger.info("Evolving island {} of {}.", island, islandCount);
+
+            GeneticAlgorithmEngine engine = new GeneticAlgorithmEngine(config, fitnessEvaluator, RandomStreams.create(seed));
+            List<Individual> population = engine.evaluate(engine.initializePopulation(), executorService);
+            Individual best = report(out, 0, fitnessEvaluator.rescore(population.get(0)), population, config);
+
+            while (true) {
+                byte type = in.readByte();
+                if (type == IslandProtocol.STOP) {
+                    return best;
+                }
+                if (type != IslandProtocol.RUN) {
+                    throw new IOException("Unexpected message from coordinator: " + type);
+                }
+                int generations = in.readInt();
+                // Immigrants carry the fitness they had on their own worker's data, so they are scored here first
+                List<Individual> immigrants = new ArrayList<>();
+                for (Individual immigrant : IslandProtocol.readIndividuals(in)) {
+                    immigrants.add(new Individual(immigrant.chromosome(), -1));
+                }
+                immigrants = engine.evaluate(immigrants, executorService);
+                population = IslandModelEngine.acceptMigrants(population, immigrants, config.elitismCount());
+                for (int g = 0; g < generations; g++) {
+                    population = engine.evaluate(engine.breed(population), executorService);
+                }
+                Individual candidate = population.get(0);
+                if (candidate.fitness() > best.fitness()) {
+                    // Reported fitness values must be exact even if the evaluator estimates them
+                    candidate = fitnessEvaluator.rescore(candidate);
+                }
+                best = report(out, generations, candidate.fitness() > best.fitness() ? candidate : best, population, config);
+            }
+        }
+    }
+
+    /**
+     * Sends a report of the island's state to the coordinator.
+     *
+     * @return The reported best individual.
+     */
+    private static Individual report(DataOutputStream out, int generations, Individual best, List<Individual> population,
+                                     GaConfig config) throws IOException {
+        out.writeByte(IslandProtocol.REPORT);
+        out.writeInt(generations);
+        IslandProtocol.writeIndividual(out, best);
+        IslandProtocol.writeIndividuals(out, population.subList(0, Math.min(config.migrationCount(), population.size())));
+        out.flush();
+        return best;
+    }
+}
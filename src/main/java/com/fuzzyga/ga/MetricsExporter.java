@@ -0,0 +1,103 @@
+package com.fuzzyga.ga;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * A {@link GenerationListener} that writes every generation's metrics as one line of CSV or JSON.
+ * Each line is flushed as soon as it is written, so the file is complete up to the last generation even if the
+ * run is killed.
+ */
+public class MetricsExporter implements GenerationListener, Closeable {
+
+    /**
+     * The output format.
+     */
+    public enum Format {
+        /** Comma-separated values, with a header line. */
+        CSV,
+        /** One JSON object per line. */
+        JSON_LINES
+    }
+
+    private static final List<String> COLUMNS = List.of(
+        "generation", "evaluationNanos", "breedingNanos", "evaluations", "evaluationsPerSecond", "cacheHits",
+        "allocatedBytes", "allocationRate", "bestFitness", "meanFitness", "medianFitness", "fitnessStdDev", "diversity");
+
+    private final Writer writer;
+    private final Format format;
+
+    /**
+     * Creates an exporter writing to the given writer, which it closes when it is closed.
+     */
+    public MetricsExporter(Writer writer, Format format) throws IOException {
+        this.writer = writer;
+        this.format = format;
+        if (format == Format.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    /**
+     * Creates an exporter writing to a new file (or replacing an existing one).
+     *
+     * @param file   The file to write.
+     * @param format The output format.
+     * @return The exporter.
+     * @throws IOException If the file cannot be created.
+     */
+    public static MetricsExporter open(Path file, Format format) throws IOException {
+        return new MetricsExporter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), format);
+    }
+
+    @Override
+    public void onGeneration(GenerationMetrics metrics) {
+        List<Object> values = List.of(
+            metrics.generation(), metrics.evaluationNanos(), metrics.breedingNanos(), metrics.evaluations(),
+            metrics.evaluationsPerSecond(), metrics.cacheHits(), metrics.allocatedBytes(), metrics.allocationRate(),
+            metrics.bestFitness(), metrics.meanFitness(), metrics.medianFitness(), metrics.fitnessStdDev(),
+            metrics.diversity());
+        StringBuilder line = new StringBuilder(format == Format.CSV ? "" : "{");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (format == Format.JSON_LINES) {
+                line.append('"').append(COLUMNS.get(i)).append("\":");
+            }
+            line.append(format(values.get(i)));
+        }
+        if (format == Format.JSON_LINES) {
+            line.append('}');
+        }
+        line.append('\n');
+        try {
+            writer.write(line.toString());
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write generation metrics", e);
+        }
+    }
+
+    /**
+     * Formats a value; non-finite numbers become empty CSV fields or JSON nulls.
+     */
+    private String format(Object value) {
+        if (value instanceof Double number && !Double.isFinite(number)) {
+            return format == Format.CSV ? "" : "null";
+        }
+        return String.valueOf(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
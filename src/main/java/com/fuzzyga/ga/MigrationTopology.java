@@ -0,0 +1,46 @@
+package com.fuzzyga.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The connections along which islands of the {@link IslandModelEngine} exchange migrants.
+ */
+public enum MigrationTopology {
+
+    /**
+     * Each island receives migrants from the previous island only, so good individuals spread slowly and the
+     * islands stay diverse.
+     */
+    RING,
+
+    /**
+     * Each island receives migrants from every other island.
+     */
+    FULLY_CONNECTED;
+
+    /**
+     * Lists the islands that send migrants to the given island.
+     *
+     * @param island      The receiving island.
+     * @param islandCount The number of islands.
+     * @return The indices of the sending islands, never including {@code island} itself.
+     */
+    public List<Integer> sources(int island, int islandCount) {
+        List<Integer> sources = new ArrayList<>();
+        if (islandCount < 2) {
+            return sources;
+        }
+        switch (this) {
+            case RING -> sources.add((island + islandCount - 1) % islandCount);
+            case FULLY_CONNECTED -> {
+                for (int i = 0; i < islandCount; i++) {
+                    if (i != island) {
+                        sources.add(i);
+                    }
+                }
+            }
+        }
+        return sources;
+    }
+}
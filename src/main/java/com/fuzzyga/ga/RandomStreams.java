@@ -0,0 +1,47 @@
+package com.fuzzyga.ga;
+
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Creates the random generators used by the engines and evaluators.
+ * <p>
+ * All randomness comes from {@value #ALGORITHM} generators: a run is seeded with one root generator, and every
+ * island, worker or thread that draws random numbers gets its own stream split off the root. Streams are never
+ * shared between threads, so there is no contention, and a seeded generational or island-model run takes the same
+ * search trajectory however its threads are scheduled. Engines also hand their stream to the evaluator, which draws
+ * data samples such as mini-batches from it, so islands that share an evaluator do not share its generator.
+ * (A steady-state run is seeded too, but its workers race to replace individuals, so its trajectory still depends
+ * on timing.)
+ */
+public final class RandomStreams {
+
+    /**
+     * The algorithm of every generator, chosen for its fast, statistically independent splits.
+     */
+    public static final String ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY = RandomGeneratorFactory.of(ALGORITHM);
+
+    private RandomStreams() {
+    }
+
+    /**
+     * Creates a root generator with the given seed; equal seeds give equal streams.
+     *
+     * @param seed The seed.
+     * @return A new generator.
+     */
+    public static SplittableGenerator create(long seed) {
+        return FACTORY.create(seed);
+    }
+
+    /**
+     * Creates an unseeded root generator, for runs that need not be reproducible.
+     *
+     * @return A new generator seeded from system entropy.
+     */
+    public static SplittableGenerator create() {
+        return FACTORY.create();
+    }
+}
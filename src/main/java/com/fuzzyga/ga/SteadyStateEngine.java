@@ -0,0 +1,220 @@
+package com.fuzzyga.ga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An asynchronous steady-state genetic algorithm.
+ * <p>
+ * Instead of breeding and evaluating whole generations, each worker repeatedly breeds one child from the live
+ * population, evaluates it, and inserts it in place of the worst member if the child is better. Workers never wait
+ * for each other's evaluations, so a slow individual only occupies its own worker and the other cores stay busy;
+ * the population lock is held only to pick parents and to replace a member.
+ * <p>
+ * The budget is {@link GaConfig#maxGenerations()} times {@link GaConfig#populationSize()} children, the number of
+ * individuals a generational run of the same configuration would breed; children that are unchanged copies of a
+ * parent count towards it but are not evaluated. Replacing the worst member keeps the best
+ * individuals, so {@link GaConfig#elitismCount()} is not used. Because workers interleave freely, runs with more
+ * than one worker are not reproducible.
+ * <p>
+ * Children are scored with {@link FitnessEvaluator#evaluate(Individual)}, which must be thread-safe.
+ */
+public class SteadyStateEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(SteadyStateEngine.class);
+
+    private final GaConfig config;
+    private final FitnessEvaluator fitnessEvaluator;
+    private final SplittableGenerator streams;
+
+    // Children bred, which is what the budget limits, and children actually evaluated.
+    private final AtomicLong children = new AtomicLong();
+    private final AtomicLong evaluations = new AtomicLong();
+
+    // The live population, guarded by its own monitor.
+    private final Object lock = new Object();
+    private Individual[] population;
+    private Individual best;
+    private volatile boolean stopped;
+
+    public SteadyStateEngine(GaConfig config, FitnessEvaluator fitnessEvaluator) {
+        this(config, fitnessEvaluator, RandomStreams.create());
+    }
+
+    /**
+     * Creates an engine whose workers split their random streams off the given generator.
+     *
+     * @param streams The root generator, which also draws the initial population.
+     */
+    public SteadyStateEngine(GaConfig config, FitnessEvaluator fitnessEvaluator, SplittableGenerator streams) {
+        this.config = config;
+        this.fitnessEvaluator = fitnessEvaluator;
+        this.streams = streams;
+    }
+
+    /**
+     * Evolves a population until the budget of children is spent or the fitness threshold is reached.
+     *
+     * @param initialPopulation An initial population. Can be null, in which case a random population is generated.
+     * @param executorService   Optional ExecutorService running the workers; it should have at least {@code workers}
+     *                          threads. If null, a single worker runs on the calling thread.
+     * @param workers           The number of concurrent workers, typically the number of cores.
+     * @return The best individual found.
+     * @throws IllegalArgumentException If {@code workers} is not positive or the initial population is empty.
+     */
+    public Individual evolve(List<Individual> initialPopulation, ExecutorService executorService, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        if (initialPopulation != null && initialPopulation.isEmpty()) {
+            throw new IllegalArgumentException("Initial population must not be empty");
+        }
+        List<Individual> initial = (initialPopulation == null)
+            ? IntStream.range(0, config.populationSize())
+                .mapToObj(i -> new Individual(fitnessEvaluator.createRandomChromosome(streams), -1))
+                .collect(Collectors.toList())
+            : initialPopulation;
+        List<Individual> evaluated = fitnessEvaluator.evaluatePopulation(initial, executorService, streams);
+
+        synchronized (lock) {
+            population = evaluated.toArray(new Individual[0]);
+            best = null;
+            for (Individual individual : population) {
+                if (best == null || individual.fitness() > best.fitness()) {
+                    best = individual;
+                }
+            }
+        }
+        children.set(0);
+        evaluations.set(0);
+        stopped = best.fitness() >= config.fitnessThreshold();
+        long budget = (long) config.maxGenerations() * config.populationSize();
+
+        if (executorService == null) {
+            work(streams.split(), budget);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                RandomGenerator random = streams.split();
+                futures.add(executorService.submit(() -> work(random, budget)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    stopped = true;
+                    throw new RuntimeException("Error during steady-state evolution", e);
+                }
+            }
+        }
+
+        Individual result;
+        synchronized (lock) {
+            result = best;
+        }
+        return fitnessEvaluator.rescore(result);
+    }
+
+    /**
+     * Gets the number of children evaluated so far by the current or last run, excluding the initial population.
+     *
+     * @return The evaluation count.
+     */
+    public long getEvaluationCount() {
+        return evaluations.get();
+    }
+
+    /**
+     * One worker: breeds, evaluates and inserts children until the budget is spent.
+     */
+    private void work(RandomGenerator random, long budget) {
+        try {
+            long bred;
+            while (!stopped && (bred = children.getAndIncrement()) < budget) {
+                // Logged from the budget counter, so a line is not lost when that child turns out an unchanged copy
+                if (bred > 0 && bred % config.populationSize() == 0) {
+                    logger.info("Children {}: Best Fitness = {}", bred, currentBest().fitness());
+                }
+                Individual parent1;
+                Individual parent2;
+                synchronized (lock) {
+                    parent1 = select(random);
+                    parent2 = select(random);
+                }
+
+                double[] childGenes = new double[parent1.chromosome().length()];
+                boolean crossed = random.nextDouble() < config.crossoverRate();
+                if (crossed) {
+                    GeneticOperators.blendCrossover(parent1.chromosome().sharedGenes(), parent2.chromosome().sharedGenes(),
+                        childGenes, random);
+                } else {
+                    parent1.chromosome().copyInto(childGenes);
+                }
+                boolean mutated = GeneticOperators.gaussianMutation(childGenes, config.mutationRate(), config.mutationStrength(), random);
+                if (!crossed && !mutated) {
+                    // An unchanged copy adds nothing to the population
+                    continue;
+                }
+
+                Individual child = fitnessEvaluator.evaluate(new Individual(new Chromosome(childGenes), -1));
+                evaluations.incrementAndGet();
+                insert(child);
+            }
+        } catch (RuntimeException e) {
+            stopped = true;
+            throw e;
+        }
+    }
+
+    private Individual select(RandomGenerator random) {
+        Individual best = population[random.nextInt(population.length)];
+        for (int i = 1; i < config.tournamentSize(); i++) {
+            Individual candidate = population[random.nextInt(population.length)];
+            if (candidate.fitness() > best.fitness()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Replaces the worst member of the population with the child if the child is better.
+     */
+    private void insert(Individual child) {
+        synchronized (lock) {
+            int worst = 0;
+            for (int i = 1; i < population.length; i++) {
+                if (population[i].fitness() < population[worst].fitness()) {
+                    worst = i;
+                }
+            }
+            if (child.fitness() <= population[worst].fitness()) {
+                return;
+            }
+            population[worst] = child;
+            if (child.fitness() > best.fitness()) {
+                best = child;
+                if (child.fitness() >= config.fitnessThreshold()) {
+                    logger.info("Fitness threshold reached. Terminating evolution.");
+                    stopped = true;
+                }
+            }
+        }
+    }
+
+    private Individual currentBest() {
+        synchronized (lock) {
+            return best;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.fuzzyga.serving;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, from which percentiles are read while it is being updated.
+ * <p>
+ * Values are counted in log-linear buckets: exact below {@value #LINEAR_LIMIT} nanoseconds, then
+ * {@value #SUB_BUCKETS} buckets per power of two, so every recorded value is reported within about 3% of its true
+ * value. The buckets cover the whole range of {@code long}, in a fixed array of counters, so recording costs one
+ * atomic increment and the histogram never grows.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+
+    // Values in [2^e, 2^(e+1)) for e > SUB_BITS take SUB_BUCKETS buckets each, after the linear ones.
+    private static final int BUCKETS = LINEAR_LIMIT + (62 - SUB_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values are counted as 0.
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucket(Math.max(0, nanos)));
+    }
+
+    /**
+     * Gets the number of recorded latencies.
+     *
+     * @return The count.
+     */
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Gets a percentile of the recorded latencies. Counts recorded concurrently may or may not be included.
+     *
+     * @param quantile The quantile, between 0 and 1, e.g. 0.99 for the 99th percentile.
+     * @return The latency in nanoseconds at or below which that fraction of the recorded latencies fall, rounded up
+     *         to the top of its bucket, or 0 if nothing was recorded.
+     * @throws IllegalArgumentException If the quantile is not between 0 and 1.
+     */
+    public long percentile(double quantile) {
+        if (!(quantile >= 0.0 && quantile <= 1.0)) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return highestValue(i);
+            }
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    /**
+     * Clears all counts. Latencies recorded concurrently may be lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return LINEAR_LIMIT + (exponent - SUB_BITS - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int k = bucket - LINEAR_LIMIT;
+        int shift = k / SUB_BUCKETS + 1;
+        long sub = SUB_BUCKETS + k % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
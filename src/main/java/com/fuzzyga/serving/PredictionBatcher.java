@@ -0,0 +1,227 @@
+package com.fuzzyga.serving;
+
+import com.fuzzyga.fuzzy.GridTskSystem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces prediction requests from many threads into blocks for {@link GridTskSystem#calculateBatch}.
+ * <p>
+ * Requests are queued, and each worker thread takes the oldest request, then everything else already queued up to
+ * its block capacity, and scores all of it in columnar blocks. No worker ever waits for a block to fill: an idle
+ * server scores a lone request at once, while under load many small requests share one SIMD pass over the rule
+ * grid. Requests larger than a block are split across several.
+ * <p>
+ * Each worker owns its block and batch workspace, and the system is only read, so workers never synchronize
+ * except on the queue.
+ */
+public final class PredictionBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionBatcher.class);
+
+    private final GridTskSystem system;
+    private final int numInputs;
+    private final int blockSize;
+    private final BlockingQueue<Request> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean closed;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder blocks = new LongAdder();
+
+    /**
+     * A queued request: {@code rows} rows of inputs, row after row, whose outputs go to {@code result}.
+     */
+    private record Request(double[] inputs, int rows, CompletableFuture<double[]> result) {
+    }
+
+    /**
+     * Creates a batcher and starts its workers.
+     *
+     * @param system        The system to score with.
+     * @param workers       The number of worker threads, typically the number of cores.
+     * @param blockSize     The maximum number of rows scored in one call to the batch path.
+     * @param queueCapacity The maximum number of queued requests; further requests are rejected.
+     * @throws IllegalArgumentException If any of the sizes is not positive.
+     */
+    public PredictionBatcher(GridTskSystem system, int workers, int blockSize, int queueCapacity) {
+        if (workers < 1 || blockSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Workers, block size and queue capacity must be positive: "
+                + workers + ", " + blockSize + ", " + queueCapacity);
+        }
+        this.system = system;
+        this.numInputs = system.variables().size();
+        this.blockSize = blockSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int w = 0; w < workers; w++) {
+            Thread worker = new Thread(this::work, "fuzzyga-scoring-" + w);
+            worker.setDaemon(true);
+            this.workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queues rows for scoring.
+     *
+     * @param inputs The input values, row after row, each row ordered like {@link GridTskSystem#variables()}.
+     *               The array must not be modified until the result completes.
+     * @param count  The number of rows.
+     * @return The output of each row, or a future failed with a {@link RejectedExecutionException} if the queue is
+     *         full or the batcher is closed.
+     * @throws IllegalArgumentException If {@code inputs} does not hold {@code count} rows.
+     */
+    public CompletableFuture<double[]> submit(double[] inputs, int count) {
+        if (inputs.length != count * numInputs) {
+            throw new IllegalArgumentException("Expected " + count * numInputs + " input values but got " + inputs.length);
+        }
+        CompletableFuture<double[]> result = new CompletableFuture<>();
+        if (count == 0) {
+            result.complete(new double[0]);
+        } else if (closed || !queue.offer(new Request(inputs, count, result))) {
+            result.completeExceptionally(new RejectedExecutionException(closed ? "Batcher is closed" : "Queue is full"));
+        } else if (closed) {
+            rejectQueued(); // Closed while queueing, after the workers stopped
+        }
+        return result;
+    }
+
+    /**
+     * Gets the system requests are scored with.
+     *
+     * @return The system.
+     */
+    public GridTskSystem system() {
+        return system;
+    }
+
+    /**
+     * Gets the number of requests scored so far.
+     *
+     * @return The request count.
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the number of rows scored so far.
+     *
+     * @return The row count.
+     */
+    public long rowCount() {
+        return rows.sum();
+    }
+
+    /**
+     * Gets the number of blocks scored so far; rows per block measures how well requests are coalesced.
+     *
+     * @return The block count.
+     */
+    public long blockCount() {
+        return blocks.sum();
+    }
+
+    /**
+     * One worker: takes queued requests and scores them in blocks until the batcher is closed.
+     */
+    private void work() {
+        double[][] block = new double[numInputs][blockSize];
+        double[] outputs = new double[blockSize];
+        GridTskSystem.BatchWorkspace workspace = system.newBatchWorkspace(blockSize);
+        // The request and row that each position of the block belongs to.
+        double[][] targets = new double[blockSize][];
+        int[] targetRows = new int[blockSize];
+        List<Request> batch = new ArrayList<>();
+
+        while (!closed) {
+            try {
+                Request first = queue.take();
+                batch.add(first);
+                int pending = first.rows();
+                for (Request next; pending < blockSize && (next = queue.poll()) != null; pending += next.rows()) {
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            List<double[]> results = new ArrayList<>(batch.size());
+            try {
+                int filled = 0;
+                for (Request request : batch) {
+                    double[] result = new double[request.rows()];
+                    results.add(result);
+                    double[] inputs = request.inputs();
+                    for (int row = 0; row < request.rows(); row++) {
+                        for (int v = 0, base = row * numInputs; v < numInputs; v++) {
+                            block[v][filled] = inputs[base + v];
+                        }
+                        targets[filled] = result;
+                        targetRows[filled++] = row;
+                        if (filled == blockSize) {
+                            score(block, filled, outputs, workspace, targets, targetRows);
+                            filled = 0;
+                        }
+                    }
+                }
+                if (filled > 0) {
+                    score(block, filled, outputs, workspace, targets, targetRows);
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    Request request = batch.get(i);
+                    requests.increment();
+                    rows.add(request.rows());
+                    request.result().complete(results.get(i));
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to score a batch of {} requests", batch.size(), e);
+                batch.forEach(request -> request.result().completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void score(double[][] block, int length, double[] outputs, GridTskSystem.BatchWorkspace workspace,
+                       double[][] targets, int[] targetRows) {
+        system.calculateBatch(block, length, outputs, workspace);
+        blocks.increment();
+        for (int i = 0; i < length; i++) {
+            targets[i][targetRows[i]] = outputs[i];
+            targets[i] = null;
+        }
+    }
+
+    /**
+     * Stops the workers. Requests still queued fail with a {@link RejectedExecutionException}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        rejectQueued();
+    }
+
+    private void rejectQueued() {
+        for (Request request; (request = queue.poll()) != null; ) {
+            request.result().completeExceptionally(new RejectedExecutionException("Batcher is closed"));
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.fuzzyga.serving;
+
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InputVariable;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * An embedded HTTP server that answers predictions of a trained {@link GridTskSystem}.
+ * <p>
+ * Every exchange runs on its own virtual thread, which parks while its rows wait in a {@link PredictionBatcher},
+ * so concurrent requests are coalesced into blocks for the batch inference path. Bodies are plain text in the
+ * layout of the dataset files, without a header or output column:
+ * <ul>
+ *   <li>{@code POST /predict}: one row of whitespace-separated inputs per line, ordered like the model's
+ *       variables. The response has one output per line, in the same order. A single row and a batch of rows are
+ *       the same request.</li>
+ *   <li>{@code GET /metrics}: request, row and block counters and the latency percentiles of {@code /predict}, one
+ *       {@code name value} pair per line.</li>
+ *   <li>{@code GET /model}: the input variables, sets per variable and rule count of the model.</li>
+ * </ul>
+ * Malformed requests get status 400, bodies larger than {@link #setMaxBodyBytes the body limit} get status 413,
+ * requests that find the batcher's queue full get status 503, and requests whose scoring fails get status 500.
+ * <p>
+ * The JDK server writes the headers and the body of a response separately, so with Nagle's algorithm on, the body
+ * often waits for a delayed ACK of the headers. Set the system property {@code sun.net.httpserver.nodelay} to
+ * {@code true} before the first server is created to turn on TCP_NODELAY, as {@code ScoringApp} does; the property
+ * is JVM-wide, so this class leaves it to the application.
+ */
+public final class ScoringServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringServer.class);
+
+    /**
+     * The default maximum number of rows scored in one block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    /**
+     * The default maximum size of a request body, in bytes.
+     */
+    public static final int DEFAULT_MAX_BODY_BYTES = 8 << 20;
+
+    private static final int BACKLOG = 1024;
+    private static final int QUEUE_CAPACITY = 1 << 16;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final PredictionBatcher batcher;
+    private final int numInputs;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder oversized = new LongAdder();
+    private volatile int maxBodyBytes = DEFAULT_MAX_BODY_BYTES;
+
+    /**
+     * Starts a server with one scoring worker per core and blocks of {@value #DEFAULT_BLOCK_SIZE} rows.
+     *
+     * @param system  The model to serve.
+     * @param address The address to listen on; port 0 picks a free port.
+     * @throws IOException If the server cannot be bound.
+     */
+    public ScoringServer(GridTskSystem system, InetSocketAddress address) throws IOException {
+        this(system, address, Runtime.getRuntime().availableProcessors(), DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Starts a server.
+     *
+     * @param system    The model to serve.
+     * @param address   The address to listen on; port 0 picks a free port.
+     * @param workers   The number of scoring threads.
+     * @param blockSize The maximum number of rows scored in one block.
+     * @throws IOException If the server cannot be bound.
+     */
+    public ScoringServer(GridTskSystem system, InetSocketAddress address, int workers, int blockSize) throws IOException {
+        this.numInputs = system.variables().size();
+        this.batcher = new PredictionBatcher(system, workers, blockSize, QUEUE_CAPACITY);
+        try {
+            this.server = HttpServer.create(address, BACKLOG);
+        } catch (IOException e) {
+            batcher.close();
+            throw e;
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/predict", this::predict);
+        server.createContext("/metrics", this::metrics);
+        server.createContext("/model", this::model);
+        server.start();
+        logger.info("Serving a model with {} rules on port {}.", system.ruleCount(), getPort());
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the largest request body accepted by {@code /predict}. Parsed inputs take about four times the size of
+     * their text, so this bounds the heap a single request can claim.
+     *
+     * @param maxBodyBytes A positive number of bytes.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    public void setMaxBodyBytes(int maxBodyBytes) {
+        if (maxBodyBytes <= 0) {
+            throw new IllegalArgumentException("Maximum body size must be positive: " + maxBodyBytes);
+        }
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Gets the latencies of the {@code /predict} requests answered so far, from the start of their handling until
+     * their response is ready to send.
+     *
+     * @return The live histogram.
+     */
+    public LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    private void predict(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "Use POST with one row of inputs per line\n");
+                return;
+            }
+            byte[] body = readBody(exchange);
+            if (body == null) {
+                oversized.increment();
+                respond(exchange, 413, "Request body exceeds " + maxBodyBytes + " bytes\n");
+                return;
+            }
+            double[] inputs;
+            try {
+                inputs = parseRows(body);
+            } catch (IllegalArgumentException e) {
+                malformed.increment();
+                respond(exchange, 400, e.getMessage() + "\n");
+                return;
+            }
+
+            double[] outputs;
+            try {
+                outputs = batcher.submit(inputs, inputs.length / Math.max(1, numInputs)).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    rejected.increment();
+                    respond(exchange, 503, "Server is overloaded\n");
+                    return;
+                }
+                failed.increment();
+                respond(exchange, 500, "Failed to score the request: " + e.getCause() + "\n");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while scoring a request", e);
+            }
+
+            StringBuilder text = new StringBuilder(outputs.length * 20);
+            for (double output : outputs) {
+                text.append(output).append('\n');
+            }
+            latencies.record(System.nanoTime() - start);
+            respond(exchange, 200, text.toString());
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            long blocks = batcher.blockCount();
+            long rows = batcher.rowCount();
+            String text = String.join("\n",
+                "requests " + batcher.requestCount(),
+                "rows " + rows,
+                "blocks " + blocks,
+                "rows_per_block " + format(blocks == 0 ? 0.0 : (double) rows / blocks),
+                "rejected " + rejected.sum(),
+                "malformed " + malformed.sum(),
+                "failed " + failed.sum(),
+                "oversized " + oversized.sum(),
+                "latency_count " + latencies.count(),
+                "latency_p50_us " + format(latencies.percentile(0.50) / 1e3),
+                "latency_p90_us " + format(latencies.percentile(0.90) / 1e3),
+                "latency_p99_us " + format(latencies.percentile(0.99) / 1e3),
+                "latency_p999_us " + format(latencies.percentile(0.999) / 1e3),
+                "latency_max_us " + format(latencies.percentile(1.0) / 1e3)) + "\n";
+            respond(exchange, 200, text);
+        }
+    }
+
+    private void model(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            GridTskSystem system = batcher.system();
+            String text = "inputs " + system.variables().stream().map(InputVariable::name).collect(Collectors.joining(" "))
+                + "\nsets " + system.setsPerVariable()
+                + "\nrules " + system.ruleCount() + "\n";
+            respond(exchange, 200, text);
+        }
+    }
+
+    /**
+     * Reads a request body of at most {@link #maxBodyBytes} bytes, refusing a larger declared length up front.
+     *
+     * @return The body, or null if it is too large.
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        int limit = maxBodyBytes;
+        String declared = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            if (declared != null && Long.parseLong(declared.trim()) > limit) {
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            // An unparsable length is left to the read below, which enforces the limit anyway
+        }
+        byte[] body = exchange.getRequestBody().readNBytes((int) Math.min(Integer.MAX_VALUE, limit + 1L));
+        return body.length > limit ? null : body;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Parses a request body into the input values of its rows, row after row. Blank lines are skipped.
+     *
+     * @throws IllegalArgumentException If a line does not hold one number per input variable.
+     */
+    double[] parseRows(byte[] body) {
+        // Grown as rows are parsed, so the buffer follows the values actually present rather than the body size
+        double[] values = new double[Math.max(numInputs, Math.min(body.length / 2 + 1, 1024))];
+        int count = 0;
+        int line = 0;
+        int i = 0;
+        while (i < body.length) {
+            line++;
+            int tokens = 0;
+            while (i < body.length && body[i] != '\n') {
+                if (isWhitespace(body[i])) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                while (i < body.length && body[i] != '\n' && !isWhitespace(body[i])) {
+                    i++;
+                }
+                String token = new String(body, start, i - start, StandardCharsets.ISO_8859_1);
+                if (tokens == numInputs) {
+                    throw new IllegalArgumentException("Line " + line + " has more than " + numInputs + " values");
+                }
+                if (count + tokens == values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                }
+                try {
+                    values[count + tokens++] = Double.parseDouble(token);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed number '" + token + "' at line " + line);
+                }
+            }
+            i++; // Skip the newline
+            if (tokens != 0 && tokens != numInputs) {
+                throw new IllegalArgumentException("Line " + line + " has " + tokens + " values, expected " + numInputs);
+            }
+            count += tokens;
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Stops accepting connections, waits briefly for exchanges in progress, and stops the scoring workers.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+        batcher.close();
+    }
+}
@@ -1,6 +1,7 @@
 package com.fuzzyga.utils;
 
 import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.MigrationTopology;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -17,6 +18,8 @@ public final class ConfigLoader {
     /**
      * Loads GA configuration from a specified resource file.
      *
+     * The island model settings are optional and default to a single population.
+     *
      * @param resourceName The name of the properties file on the classpath (e.g., "config.properties").
      * @return A {@link GaConfig} record populated with the values from the file.
      * @throws IOException If the resource file cannot be found or read.
@@ -38,7 +41,11 @@ public final class ConfigLoader {
             Double.parseDouble(props.getProperty("mutationRate")),
             Double.parseDouble(props.getProperty("mutationStrength")),
             Integer.parseInt(props.getProperty("tournamentSize")),
-            Double.parseDouble(props.getProperty("fitnessThreshold"))
+            Double.parseDouble(props.getProperty("fitnessThreshold")),
+            Integer.parseInt(props.getProperty("islandCount", String.valueOf(GaConfig.DEFAULT_ISLAND_COUNT))),
+            Integer.parseInt(props.getProperty("migrationInterval", String.valueOf(GaConfig.DEFAULT_MIGRATION_INTERVAL))),
+            Integer.parseInt(props.getProperty("migrationCount", String.valueOf(GaConfig.DEFAULT_MIGRATION_COUNT))),
+            MigrationTopology.valueOf(props.getProperty("migrationTopology", GaConfig.DEFAULT_MIGRATION_TOPOLOGY.name()).trim())
         );
     }
 }
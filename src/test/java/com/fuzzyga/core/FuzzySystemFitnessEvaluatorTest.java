@@ -1,22 +1,43 @@
 package com.fuzzyga.core;
 
+import com.fuzzyga.core.data.DataPoint;
 import com.fuzzyga.core.data.Dataset;
 import com.fuzzyga.core.models.FuzzySystemDescriptor;
+import com.fuzzyga.fuzzy.CompiledTskSystem;
 import com.fuzzyga.fuzzy.FuzzyRule;
 import com.fuzzyga.fuzzy.InputVariable;
 import com.fuzzyga.fuzzy.TskInferenceSystem;
 import com.fuzzyga.fuzzy.membership.MembershipFunction;
+import com.fuzzyga.ga.Checkpoint;
 import com.fuzzyga.ga.Chromosome;
+import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.GeneticAlgorithmEngine;
+import com.fuzzyga.ga.Individual;
+import com.fuzzyga.ga.IslandModelEngine;
+import com.fuzzyga.ga.MigrationTopology;
+import com.fuzzyga.ga.RandomStreams;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FuzzySystemFitnessEvaluatorTest {
 
@@ -94,4 +115,479 @@ class FuzzySystemFitnessEvaluatorTest {
         assertEquals(4.2, rule4.consequent().coefficients().get(y));
         assertEquals(4.3, rule4.consequent().constant());
     }
+
+    @Test
+    @DisplayName("Compiled chromosome should produce the same outputs as the decoded system")
+    void testCompileMatchesDecode() {
+        Chromosome chromosome = new Chromosome(new double[]{
+            0.2, 0.6, 0.8, 0.5, 0.3, 0.7, 0.9, 0.4,
+            1.1, 1.2, 1.3, 2.1, -2.2, 2.3, -3.1, 3.2, 3.3, 4.1, 4.2, -4.3
+        });
+        TskInferenceSystem decoded = evaluator.decode(chromosome);
+        CompiledTskSystem compiled = evaluator.compile(chromosome);
+
+        for (double xValue = -0.5; xValue <= 1.5; xValue += 0.05) {
+            for (double yValue = -0.5; yValue <= 1.5; yValue += 0.05) {
+                double expected = decoded.calculate(Map.of(x, xValue, y, yValue));
+                assertEquals(expected, compiled.calculate(new double[]{xValue, yValue}), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Scoring a gene matrix should give the same fitness as evaluating individuals")
+    void testEvaluateGenesMatchesEvaluatePopulation() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator();
+        scored.setFitnessCacheSize(0); // Make both paths compute their fitness
+
+        int count = 6;
+        double[][] genes = new double[count][20];
+        double[] fitness = new double[count];
+        List<Individual> population = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            scored.randomGenes(genes[i]);
+            fitness[i] = -1;
+            population.add(new Individual(new Chromosome(genes[i]), -1));
+        }
+        fitness[2] = 0.25; // Already evaluated rows are left alone
+
+        scored.evaluateGenes(genes, fitness, count, null);
+        List<Individual> evaluated = scored.evaluatePopulation(population, null);
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(i == 2 ? 0.25 : evaluated.get(i).fitness(), fitness[i]);
+        }
+        assertEquals(0, scored.getFitnessCacheStats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Duplicate genomes should be served from the fitness cache")
+    void testFitnessCacheSkipsDuplicates() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator();
+        Chromosome chromosome = scored.createRandomChromosome();
+        List<Individual> population = List.of(
+            new Individual(chromosome, -1),
+            new Individual(new Chromosome(chromosome.genes()), -1),
+            new Individual(scored.createRandomChromosome(), -1));
+
+        // The duplicate is scored once, together with its first occurrence
+        List<Individual> first = scored.evaluatePopulation(population, null);
+        assertEquals(0, scored.getFitnessCacheStats().hitCount());
+        assertEquals(2, scored.getFitnessCacheStats().missCount());
+        assertEquals(first.get(0).fitness(), first.get(1).fitness());
+
+        // The gene matrix path shares the cache
+        double[][] genes = {chromosome.genes()};
+        double[] fitness = {-1};
+        scored.evaluateGenes(genes, fitness, 1, null);
+        assertEquals(first.get(0).fitness(), fitness[0]);
+        assertEquals(1, scored.getFitnessCacheStats().hitCount());
+
+        scored.invalidateFitnessCache();
+        scored.evaluatePopulation(population.subList(0, 1), null);
+        assertEquals(3, scored.getFitnessCacheStats().missCount());
+    }
+
+    @Test
+    @DisplayName("Fitness cached from a gene matrix should stay tied to the genome after its row is reused")
+    void testReusedRowsKeepCachedFitness() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator();
+        double[] original = scored.createRandomChromosome().genes();
+        double[][] genes = {original.clone()};
+        double[] fitness = {-1};
+        scored.evaluateGenes(genes, fitness, 1, null);
+        double expected = fitness[0];
+
+        // Overwrite the row, as the buffered engine does with every generation
+        scored.randomGenes(genes[0]);
+        fitness[0] = -1;
+        scored.evaluateGenes(genes, fitness, 1, null);
+        assertEquals(2, scored.getFitnessCacheStats().missCount());
+
+        genes[0] = original.clone();
+        fitness[0] = -1;
+        scored.evaluateGenes(genes, fitness, 1, null);
+        assertEquals(expected, fitness[0]);
+        assertEquals(1, scored.getFitnessCacheStats().hitCount());
+    }
+
+    @Test
+    @DisplayName("Fork-join evaluation split over rows should give exactly the serial fitness values")
+    void testForkJoinMatchesSerial() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(5_000);
+        scored.setFitnessCacheSize(0);
+        List<Individual> population = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            population.add(new Individual(scored.createRandomChromosome(), -1));
+        }
+        population.add(new Individual(population.get(0).chromosome(), -1)); // A duplicate
+        population.add(new Individual(scored.createRandomChromosome(), 0.5)); // Already evaluated
+
+        List<Individual> serial = scored.evaluatePopulation(population, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Individual> forkJoin = scored.evaluatePopulation(population, pool);
+            for (int i = 0; i < population.size(); i++) {
+                assertEquals(serial.get(i).fitness(), forkJoin.get(i).fitness());
+            }
+
+            double[][] genes = new double[population.size()][];
+            double[] fitness = new double[population.size()];
+            for (int i = 0; i < population.size(); i++) {
+                genes[i] = population.get(i).chromosome().genes();
+                fitness[i] = population.get(i).fitness();
+            }
+            scored.evaluateGenes(genes, fitness, genes.length, pool);
+            for (int i = 0; i < population.size(); i++) {
+                assertEquals(serial.get(i).fitness(), fitness[i]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Mini-batch mode should estimate new individuals on a sample and re-score evaluated ones exactly")
+    void testMiniBatch() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(5_000);
+        Chromosome offspring = scored.createRandomChromosome();
+        Chromosome elite = scored.createRandomChromosome();
+        double exactOffspring = scored.evaluatePopulation(List.of(new Individual(offspring, -1)), null).get(0).fitness();
+        double exactElite = scored.evaluatePopulation(List.of(new Individual(elite, -1)), null).get(0).fitness();
+
+        scored.setMiniBatchSize(200);
+        long cachedBefore = scored.getFitnessCacheStats().requestCount();
+        List<Individual> evaluated = scored.evaluatePopulation(
+            List.of(new Individual(offspring, -1), new Individual(elite, 0.123)), null);
+
+        // The estimate comes from 200 rows, so it differs from the exact value, and bypasses the cache.
+        assertNotEquals(exactOffspring, evaluated.get(0).fitness());
+        assertEquals(exactElite, evaluated.get(1).fitness());
+        assertEquals(cachedBefore + 1, scored.getFitnessCacheStats().requestCount());
+
+        MiniBatchStats stats = scored.getMiniBatchStats();
+        assertEquals(200, stats.batchSize());
+        assertEquals(1, stats.estimates());
+        assertTrue(stats.meanMseVariance() > 0);
+
+        assertEquals(exactOffspring, scored.rescore(evaluated.get(0)).fitness());
+        assertThrows(IllegalArgumentException.class, () -> scored.setMiniBatchSize(-1));
+    }
+
+    @Test
+    @DisplayName("Seeded runs should reproduce the same best individual on any number of threads")
+    void testSeededRunsAreReproducible() {
+        GaConfig config = new GaConfig(20, 8, 2, 0.9, 0.2, 0.3, 3, 2.0);
+        double[][] best = new double[2][];
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 2; run++) {
+                FuzzySystemFitnessEvaluator scored = scoredEvaluator(2_000);
+                scored.setMiniBatchSize(300); // Samples are drawn from the engine's stream
+                scored.setRandomSeed(11);
+                GeneticAlgorithmEngine engine = new GeneticAlgorithmEngine(config, scored, RandomStreams.create(7));
+                best[run] = engine.evolve(null, run == 0 ? null : pool).chromosome().genes();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertArrayEquals(best[0], best[1]);
+    }
+
+    @Test
+    @DisplayName("A mini-batch run resumed from a checkpoint should end exactly like the uninterrupted run")
+    void testResumedMiniBatchRunMatches(@TempDir Path directory) throws IOException {
+        GaConfig full = new GaConfig(16, 12, 2, 0.9, 0.2, 0.3, 3, 2.0);
+        GaConfig half = new GaConfig(16, 6, 2, 0.9, 0.2, 0.3, 3, 2.0);
+
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(2_000);
+        scored.setMiniBatchSize(150);
+        GeneticAlgorithmEngine uninterrupted = new GeneticAlgorithmEngine(full, scored, RandomStreams.create(3));
+        uninterrupted.setCheckpointing(directory.resolve("full.fgcp"), 3);
+        Individual expected = uninterrupted.evolve(null, null);
+
+        Path file = directory.resolve("run.fgcp");
+        FuzzySystemFitnessEvaluator first = scoredEvaluator(2_000);
+        first.setMiniBatchSize(150);
+        GeneticAlgorithmEngine interrupted = new GeneticAlgorithmEngine(half, first, RandomStreams.create(3));
+        interrupted.setCheckpointing(file, 3);
+        interrupted.evolve(null, null);
+
+        // A new process: a fresh evaluator with its own, differently seeded generator
+        FuzzySystemFitnessEvaluator second = scoredEvaluator(2_000);
+        second.setMiniBatchSize(150);
+        second.setRandomSeed(99);
+        GeneticAlgorithmEngine resumed = new GeneticAlgorithmEngine(full, second, RandomStreams.create());
+        resumed.setCheckpointing(file, 3);
+        Individual actual = resumed.resume(Checkpoint.read(file), null);
+
+        assertArrayEquals(expected.chromosome().genes(), actual.chromosome().genes());
+        assertEquals(expected.fitness(), actual.fitness());
+    }
+
+    @Test
+    @DisplayName("Seeded island runs on mini-batches should not depend on how the islands are scheduled")
+    void testSeededIslandMiniBatchesAreReproducible() {
+        GaConfig config = new GaConfig(12, 6, 2, 0.9, 0.2, 0.3, 3, 2.0, 4, 2, 1, MigrationTopology.RING);
+        double[][] best = new double[2][];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int run = 0; run < 2; run++) {
+                FuzzySystemFitnessEvaluator scored = scoredEvaluator(2_000);
+                scored.setMiniBatchSize(100);
+                IslandModelEngine engine = new IslandModelEngine(config, scored, RandomStreams.create(5));
+                best[run] = engine.evolve(null, run == 0 ? null : executor).chromosome().genes();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertArrayEquals(best[0], best[1]);
+    }
+
+    @Test
+    @DisplayName("Refining every new individual should fit its consequents and keep its antecedents")
+    void testConsequentRefinementAll() {
+        for (int sets : new int[]{2, 16}) { // 12 parameters are fitted jointly, 768 one rule at a time
+            FuzzySystemFitnessEvaluator scored = scoredEvaluator(2_000, sets);
+            List<Individual> population = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                population.add(new Individual(scored.createRandomChromosome(), -1));
+            }
+            List<Individual> plain = scored.evaluatePopulation(population, null);
+
+            scored.setConsequentRefinement(ConsequentRefinement.ALL);
+            List<Individual> refined = scored.evaluatePopulation(population, ForkJoinPool.commonPool());
+
+            assertEquals(5, scored.getConsequentRefinementCount());
+            int antecedentGenes = 2 * sets * 2;
+            for (int i = 0; i < population.size(); i++) {
+                double[] before = population.get(i).chromosome().genes();
+                double[] after = refined.get(i).chromosome().genes();
+                assertArrayEquals(Arrays.copyOf(before, antecedentGenes), Arrays.copyOf(after, antecedentGenes));
+                assertTrue(refined.get(i).fitness() > plain.get(i).fitness());
+                assertEquals(refined.get(i).fitness(), scored.rescore(new Individual(refined.get(i).chromosome(), -1)).fitness());
+            }
+
+            // Gene matrices are refined in place
+            double[][] genes = {population.get(0).chromosome().genes()};
+            double[] fitness = {-1};
+            scored.evaluateGenes(genes, fitness, 1, null);
+            assertArrayEquals(refined.get(0).chromosome().genes(), genes[0]);
+            assertEquals(refined.get(0).fitness(), fitness[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Refining elites should only change the best new individuals and score them exactly")
+    void testConsequentRefinementElites() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(1_000, 2);
+        scored.setConsequentRefinement(ConsequentRefinement.ELITES);
+        scored.setRefinedEliteCount(2);
+        List<Individual> population = new ArrayList<>();
+        population.add(new Individual(scored.createRandomChromosome(), 0.999)); // Already scored, never refined
+        for (int i = 0; i < 6; i++) {
+            population.add(new Individual(scored.createRandomChromosome(), -1));
+        }
+
+        List<Individual> evaluated = scored.evaluatePopulation(population, null);
+
+        assertEquals(2, scored.getConsequentRefinementCount());
+        int changed = 0;
+        for (int i = 0; i < population.size(); i++) {
+            if (evaluated.get(i).chromosome() != population.get(i).chromosome()) {
+                changed++;
+                assertEquals(evaluated.get(i).fitness(), scored.rescore(new Individual(evaluated.get(i).chromosome(), -1)).fitness());
+            }
+        }
+        assertEquals(2, changed);
+        assertEquals(0.999, evaluated.get(0).fitness());
+        assertThrows(IllegalArgumentException.class, () -> scored.setRefinedEliteCount(0));
+    }
+
+    @Test
+    @DisplayName("Delta evaluation should score consequent-only offspring of elites like a full evaluation")
+    void testDeltaEvaluation() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(3_000);
+        FuzzySystemFitnessEvaluator reference = scoredEvaluator(3_000);
+        scored.setDeltaParentCount(1);
+        Chromosome parent = scored.createRandomChromosome();
+        Individual elite = scored.evaluatePopulation(List.of(new Individual(parent, -1)), null).get(0);
+
+        // The elite survives into a population; only then is its state kept
+        scored.evaluatePopulation(List.of(elite), null);
+
+        double[] consequentChild = parent.genes();
+        consequentChild[8] += 0.3; // The first coefficient of the first rule
+        consequentChild[consequentChild.length - 1] -= 0.2; // The constant of the last rule
+        double[] antecedentChild = parent.genes();
+        antecedentChild[0] += 0.1;
+        List<Individual> offspring = List.of(elite, new Individual(new Chromosome(consequentChild), -1),
+            new Individual(new Chromosome(antecedentChild), -1));
+
+        List<Individual> evaluated = scored.evaluatePopulation(offspring, null);
+        List<Individual> expected = reference.evaluatePopulation(offspring, null);
+
+        assertEquals(1, scored.getDeltaEvaluationCount());
+        for (int i = 0; i < offspring.size(); i++) {
+            assertEquals(expected.get(i).fitness(), evaluated.get(i).fitness(), 1e-12);
+        }
+        assertThrows(IllegalArgumentException.class, () -> scored.setDeltaParentCount(-1));
+    }
+
+    @Test
+    @DisplayName("Delta evaluation on a pool should give exactly the serial fitness values")
+    void testParallelDeltaEvaluation() {
+        FuzzySystemFitnessEvaluator serial = scoredEvaluator(3_000);
+        FuzzySystemFitnessEvaluator parallel = scoredEvaluator(3_000);
+        serial.setDeltaParentCount(3);
+        parallel.setDeltaParentCount(3);
+        List<Individual> elites = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            elites.add(new Individual(serial.createRandomChromosome(), 0.5 + i * 0.1));
+        }
+        List<Individual> offspring = new ArrayList<>(elites);
+        for (int i = 0; i < 6; i++) {
+            double[] child = elites.get(i % 3).chromosome().genes();
+            child[8 + i] += 0.25;
+            offspring.add(new Individual(new Chromosome(child), -1));
+        }
+        offspring.add(new Individual(offspring.get(3).chromosome(), -1)); // A duplicate
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            serial.evaluatePopulation(elites, null);
+            parallel.evaluatePopulation(elites, pool);
+            List<Individual> expected = serial.evaluatePopulation(offspring, null);
+            List<Individual> evaluated = parallel.evaluatePopulation(offspring, pool);
+
+            assertEquals(6, parallel.getDeltaEvaluationCount());
+            assertEquals(serial.getDeltaEvaluationCount(), parallel.getDeltaEvaluationCount());
+            for (int i = 0; i < offspring.size(); i++) {
+                assertEquals(expected.get(i).fitness(), evaluated.get(i).fitness());
+            }
+            assertEquals(evaluated.get(3).fitness(), evaluated.get(offspring.size() - 1).fitness());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Individuals sharing antecedent genes should be scored from cached firings with identical fitness")
+    void testFiringCache() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(5_000);
+        FuzzySystemFitnessEvaluator reference = scoredEvaluator(5_000);
+        scored.setFiringCacheBudget(10_000_000);
+        double[] parent = scored.createRandomChromosome().genes();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // The parent's firings are recorded over row ranges split between workers
+            scored.evaluatePopulation(List.of(new Individual(new Chromosome(parent), -1)), pool);
+            assertEquals(0, scored.getFiringCacheStats().hitCount());
+
+            for (ExecutorService executor : new ExecutorService[]{null, pool}) {
+                List<Individual> children = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    double[] child = parent.clone();
+                    child[8 + i] += (executor == null ? 0.25 : -0.5) * (i + 1); // Consequent genes only
+                    children.add(new Individual(new Chromosome(child), -1));
+                }
+                List<Individual> evaluated = scored.evaluatePopulation(children, executor);
+                List<Individual> expected = reference.evaluatePopulation(children, null);
+                for (int i = 0; i < children.size(); i++) {
+                    assertEquals(expected.get(i).fitness(), evaluated.get(i).fitness());
+                }
+            }
+            assertEquals(8, scored.getFiringCacheStats().hitCount());
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThrows(IllegalArgumentException.class, () -> scored.setFiringCacheBudget(-1));
+    }
+
+    @Test
+    @DisplayName("Early abort should give hopeless individuals an uncached fitness below the elite fitness")
+    void testEarlyAbort() {
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(5_000);
+        scored.setEarlyAbort(true);
+        List<Individual> population = new ArrayList<>();
+        population.add(new Individual(scored.createRandomChromosome(), 0.99)); // An elite few can match
+        for (int i = 0; i < 10; i++) {
+            population.add(new Individual(scored.createRandomChromosome(), -1));
+        }
+
+        List<Individual> evaluated = scored.evaluatePopulation(population, null);
+
+        assertTrue(scored.getEarlyAbortCount() > 0);
+        long aborted = scored.getEarlyAbortCount();
+        for (Individual individual : evaluated.subList(1, evaluated.size())) {
+            double exact = scored.rescore(new Individual(individual.chromosome(), -1)).fitness();
+            if (individual.fitness() != exact) {
+                assertTrue(individual.fitness() < 0.99);
+                // The bound was not cached, so re-scoring computes the exact value
+                assertEquals(exact, scored.rescore(individual).fitness());
+            }
+        }
+        assertEquals(aborted, scored.getEarlyAbortCount());
+
+        // Without any known fitness there is no threshold
+        scored.setEarlyAbortQuantile(1.0);
+        scored.invalidateFitnessCache();
+        scored.evaluatePopulation(population.subList(1, population.size()), null);
+        assertEquals(aborted, scored.getEarlyAbortCount());
+        assertThrows(IllegalArgumentException.class, () -> scored.setEarlyAbortQuantile(1.5));
+    }
+
+    @Test
+    @DisplayName("Individuals aborted at a high quantile should never carry their bound into the elites")
+    void testEarlyAbortKeepsElitesExact() {
+        GaConfig config = new GaConfig(20, 10, 4, 0.9, 0.3, 0.3, 3, 2.0);
+        FuzzySystemFitnessEvaluator scored = scoredEvaluator(5_000);
+        scored.setEarlyAbort(true);
+        scored.setEarlyAbortQuantile(1.0);
+        GeneticAlgorithmEngine engine = new GeneticAlgorithmEngine(config, scored, RandomStreams.create(8));
+
+        List<Individual> population = engine.evaluate(engine.initializePopulation(), null);
+        for (int generation = 0; generation < config.maxGenerations(); generation++) {
+            population = engine.evaluate(engine.breed(population), null);
+            for (Individual elite : population.subList(0, config.elitismCount())) {
+                double exact = scored.rescore(new Individual(elite.chromosome(), -1)).fitness();
+                assertEquals(exact, elite.fitness(), "Generation " + generation);
+            }
+        }
+        assertTrue(scored.getEarlyAbortCount() > 0);
+    }
+
+    @Test
+    @DisplayName("The fork-join split should use row ranges only when there are too few individuals")
+    void testRowChunks() {
+        assertEquals(1, FuzzySystemFitnessEvaluator.rowChunks(200, 1000, 8));
+        assertEquals(16, FuzzySystemFitnessEvaluator.rowChunks(2, 1000, 8));
+        assertEquals(3, FuzzySystemFitnessEvaluator.rowChunks(2, 3, 8));
+        assertEquals(1, FuzzySystemFitnessEvaluator.rowChunks(1, 0, 8));
+    }
+
+    private FuzzySystemFitnessEvaluator scoredEvaluator() {
+        return scoredEvaluator(300);
+    }
+
+    private FuzzySystemFitnessEvaluator scoredEvaluator(int rows) {
+        return scoredEvaluator(rows, 2);
+    }
+
+    private FuzzySystemFitnessEvaluator scoredEvaluator(int rows, int setsPerVariable) {
+        Random random = new Random(5);
+        List<DataPoint> points = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            double xValue = random.nextDouble();
+            double yValue = random.nextDouble();
+            points.add(new DataPoint(Map.of(x, xValue, y, yValue), xValue * yValue));
+        }
+        return new FuzzySystemFitnessEvaluator(
+            new FuzzySystemDescriptor(List.of(x, y), setsPerVariable, Map.of(
+                "center", new FuzzySystemDescriptor.Range(0, 1),
+                "width", new FuzzySystemDescriptor.Range(0.5, 1),
+                "consequent", new FuzzySystemDescriptor.Range(-1, 1))),
+            new Dataset(points));
+    }
 }
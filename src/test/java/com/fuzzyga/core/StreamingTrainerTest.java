@@ -0,0 +1,110 @@
+package com.fuzzyga.core;
+
+import com.fuzzyga.core.data.QueueRowSource;
+import com.fuzzyga.core.data.SlidingWindowDataset;
+import com.fuzzyga.core.models.FuzzySystemDescriptor;
+import com.fuzzyga.fuzzy.InputVariable;
+import com.fuzzyga.ga.GaConfig;
+import com.fuzzyga.ga.Individual;
+import com.fuzzyga.ga.RandomStreams;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamingTrainerTest {
+
+    private static final List<InputVariable> VARIABLES = List.of(new InputVariable("x"), new InputVariable("y"));
+    private static final GaConfig CONFIG = new GaConfig(20, 10, 2, 0.9, 0.2, 0.3, 3, 2.0);
+
+    private static FuzzySystemFitnessEvaluator evaluator(SlidingWindowDataset window) {
+        FuzzySystemDescriptor descriptor = new FuzzySystemDescriptor(VARIABLES, 2, Map.of(
+            "center", new FuzzySystemDescriptor.Range(0, 1),
+            "width", new FuzzySystemDescriptor.Range(0.1, 1),
+            "consequent", new FuzzySystemDescriptor.Range(-1, 1)
+        ));
+        return new FuzzySystemFitnessEvaluator(descriptor, window);
+    }
+
+    private static double[] row(int i) {
+        double x = (i % 17) / 17.0;
+        double y = (i % 13) / 13.0;
+        return new double[]{x, y, x - y};
+    }
+
+    @Test
+    @DisplayName("Should train on the most recent rows and stop once a finished source has settled")
+    void testFiniteSource() throws Exception {
+        SlidingWindowDataset window = new SlidingWindowDataset(VARIABLES, 50);
+        FuzzySystemFitnessEvaluator evaluator = evaluator(window);
+        QueueRowSource source = new QueueRowSource(VARIABLES, 500);
+        StreamingTrainer trainer = new StreamingTrainer(CONFIG, evaluator, window, source, RandomStreams.create(1));
+        for (int i = 0; i < 200; i++) {
+            source.put(row(i));
+        }
+        source.close();
+
+        Individual best = trainer.run(null);
+
+        StreamingStats stats = trainer.getStats();
+        assertEquals(200, stats.rowsIngested());
+        assertEquals(50, stats.windowSize());
+        assertTrue(stats.generations() >= CONFIG.maxGenerations());
+        // Rows that arrive more than a window ahead of the trainer are dropped, but the last window is always kept
+        assertEquals(200, window.appendedCount() + stats.rowsDropped());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(row(150 + i)[0], window.input(0, i));
+            assertEquals(row(150 + i)[2], window.expectedOutput(i));
+        }
+        // The result is scored on the final window
+        evaluator.invalidateFitnessCache();
+        assertEquals(evaluator.rescore(new Individual(best.chromosome(), -1)).fitness(), best.fitness());
+    }
+
+    @Test
+    @DisplayName("Should keep evolving while rows arrive, and stop on request")
+    void testStop() throws Exception {
+        SlidingWindowDataset window = new SlidingWindowDataset(VARIABLES, 100);
+        QueueRowSource source = new QueueRowSource(VARIABLES, 100);
+        StreamingTrainer trainer = new StreamingTrainer(CONFIG, evaluator(window), window, source, RandomStreams.create(2));
+        trainer.setMinimumWindowSize(30);
+        assertThrows(IllegalArgumentException.class, () -> trainer.setMinimumWindowSize(101));
+
+        CompletableFuture<Individual> run = CompletableFuture.supplyAsync(() -> trainer.run(null));
+        for (int i = 0; i < 30; i++) {
+            source.put(row(i));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (trainer.getStats().generations() < 3 * CONFIG.maxGenerations() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        // The source is still open, so only stop() ends the run
+        trainer.stop();
+
+        assertNotNull(run.get(10, TimeUnit.SECONDS));
+        assertTrue(trainer.getStats().generations() >= 3 * CONFIG.maxGenerations());
+        assertEquals(30, trainer.getStats().windowSize());
+    }
+
+    @Test
+    @DisplayName("Should return no individual if the source ends before the window is large enough")
+    void testSourceTooShort() throws Exception {
+        SlidingWindowDataset window = new SlidingWindowDataset(VARIABLES, 100);
+        QueueRowSource source = new QueueRowSource(VARIABLES, 10);
+        StreamingTrainer trainer = new StreamingTrainer(CONFIG, evaluator(window), window, source, RandomStreams.create(3));
+        source.put(row(0));
+        source.close();
+
+        assertNull(trainer.run(null));
+        assertEquals(0, trainer.getStats().generations());
+    }
+}
@@ -0,0 +1,103 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HeapColumnarDatasetTest {
+
+    private static HeapColumnarDataset read(String text) throws IOException {
+        return HeapColumnarDataset.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("Should read columns in header order, with the last column as output")
+    void testReadWithHeader() throws IOException {
+        HeapColumnarDataset dataset = read("a  b\tz\n1 2 3\r\n\n-4.5 +6e2 7.25E-1\n");
+
+        assertEquals(List.of(new InputVariable("a"), new InputVariable("b")), dataset.inputVariables());
+        assertEquals(2, dataset.size());
+        assertEquals(1.0, dataset.input(0, 0));
+        assertEquals(2.0, dataset.input(1, 0));
+        assertEquals(3.0, dataset.expectedOutput(0));
+        assertEquals(-4.5, dataset.input(0, 1));
+        assertEquals(600.0, dataset.input(1, 1));
+        assertEquals(0.725, dataset.expectedOutput(1));
+    }
+
+    @Test
+    @DisplayName("Selecting rows should copy them into a new dataset in the given order")
+    void testSelect() throws IOException {
+        HeapColumnarDataset dataset = read("a b z\n1 2 3\n4 5 6\n7 8 9\n");
+        HeapColumnarDataset selected = dataset.select(new int[]{2, 0});
+
+        assertEquals(dataset.inputVariables(), selected.inputVariables());
+        assertEquals(2, selected.size());
+        assertEquals(7.0, selected.input(0, 0));
+        assertEquals(9.0, selected.expectedOutput(0));
+        assertEquals(2.0, selected.input(1, 1));
+        assertEquals(3.0, selected.expectedOutput(1));
+    }
+
+    @Test
+    @DisplayName("Should treat a numeric first line as data and name the columns")
+    void testReadHeaderless() throws IOException {
+        HeapColumnarDataset dataset = read("0.0 0.5 -59.5\n1.0 1.5 2.5");
+
+        assertEquals(List.of(new InputVariable("x1"), new InputVariable("x2")), dataset.inputVariables());
+        assertEquals(2, dataset.size());
+        assertEquals(-59.5, dataset.expectedOutput(0));
+        assertEquals(1.5, dataset.input(1, 1));
+    }
+
+    @Test
+    @DisplayName("Should parse numbers exactly like Double.parseDouble")
+    void testParsingMatchesDoubleParseDouble() {
+        Random random = new Random(7);
+        String[] fixed = {"0", "-0.0", "123456789012345678901234", "1e-320", "4.9e-324", "1.7976931348623157e308",
+            "0.1", "3.141592653589793", "2.2250738585072014E-308", "9007199254740993", "1e22", "1e23", "NaN", "Infinity"};
+        for (String number : fixed) {
+            assertParsesLikeJdk(number);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertParsesLikeJdk(Double.toString(Double.longBitsToDouble(random.nextLong())));
+            assertParsesLikeJdk(String.format("%." + random.nextInt(12) + "f", random.nextDouble(-1e6, 1e6)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject rows with a wrong number of values")
+    void testMalformedRow() {
+        assertThrows(IOException.class, () -> read("x y z\n1 2 3\n4 5\n"));
+        assertThrows(IOException.class, () -> read("x y z\n1 2 3 4\n"));
+        assertThrows(IOException.class, () -> read("x y z\n1 two 3\n"));
+        assertThrows(IOException.class, () -> read("x y z\n1 xNaN 3\n"));
+        assertThrows(IOException.class, () -> read("x y z\n1 1NaN 3\n"));
+    }
+
+    @Test
+    @DisplayName("Should load the bundled dataset from the classpath")
+    void testFromResource() throws IOException {
+        HeapColumnarDataset dataset = HeapColumnarDataset.fromResource("datasets/3dfunc.txt");
+
+        assertEquals(2, dataset.inputVariables().size());
+        assertEquals(441, dataset.size());
+        assertEquals(-60.0, dataset.expectedOutput(0));
+    }
+
+    private static void assertParsesLikeJdk(String number) {
+        byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+        double expected = Double.parseDouble(number);
+        double actual = TextDatasetParser.parseDouble(bytes, 0, bytes.length);
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), number);
+    }
+}
@@ -0,0 +1,80 @@
+package com.fuzzyga.core.data;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedColumnarDatasetTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Text converted to the binary format should map back to the same values")
+    void testConvertTextAndMap() throws IOException {
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder("speed load output\n");
+        int rows = 20_000; // More than one conversion buffer
+        for (int i = 0; i < rows; i++) {
+            text.append(random.nextDouble(-100, 100)).append(' ')
+                .append(random.nextInt(1000)).append('\t')
+                .append(random.nextGaussian()).append('\n');
+        }
+        Path textFile = tempDir.resolve("data.txt");
+        Files.writeString(textFile, text, StandardCharsets.UTF_8);
+        Path binaryFile = tempDir.resolve("data.fgds");
+
+        assertEquals(rows, BinaryDatasetFormat.convertText(textFile, binaryFile));
+
+        HeapColumnarDataset heap = HeapColumnarDataset.fromPath(textFile);
+        MappedColumnarDataset mapped = MappedColumnarDataset.open(binaryFile);
+        assertDatasetsEqual(heap, mapped);
+    }
+
+    @Test
+    @DisplayName("A written dataset should map back to the same values")
+    void testWriteAndMap() throws IOException {
+        HeapColumnarDataset heap = HeapColumnarDataset.fromResource("datasets/3dfunc.txt");
+        Path binaryFile = tempDir.resolve("3dfunc.fgds");
+
+        BinaryDatasetFormat.write(heap, binaryFile);
+
+        assertDatasetsEqual(heap, MappedColumnarDataset.open(binaryFile));
+    }
+
+    @Test
+    @DisplayName("Opening a file that is not a binary dataset should fail")
+    void testRejectsInvalidFile() throws IOException {
+        Path file = tempDir.resolve("invalid.fgds");
+        Files.writeString(file, "x y z\n1 2 3\n4 5 6\n");
+
+        assertThrows(IOException.class, () -> MappedColumnarDataset.open(file));
+    }
+
+    private static void assertDatasetsEqual(ColumnarDataset expected, ColumnarDataset actual) {
+        assertEquals(expected.inputVariables(), actual.inputVariables());
+        assertEquals(expected.size(), actual.size());
+        int rows = expected.size();
+        for (int column = 0; column < expected.inputVariables().size(); column++) {
+            double[] expectedColumn = new double[rows];
+            double[] actualColumn = new double[rows];
+            expected.copyInputs(column, 0, expectedColumn, 0, rows);
+            actual.copyInputs(column, 0, actualColumn, 0, rows);
+            assertArrayEquals(expectedColumn, actualColumn);
+            assertEquals(expected.input(column, rows - 1), actual.input(column, rows - 1));
+        }
+        for (int row = 0; row < rows; row++) {
+            assertEquals(expected.expectedOutput(row), actual.expectedOutput(row));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.fuzzyga.core.data;
+
+import com.fuzzyga.fuzzy.InputVariable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlidingWindowDatasetTest {
+
+    private static final List<InputVariable> VARIABLES = List.of(new InputVariable("a"), new InputVariable("b"));
+
+    @Test
+    @DisplayName("A full window should evict its oldest rows and keep row 0 the oldest")
+    void testEviction() {
+        SlidingWindowDataset window = new SlidingWindowDataset(VARIABLES, 3);
+        for (int i = 0; i < 5; i++) {
+            window.append(new double[]{i, 10 * i, 100 * i});
+        }
+
+        assertEquals(3, window.size());
+        assertEquals(5, window.appendedCount());
+        for (int row = 0; row < 3; row++) {
+            assertEquals(row + 2, window.input(0, row));
+            assertEquals(10.0 * (row + 2), window.input(1, row));
+            assertEquals(100.0 * (row + 2), window.expectedOutput(row));
+        }
+    }
+
+    @Test
+    @DisplayName("Bulk copies should read across the end of the ring buffer")
+    void testCopyAcrossWrap() {
+        SlidingWindowDataset window = new SlidingWindowDataset(VARIABLES, 4);
+        for (int i = 0; i < 7; i++) {
+            window.append(new double[]{i, -i, 2 * i});
+        }
+
+        double[] inputs = new double[5];
+        window.copyInputs(1, 0, inputs, 1, 4);
+        assertArrayEquals(new double[]{0, -3, -4, -5, -6}, inputs);
+        double[] outputs = new double[2];
+        window.copyExpectedOutputs(1, outputs, 0, 2);
+        assertArrayEquals(new double[]{8, 10}, outputs);
+        assertEquals(12.0, window.select(new int[]{3}).expectedOutput(0));
+        assertThrows(IllegalArgumentException.class, () -> new SlidingWindowDataset(VARIABLES, 0));
+    }
+
+    @Test
+    @DisplayName("A tailed file should deliver rows as they are appended and end when closed")
+    void testTailFile() throws Exception {
+        Path file = Files.createTempFile("stream", ".txt");
+        try {
+            Files.writeString(file, "a b z\n1 2 3\n");
+            TextRowSource source = TextRowSource.tail(file, Duration.ofMillis(5));
+            assertEquals(VARIABLES, source.inputVariables());
+
+            double[] row = new double[3];
+            assertTrue(source.next(row));
+            assertArrayEquals(new double[]{1, 2, 3}, row);
+
+            CompletableFuture<Boolean> next = CompletableFuture.supplyAsync(() -> read(source, row));
+            Files.writeString(file, "4 5 ", StandardOpenOption.APPEND);
+            Files.writeString(file, "6\n", StandardOpenOption.APPEND);
+            assertTrue(next.get(10, TimeUnit.SECONDS));
+            assertArrayEquals(new double[]{4, 5, 6}, row);
+
+            CompletableFuture<Boolean> last = CompletableFuture.supplyAsync(() -> read(source, row));
+            source.close();
+            assertFalse(last.get(10, TimeUnit.SECONDS));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static boolean read(RowSource source, double[] row) {
+        try {
+            return source.next(row);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
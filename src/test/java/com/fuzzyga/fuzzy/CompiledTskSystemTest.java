@@ -0,0 +1,68 @@
+package com.fuzzyga.fuzzy;
+
+import com.fuzzyga.fuzzy.membership.MembershipFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledTskSystemTest {
+
+    private InputVariable x, y;
+    private TskInferenceSystem system;
+
+    @BeforeEach
+    void setUp() {
+        x = new InputVariable("x");
+        y = new InputVariable("y");
+
+        MembershipFunction xLow = new MembershipFunction.TriangularMembershipFunction(0, 6);
+        MembershipFunction xHigh = new MembershipFunction.TriangularMembershipFunction(10, 6);
+        MembershipFunction yLow = new MembershipFunction.TriangularMembershipFunction(0, 7);
+        MembershipFunction yHigh = new MembershipFunction.TriangularMembershipFunction(10, 7);
+
+        system = new TskInferenceSystem(List.of(
+            new FuzzyRule(Map.of(x, xLow, y, yLow), new TskConsequent(Map.of(x, 0.5, y, 0.2), 1.0)),
+            new FuzzyRule(Map.of(x, xLow, y, yHigh), new TskConsequent(Map.of(x, -0.3, y, 1.1), -2.0)),
+            new FuzzyRule(Map.of(x, xHigh, y, yLow), new TskConsequent(Map.of(x, 1.5, y, 0.0), 0.5)),
+            // A rule that only constrains y, with a consequent that ignores x.
+            new FuzzyRule(Map.of(y, yHigh), new TskConsequent(Map.of(y, 0.8), 2.0))
+        ));
+    }
+
+    @Test
+    @DisplayName("CompiledTskSystem should match TskInferenceSystem for any input order")
+    void testMatchesTskInferenceSystem() {
+        CompiledTskSystem xy = system.compile(List.of(x, y));
+        CompiledTskSystem yx = system.compile(List.of(y, x));
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1_000; i++) {
+            double xValue = random.nextDouble(-2, 12);
+            double yValue = random.nextDouble(-2, 12);
+            double expected = system.calculate(Map.of(x, xValue, y, yValue));
+
+            assertEquals(expected, xy.calculate(new double[]{xValue, yValue}), 1e-9);
+            assertEquals(expected, yx.calculate(new double[]{yValue, xValue}), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("CompiledTskSystem should return 0 when no rule fires")
+    void testNoRuleFires() {
+        CompiledTskSystem compiled = system.compile(List.of(x, y));
+        assertEquals(0.0, compiled.calculate(new double[]{100.0, 100.0}));
+    }
+
+    @Test
+    @DisplayName("Compiling should reject rules over variables outside the variable order")
+    void testUnknownVariable() {
+        assertThrows(IllegalArgumentException.class, () -> system.compile(List.of(x)));
+    }
+}
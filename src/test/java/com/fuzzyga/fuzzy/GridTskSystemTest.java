@@ -0,0 +1,164 @@
+package com.fuzzyga.fuzzy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GridTskSystemTest {
+
+    private static final int SETS = 3;
+
+    private List<InputVariable> variables;
+    private double[] parameters;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        variables = List.of(new InputVariable("a"), new InputVariable("b"), new InputVariable("c"));
+        random = new Random(11);
+        parameters = new double[GridTskSystem.parameterCount(variables.size(), SETS)];
+        int antecedentGenes = variables.size() * SETS * 2;
+        for (int i = 0; i < antecedentGenes; i += 2) {
+            parameters[i] = random.nextDouble(0, 10);     // center
+            parameters[i + 1] = random.nextDouble(1, 4);  // width
+        }
+        for (int i = antecedentGenes; i < parameters.length; i++) {
+            parameters[i] = random.nextDouble(-5, 5);
+        }
+    }
+
+    @Test
+    @DisplayName("GridTskSystem should produce exactly the same outputs as the per-rule compiled system")
+    void testMatchesCompiledSystem() {
+        GridTskSystem grid = GridTskSystem.of(variables, SETS, parameters);
+        CompiledTskSystem compiled = CompiledTskSystem.fromGrid(variables, SETS, parameters);
+        GridTskSystem.Workspace workspace = grid.newWorkspace();
+
+        assertEquals(27, grid.ruleCount());
+        for (int i = 0; i < 5_000; i++) {
+            double[] inputs = randomInputs();
+            assertEquals(compiled.calculate(inputs), grid.calculate(inputs, workspace));
+        }
+    }
+
+    @Test
+    @DisplayName("Sparse rule enumeration should produce exactly the same outputs as the dense walk")
+    void testSparseMatchesDense() {
+        GridTskSystem grid = GridTskSystem.of(variables, SETS, parameters);
+        GridTskSystem.Workspace workspace = grid.newWorkspace();
+
+        for (int i = 0; i < 5_000; i++) {
+            double[] inputs = randomInputs();
+            assertEquals(grid.calculate(inputs, workspace, InferenceMode.DENSE),
+                grid.calculate(inputs, workspace, InferenceMode.SPARSE));
+        }
+        // Inputs outside every set of a variable fire no rule at all.
+        assertEquals(0.0, grid.calculateSparse(new double[]{100.0, 5.0, 5.0}, workspace));
+    }
+
+    @Test
+    @DisplayName("Sparse rule enumeration should match the dense walk on a large grid")
+    void testSparseMatchesDenseOnLargeGrid() {
+        int inputs = 5;
+        int sets = 5;
+        List<InputVariable> manyVariables = List.of(new InputVariable("v1"), new InputVariable("v2"),
+            new InputVariable("v3"), new InputVariable("v4"), new InputVariable("v5"));
+        double[] largeParameters = new double[GridTskSystem.parameterCount(inputs, sets)];
+        for (int v = 0; v < inputs; v++) {
+            for (int s = 0; s < sets; s++) {
+                largeParameters[(v * sets + s) * 2] = s * 2.5;              // Evenly spaced centers
+                largeParameters[(v * sets + s) * 2 + 1] = random.nextDouble(2, 4);
+            }
+        }
+        for (int i = inputs * sets * 2; i < largeParameters.length; i++) {
+            largeParameters[i] = random.nextDouble(-5, 5);
+        }
+        GridTskSystem grid = GridTskSystem.of(manyVariables, sets, largeParameters);
+        GridTskSystem.Workspace workspace = grid.newWorkspace();
+
+        assertEquals(3125, grid.ruleCount());
+        for (int i = 0; i < 200; i++) {
+            double[] input = new double[inputs];
+            for (int v = 0; v < inputs; v++) {
+                input[v] = random.nextDouble(0, 10);
+            }
+            assertEquals(grid.calculate(input, workspace), grid.calculateSparse(input, workspace));
+        }
+    }
+
+    @Test
+    @DisplayName("Batch inference should match single-sample inference, including partial blocks")
+    void testBatchMatchesSingleSample() {
+        GridTskSystem grid = GridTskSystem.of(variables, SETS, parameters);
+        GridTskSystem.Workspace workspace = grid.newWorkspace();
+        GridTskSystem.BatchWorkspace batchWorkspace = grid.newBatchWorkspace(256);
+
+        int length = 203; // Not a multiple of any vector length
+        double[][] block = new double[variables.size()][length];
+        for (int i = 0; i < length; i++) {
+            double[] sample = randomInputs();
+            for (int v = 0; v < sample.length; v++) {
+                block[v][i] = sample[v];
+            }
+        }
+        block[0][7] = 100.0; // A sample that fires no rule
+        block[1][8] = parameters[2]; // A sample exactly at a set center
+
+        double[] outputs = new double[length];
+        grid.calculateBatch(block, length, outputs, batchWorkspace);
+
+        double[] sample = new double[variables.size()];
+        for (int i = 0; i < length; i++) {
+            for (int v = 0; v < sample.length; v++) {
+                sample[v] = block[v][i];
+            }
+            assertEquals(grid.calculate(sample, workspace), outputs[i], 1e-12, "sample " + i);
+        }
+        assertEquals(0.0, outputs[7]);
+    }
+
+    @Test
+    @DisplayName("The selected batch kernel should agree bit for bit with the scalar kernel")
+    void testBatchKernelMatchesScalarKernel() {
+        BatchKernel scalar = new ScalarBatchKernel();
+        BatchKernel selected = BatchKernel.INSTANCE;
+        int length = 67;
+        double[] x = new double[length];
+        double[] y = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = random.nextInt(4) == 0 ? 5.0 : random.nextDouble(0, 10);
+            y[i] = random.nextDouble();
+        }
+        double[] expected = new double[length];
+        double[] actual = new double[length];
+
+        scalar.triangular(x, 5.0, 3.0, expected, length);
+        selected.triangular(x, 5.0, 3.0, actual, length);
+        assertArrayEquals(expected, actual);
+
+        scalar.einsteinProduct(expected, y, expected, length);
+        selected.einsteinProduct(actual, y, actual, length);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    @DisplayName("GridTskSystem should reject parameter arrays of the wrong length")
+    void testRejectsWrongParameterCount() {
+        assertThrows(IllegalArgumentException.class, () -> GridTskSystem.of(variables, SETS, new double[10]));
+    }
+
+    private double[] randomInputs() {
+        double[] inputs = new double[variables.size()];
+        for (int v = 0; v < inputs.length; v++) {
+            inputs[v] = random.nextDouble(-1, 11);
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,65 @@
+package com.fuzzyga.fuzzy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModelFormatTest {
+
+    private static GridTskSystem model() {
+        List<InputVariable> variables = List.of(new InputVariable("température"), new InputVariable("b"));
+        Random random = new Random(5);
+        double[] parameters = new double[GridTskSystem.parameterCount(2, 4)];
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = (i < 16 && i % 2 == 1) ? random.nextDouble(1, 4) : random.nextDouble(-5, 10);
+        }
+        return GridTskSystem.of(variables, 4, parameters);
+    }
+
+    @Test
+    @DisplayName("A model should survive a round trip through a file with identical outputs")
+    void testRoundTrip(@TempDir Path directory) throws IOException {
+        GridTskSystem model = model();
+        Path file = directory.resolve("model.fgm");
+        ModelFormat.write(model, file);
+
+        GridTskSystem loaded = ModelFormat.read(file);
+        assertEquals(model.variables(), loaded.variables());
+        assertEquals(model.setsPerVariable(), loaded.setsPerVariable());
+        assertArrayEquals(model.parameters(), loaded.parameters());
+        Random random = new Random(9);
+        for (int i = 0; i < 100; i++) {
+            double[] inputs = {random.nextDouble(-5, 15), random.nextDouble(-5, 15)};
+            assertEquals(model.calculate(inputs), loaded.calculate(inputs));
+        }
+        // A 24-byte fixed header and 17 bytes of names, padded to 48, then the parameters and the checksum
+        assertEquals(48 + model.parameters().length * 8 + 8, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Damaged, truncated and foreign files should be rejected")
+    void testRejectsBadFiles() {
+        byte[] bytes = ModelFormat.toBytes(model());
+
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length / 2] ^= 1;
+        assertThrows(IOException.class, () -> ModelFormat.fromBytes(flipped));
+        assertThrows(IOException.class, () -> ModelFormat.fromBytes(Arrays.copyOf(bytes, bytes.length - 8)));
+        assertThrows(IOException.class, () -> ModelFormat.fromBytes(Arrays.copyOf(bytes, 10)));
+
+        byte[] foreign = bytes.clone();
+        foreign[0] = 'X';
+        assertThrows(IOException.class, () -> ModelFormat.fromBytes(foreign));
+    }
+}
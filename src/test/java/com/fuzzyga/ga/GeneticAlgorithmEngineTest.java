@@ -0,0 +1,291 @@
+package com.fuzzyga.ga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneticAlgorithmEngineTest {
+
+    private static final int GENES = 8;
+
+    /**
+     * Scores genomes by their distance to the origin: fitness 1 / (1 + |x|^2).
+     * Only the two required methods are implemented, so the default array-based methods are exercised.
+     */
+    static final class SphereEvaluator implements FitnessEvaluator {
+        private final Random random = new Random(3);
+
+        @Override
+        public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService) {
+            List<Individual> evaluated = new ArrayList<>();
+            for (Individual individual : population) {
+                evaluated.add(individual.fitness() >= 0 ? individual
+                    : new Individual(individual.chromosome(), fitness(individual.chromosome().genes())));
+            }
+            return evaluated;
+        }
+
+        @Override
+        public Chromosome createRandomChromosome() {
+            return createRandomChromosome(random);
+        }
+
+        @Override
+        public Chromosome createRandomChromosome(RandomGenerator random) {
+            double[] genes = new double[GENES];
+            for (int i = 0; i < GENES; i++) {
+                genes[i] = random.nextDouble(-5, 5);
+            }
+            return new Chromosome(genes);
+        }
+
+        static double fitness(double[] genes) {
+            double sum = 0;
+            for (double gene : genes) {
+                sum += gene * gene;
+            }
+            return 1.0 / (1.0 + sum);
+        }
+    }
+
+    /**
+     * A sphere evaluator that records every population it is asked to evaluate.
+     */
+    private static final class RecordingEvaluator implements FitnessEvaluator {
+        private final SphereEvaluator delegate = new SphereEvaluator();
+        private final List<List<Individual>> calls = new ArrayList<>();
+
+        @Override
+        public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService) {
+            calls.add(List.copyOf(population));
+            return delegate.evaluatePopulation(population, executorService);
+        }
+
+        @Override
+        public Chromosome createRandomChromosome() {
+            return delegate.createRandomChromosome();
+        }
+    }
+
+    private static GaConfig config(int generations) {
+        return new GaConfig(40, generations, 2, 0.9, 0.2, 0.3, 3, 2.0);
+    }
+
+    @Test
+    @DisplayName("The buffered engine should return a correctly scored individual and improve on the initial population")
+    void testEvolveBufferedImproves() {
+        SphereEvaluator evaluator = new SphereEvaluator();
+        List<Individual> initial = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            initial.add(new Individual(evaluator.createRandomChromosome(), -1));
+        }
+        double initialBest = evaluator.evaluatePopulation(initial, null).stream()
+            .mapToDouble(Individual::fitness).max().orElseThrow();
+
+        Individual best = new GeneticAlgorithmEngine(config(60), evaluator).evolveBuffered(initial, null);
+
+        assertEquals(SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+        assertTrue(best.fitness() > initialBest, "Expected " + best.fitness() + " > " + initialBest);
+    }
+
+    @Test
+    @DisplayName("The buffered engine should generate a random population, accept an executor and reject an empty population")
+    void testEvolveBufferedWithExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Individual best = new GeneticAlgorithmEngine(config(5), new SphereEvaluator()).evolveBuffered(null, executor);
+            assertEquals(GENES, best.chromosome().length());
+            assertEquals(SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new GeneticAlgorithmEngine(config(5), new SphereEvaluator()).evolveBuffered(List.of(), null));
+    }
+
+    @Test
+    @DisplayName("Top-k selection should order indices by descending fitness, keeping the earlier index on ties")
+    void testTopIndices() {
+        double[] fitness = {0.3, 0.9, 0.1, 0.9, 0.5, 0.7};
+        int[] order = new int[4];
+        GeneticOperators.topIndices(fitness, fitness.length, 4, order);
+        assertArrayEquals(new int[]{1, 3, 5, 4}, order);
+
+        int[] best = new int[1];
+        GeneticOperators.topIndices(fitness, 3, 1, best);
+        assertEquals(1, best[0]);
+    }
+
+    @Test
+    @DisplayName("Gaussian mutation should modify the buffer it is given in place")
+    void testMutationModifiesGenesInPlace() {
+        double[] genes = {1, 2, 3, 4};
+        assertTrue(GeneticOperators.gaussianMutation(genes, 1.0, 0.5, new Random(1)));
+        for (int i = 0; i < genes.length; i++) {
+            assertTrue(genes[i] != i + 1, "Gene " + i + " was not mutated");
+        }
+
+        double[] untouched = {1, 2, 3, 4};
+        assertFalse(GeneticOperators.gaussianMutation(untouched, 0.0, 0.5, new Random(1)));
+        assertArrayEquals(new double[]{1, 2, 3, 4}, untouched);
+    }
+
+    @Test
+    @DisplayName("Offspring bred without crossover should carry their mutations")
+    void testEvolveAppliesMutation() {
+        RecordingEvaluator evaluator = new RecordingEvaluator();
+        GaConfig mutationOnly = new GaConfig(20, 1, 0, 0.0, 1.0, 0.5, 3, 2.0);
+
+        new GeneticAlgorithmEngine(mutationOnly, evaluator).evolve(null, null);
+
+        assertEquals(2, evaluator.calls.size());
+        Set<List<Double>> parents = new HashSet<>();
+        for (Individual parent : evaluator.calls.get(0)) {
+            parents.add(Arrays.stream(parent.chromosome().genes()).boxed().toList());
+        }
+        for (Individual child : evaluator.calls.get(1)) {
+            assertEquals(-1, child.fitness());
+            double[] genes = child.chromosome().genes();
+            assertFalse(parents.contains(Arrays.stream(genes).boxed().toList()), "Child is an unmutated copy of a parent");
+        }
+    }
+
+    @Test
+    @DisplayName("Unchanged copies of a parent should keep the parent's fitness instead of being re-evaluated")
+    void testUnchangedOffspringKeepFitness() {
+        RecordingEvaluator evaluator = new RecordingEvaluator();
+        GaConfig copyOnly = new GaConfig(20, 1, 0, 0.0, 0.0, 0.5, 3, 2.0);
+
+        new GeneticAlgorithmEngine(copyOnly, evaluator).evolve(null, null);
+
+        for (Individual child : evaluator.calls.get(1)) {
+            assertEquals(SphereEvaluator.fitness(child.chromosome().genes()), child.fitness());
+        }
+    }
+
+    @Test
+    @DisplayName("A run resumed from a checkpoint should end exactly like the uninterrupted run")
+    void testResumeMatchesUninterruptedRun(@TempDir Path directory) throws IOException {
+        SphereEvaluator evaluator = new SphereEvaluator();
+        List<Individual> initial = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            initial.add(new Individual(evaluator.createRandomChromosome(), -1));
+        }
+
+        GeneticAlgorithmEngine uninterrupted = new GeneticAlgorithmEngine(config(20), evaluator, RandomStreams.create(11));
+        uninterrupted.setCheckpointing(directory.resolve("full.fgcp"), 5);
+        Individual expected = uninterrupted.evolve(initial, null);
+
+        // The same run, stopped after 10 generations
+        Path file = directory.resolve("run.fgcp");
+        GeneticAlgorithmEngine interrupted = new GeneticAlgorithmEngine(config(10), evaluator, RandomStreams.create(11));
+        interrupted.setCheckpointing(file, 5);
+        interrupted.evolve(initial, null);
+        assertFalse(Files.exists(directory.resolve("run.fgcp.tmp")));
+
+        Checkpoint checkpoint = Checkpoint.read(file);
+        assertEquals(10, checkpoint.generation());
+        GeneticAlgorithmEngine resumed = new GeneticAlgorithmEngine(config(20), evaluator, RandomStreams.create());
+        resumed.setCheckpointing(file, 5);
+        Individual actual = resumed.resume(checkpoint, null);
+
+        assertArrayEquals(expected.chromosome().genes(), actual.chromosome().genes());
+        assertEquals(expected.fitness(), actual.fitness());
+    }
+
+    @Test
+    @DisplayName("Checkpoints should survive a round trip through their binary file")
+    void testCheckpointRoundTrip(@TempDir Path directory) throws IOException {
+        Individual evaluated = new Individual(new Chromosome(new double[]{1, -2, 3.5}), 0.25);
+        Individual pending = new Individual(new Chromosome(new double[]{0, 0.5, -1}), -1);
+        Path file = directory.resolve("checkpoint.fgcp");
+
+        new Checkpoint(7, 42L, List.of(evaluated, pending), evaluated).write(file);
+        Checkpoint read = Checkpoint.read(file);
+
+        assertEquals(7, read.generation());
+        assertEquals(42L, read.randomSeed());
+        assertArrayEquals(pending.chromosome().genes(), read.population().get(1).chromosome().genes());
+        assertEquals(-1, read.population().get(1).fitness());
+        assertEquals(0.25, read.bestEver().fitness());
+
+        new Checkpoint(0, 1L, List.of(pending), null).write(file);
+        assertNull(Checkpoint.read(file).bestEver());
+
+        Files.write(file, new byte[]{'F', 'G', 'D', 'S'});
+        assertThrows(IOException.class, () -> Checkpoint.read(file));
+
+        // Population sizes and chromosome lengths that do not fit in the file are rejected before allocating
+        for (int[] header : new int[][]{{3, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 1}, {-1, 1}, {3, -5}}) {
+            ByteBuffer bytes = ByteBuffer.allocate(28 + 4 * 8 + 1);
+            bytes.put(Checkpoint.MAGIC).putInt(Checkpoint.VERSION).putInt(0).putLong(1L).putInt(header[0]).putInt(header[1]);
+            Files.write(file, bytes.array());
+            assertThrows(IOException.class, () -> Checkpoint.read(file));
+        }
+    }
+
+    @Test
+    @DisplayName("Listeners should receive the metrics of every generation from both generation loops")
+    void testGenerationMetrics() {
+        for (boolean buffered : new boolean[]{false, true}) {
+            GeneticAlgorithmEngine engine = new GeneticAlgorithmEngine(config(6), new SphereEvaluator(), RandomStreams.create(5));
+            List<GenerationMetrics> metrics = new ArrayList<>();
+            engine.addGenerationListener(metrics::add);
+
+            if (buffered) {
+                engine.evolveBuffered(null, null);
+            } else {
+                engine.evolve(null, null);
+            }
+
+            assertEquals(6, metrics.size());
+            GenerationMetrics first = metrics.get(0);
+            assertEquals(0, first.generation());
+            assertEquals(40, first.evaluations());
+            assertEquals(-1, first.cacheHits());
+            assertTrue(first.evaluationNanos() > 0 && first.breedingNanos() > 0);
+            assertTrue(first.evaluationsPerSecond() > 0);
+            assertTrue(first.bestFitness() >= first.medianFitness() && first.medianFitness() > 0);
+            assertTrue(first.fitnessStdDev() > 0 && first.diversity() > 0);
+            // Elites keep their fitness and are not evaluated again
+            assertTrue(metrics.get(1).evaluations() <= 40 - 2);
+        }
+    }
+
+    @Test
+    @DisplayName("Population statistics should be computed over the given rows only")
+    void testMetricsStatistics() {
+        double[][] genes = {{0, 1}, {2, 1}, {4, 1}, {99, 99}};
+        double[] fitness = {0.1, 0.4, 0.3, 1.0};
+        GenerationMetrics metrics = GenerationMetrics.of(3, 2_000_000_000L, 0, 4, 0, 1000, genes, fitness, 3);
+
+        assertEquals(0.4, metrics.bestFitness());
+        assertEquals(0.3, metrics.medianFitness());
+        assertEquals((0.1 + 0.4 + 0.3) / 3, metrics.meanFitness(), 1e-12);
+        // Gene 0 spreads over {0, 2, 4} (standard deviation sqrt(8/3)), gene 1 not at all
+        assertEquals(Math.sqrt(8.0 / 3) / 2, metrics.diversity(), 1e-12);
+        assertEquals(2.0, metrics.evaluationsPerSecond(), 1e-12);
+        assertEquals(500.0, metrics.allocationRate(), 1e-9);
+    }
+}
@@ -0,0 +1,276 @@
+package com.fuzzyga.ga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IslandCoordinatorTest {
+
+    private static GaConfig config(int islands) {
+        return new GaConfig(20, 30, 2, 0.9, 0.2, 0.3, 3, 2.0, islands, 5, 2, MigrationTopology.RING);
+    }
+
+    @Test
+    @DisplayName("Workers connected over localhost should evolve islands and report the global best")
+    void testCoordinatorWithLocalWorkers() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        try (IslandCoordinator coordinator = new IslandCoordinator(config(3), 0)) {
+            List<Future<Individual>> workers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                IslandWorker worker = new IslandWorker(new GeneticAlgorithmEngineTest.SphereEvaluator());
+                workers.add(threads.submit(() -> worker.run("localhost", coordinator.getPort(), null)));
+            }
+
+            Individual best = coordinator.run(RandomStreams.create(1));
+
+            assertEquals(GeneticAlgorithmEngineTest.SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+            for (Future<Individual> worker : workers) {
+                assertTrue(worker.get().fitness() <= best.fitness());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * A sphere evaluator with its optimum at {@code center}, standing in for a worker that trains on its own shard.
+     */
+    private static final class ShardEvaluator implements FitnessEvaluator {
+        private final double center;
+        private final Random random = new Random(4);
+
+        private ShardEvaluator(double center) {
+            this.center = center;
+        }
+
+        @Override
+        public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService) {
+            List<Individual> evaluated = new ArrayList<>();
+            for (Individual individual : population) {
+                evaluated.add(individual.fitness() >= 0 ? individual
+                    : new Individual(individual.chromosome(), fitness(individual.chromosome().genes())));
+            }
+            return evaluated;
+        }
+
+        @Override
+        public Chromosome createRandomChromosome() {
+            return createRandomChromosome(random);
+        }
+
+        @Override
+        public Chromosome createRandomChromosome(RandomGenerator random) {
+            double[] genes = new double[4];
+            for (int i = 0; i < genes.length; i++) {
+                genes[i] = random.nextDouble(-5, 5);
+            }
+            return new Chromosome(genes);
+        }
+
+        private double fitness(double[] genes) {
+            double sum = 0;
+            for (double gene : genes) {
+                sum += (gene - center) * (gene - center);
+            }
+            return 1.0 / (1.0 + sum);
+        }
+    }
+
+    @Test
+    @DisplayName("Workers training on different data should score immigrants on their own data")
+    void testWorkersOnDifferentShards() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try (IslandCoordinator coordinator = new IslandCoordinator(config(2), 0)) {
+            List<ShardEvaluator> evaluators = List.of(new ShardEvaluator(0), new ShardEvaluator(3));
+            List<Future<Individual>> workers = new ArrayList<>();
+            for (ShardEvaluator evaluator : evaluators) {
+                IslandWorker worker = new IslandWorker(evaluator);
+                workers.add(threads.submit(() -> worker.run("localhost", coordinator.getPort(), null)));
+            }
+
+            Individual best = coordinator.run(RandomStreams.create(5));
+
+            double[] genes = best.chromosome().genes();
+            assertTrue(best.fitness() == evaluators.get(0).fitness(genes) || best.fitness() == evaluators.get(1).fitness(genes));
+            for (int i = 0; i < evaluators.size(); i++) {
+                Individual workerBest = workers.get(i).get();
+                // A migrant from the other shard must not keep the fitness it had there
+                assertEquals(evaluators.get(i).fitness(workerBest.chromosome().genes()), workerBest.fitness());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("The coordinator should drop a worker that disconnects and finish with the others")
+    void testWorkerLoss() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        try (IslandCoordinator coordinator = new IslandCoordinator(config(3), 0)) {
+            coordinator.setWorkerTimeout(Duration.ofSeconds(30));
+            List<Future<Individual>> workers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                IslandWorker worker = new IslandWorker(new GeneticAlgorithmEngineTest.SphereEvaluator());
+                workers.add(threads.submit(() -> worker.run("localhost", coordinator.getPort(), null)));
+            }
+            // A worker that hangs up as soon as it is started
+            threads.submit(() -> {
+                try (Socket socket = new Socket("localhost", coordinator.getPort())) {
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    IslandProtocol.writeHandshake(out);
+                    out.flush();
+                    IslandProtocol.expect(new DataInputStream(socket.getInputStream()), IslandProtocol.START);
+                }
+                return null;
+            });
+
+            Individual best = coordinator.run(RandomStreams.create(2));
+
+            assertEquals(GeneticAlgorithmEngineTest.SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+            for (Future<Individual> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts {@code DistributedApp worker} in a child JVM on the test classpath, training on the bundled dataset.
+     */
+    private static Process startWorker(int port, Path log) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "--enable-preview", "--add-modules", "jdk.incubator.vector",
+                "-cp", System.getProperty("java.class.path"),
+                "com.fuzzyga.app.DistributedApp", "worker", "localhost", String.valueOf(port))
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+    }
+
+    private static String output(Path log) {
+        try {
+            return Files.readString(log);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void awaitExit(Process process, int expected, Path log) throws Exception {
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Worker did not exit");
+        assertEquals(expected, process.exitValue(), () -> output(log));
+    }
+
+    @Test
+    @DisplayName("Workers running as separate processes should evolve islands and exit once stopped")
+    void testCoordinatorWithWorkerProcesses(@TempDir Path directory) throws Exception {
+        List<Process> processes = new ArrayList<>();
+        try (IslandCoordinator coordinator = new IslandCoordinator(config(3), 0)) {
+            coordinator.setWorkerTimeout(Duration.ofSeconds(60));
+            for (int i = 0; i < 3; i++) {
+                processes.add(startWorker(coordinator.getPort(), directory.resolve("worker" + i + ".log")));
+            }
+
+            Individual best = coordinator.run(RandomStreams.create(3));
+
+            assertTrue(best.fitness() > 0 && best.fitness() <= 1, "Fitness " + best.fitness());
+            for (int i = 0; i < 3; i++) {
+                Path log = directory.resolve("worker" + i + ".log");
+                awaitExit(processes.get(i), 0, log);
+                assertTrue(Files.readString(log).contains("Island finished with best fitness"), Files.readString(log));
+            }
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+    }
+
+    @Test
+    @DisplayName("The coordinator should drop a worker process that is killed after it was started")
+    void testKilledWorkerProcess(@TempDir Path directory) throws Exception {
+        List<Process> processes = new ArrayList<>();
+        try (IslandCoordinator coordinator = new IslandCoordinator(config(3), 0)) {
+            coordinator.setWorkerTimeout(Duration.ofSeconds(60));
+            ExecutorService thread = Executors.newSingleThreadExecutor();
+            try {
+                Future<Individual> run = thread.submit(() -> coordinator.run(RandomStreams.create(4)));
+
+                // Kill the first worker once the coordinator has started its island, before the others connect
+                Path killedLog = directory.resolve("killed.log");
+                Process killed = startWorker(coordinator.getPort(), killedLog);
+                processes.add(killed);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+                while (!Files.readString(killedLog).contains("Evolving island")) {
+                    assertTrue(killed.isAlive() && System.nanoTime() < deadline, () -> output(killedLog));
+                    Thread.sleep(20);
+                }
+                killed.destroyForcibly();
+                assertTrue(killed.waitFor(60, TimeUnit.SECONDS));
+                assertNotEquals(0, killed.exitValue());
+
+                for (int i = 0; i < 2; i++) {
+                    processes.add(startWorker(coordinator.getPort(), directory.resolve("worker" + i + ".log")));
+                }
+
+                Individual best = run.get(120, TimeUnit.SECONDS);
+
+                assertTrue(best.fitness() > 0 && best.fitness() <= 1, "Fitness " + best.fitness());
+                for (int i = 0; i < 2; i++) {
+                    awaitExit(processes.get(i + 1), 0, directory.resolve("worker" + i + ".log"));
+                }
+            } finally {
+                thread.shutdownNow();
+            }
+        } finally {
+            processes.forEach(Process::destroyForcibly);
+        }
+    }
+
+    @Test
+    @DisplayName("Individuals and configurations should survive a round trip through the protocol")
+    void testProtocolRoundTrip() throws IOException {
+        Individual individual = new Individual(new Chromosome(new double[]{1.5, -2.25, Math.PI}), 0.75);
+        GaConfig config = new GaConfig(30, 7, 1, 0.5, 0.1, 0.2, 4, 0.9, 6, 3, 1, MigrationTopology.FULLY_CONNECTED);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        IslandProtocol.writeHandshake(out);
+        IslandProtocol.writeConfig(out, config);
+        IslandProtocol.writeIndividuals(out, List.of(individual, individual));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        IslandProtocol.readHandshake(in);
+        assertEquals(config, IslandProtocol.readConfig(in));
+        List<Individual> individuals = IslandProtocol.readIndividuals(in);
+        assertEquals(2, individuals.size());
+        assertArrayEquals(individual.chromosome().genes(), individuals.get(1).chromosome().genes());
+        assertEquals(0.75, individuals.get(1).fitness());
+
+        DataInputStream garbage = new DataInputStream(new ByteArrayInputStream(new byte[]{'H', 'T', 'T', 'P', 0, 0, 0, 1}));
+        assertThrows(IOException.class, () -> IslandProtocol.readHandshake(garbage));
+    }
+}
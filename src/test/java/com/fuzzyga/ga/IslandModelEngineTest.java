@@ -0,0 +1,79 @@
+package com.fuzzyga.ga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IslandModelEngineTest {
+
+    private static GaConfig config(int islands, MigrationTopology topology) {
+        return new GaConfig(20, 40, 2, 0.9, 0.2, 0.3, 3, 2.0, islands, 5, 2, topology);
+    }
+
+    @Test
+    @DisplayName("Islands should improve on their initial population and return a correctly scored individual")
+    void testEvolveImproves() {
+        GeneticAlgorithmEngineTest.SphereEvaluator evaluator = new GeneticAlgorithmEngineTest.SphereEvaluator();
+        List<Individual> initial = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            initial.add(new Individual(evaluator.createRandomChromosome(), -1));
+        }
+        double initialBest = evaluator.evaluatePopulation(initial, null).stream()
+            .mapToDouble(Individual::fitness).max().orElseThrow();
+
+        Individual best = new IslandModelEngine(config(4, MigrationTopology.RING), evaluator, RandomStreams.create(1))
+            .evolve(initial, null);
+
+        assertEquals(GeneticAlgorithmEngineTest.SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+        assertTrue(best.fitness() > initialBest, "Expected " + best.fitness() + " > " + initialBest);
+    }
+
+    @Test
+    @DisplayName("Concurrent islands should give the same result as islands run in turn with the same seed")
+    void testConcurrentMatchesSerial() {
+        GaConfig config = config(4, MigrationTopology.FULLY_CONNECTED);
+        List<Individual> initial = new ArrayList<>();
+        GeneticAlgorithmEngineTest.SphereEvaluator evaluator = new GeneticAlgorithmEngineTest.SphereEvaluator();
+        for (int i = 0; i < 80; i++) {
+            initial.add(new Individual(evaluator.createRandomChromosome(), -1));
+        }
+
+        Individual serial = new IslandModelEngine(config, evaluator, RandomStreams.create(7)).evolve(initial, null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Individual concurrent = new IslandModelEngine(config, evaluator, RandomStreams.create(7)).evolve(initial, executor);
+            assertArrayEquals(serial.chromosome().genes(), concurrent.chromosome().genes());
+            assertEquals(serial.fitness(), concurrent.fitness());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Migration topologies should list the islands each island receives migrants from")
+    void testTopologySources() {
+        assertEquals(List.of(3), MigrationTopology.RING.sources(0, 4));
+        assertEquals(List.of(1), MigrationTopology.RING.sources(2, 4));
+        assertEquals(List.of(0, 1, 3), MigrationTopology.FULLY_CONNECTED.sources(2, 4));
+        assertEquals(List.of(), MigrationTopology.RING.sources(0, 1));
+    }
+
+    @Test
+    @DisplayName("The configuration should default to a single island and reject invalid island settings")
+    void testConfigDefaults() {
+        GaConfig single = new GaConfig(20, 10, 2, 0.9, 0.2, 0.3, 3, 2.0);
+        assertEquals(1, single.islandCount());
+        assertEquals(MigrationTopology.RING, single.migrationTopology());
+        assertThrows(IllegalArgumentException.class, () -> config(0, MigrationTopology.RING));
+        assertThrows(IllegalArgumentException.class, () -> config(2, null));
+    }
+}
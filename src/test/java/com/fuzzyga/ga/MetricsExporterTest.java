@@ -0,0 +1,45 @@
+package com.fuzzyga.ga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsExporterTest {
+
+    private static final GenerationMetrics METRICS =
+        new GenerationMetrics(2, 1_000_000, 500, 10, -1, 2048, 0.9, 0.5, 0.45, 0.1, Double.NaN);
+
+    @Test
+    @DisplayName("The CSV exporter should write a header and one row per generation")
+    void testCsv() throws IOException {
+        StringWriter out = new StringWriter();
+        try (MetricsExporter exporter = new MetricsExporter(out, MetricsExporter.Format.CSV)) {
+            exporter.onGeneration(METRICS);
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("generation,evaluationNanos,breedingNanos,evaluations,evaluationsPerSecond,cacheHits,"
+            + "allocatedBytes,allocationRate,bestFitness,meanFitness,medianFitness,fitnessStdDev,diversity", lines[0]);
+        assertEquals("2,1000000,500,10,10000.0,-1,2048,2046976.5117441278,0.9,0.5,0.45,0.1,", lines[1]);
+    }
+
+    @Test
+    @DisplayName("The JSON lines exporter should write one object per generation, with null for non-finite values")
+    void testJsonLines() throws IOException {
+        StringWriter out = new StringWriter();
+        try (MetricsExporter exporter = new MetricsExporter(out, MetricsExporter.Format.JSON_LINES)) {
+            exporter.onGeneration(METRICS);
+            exporter.onGeneration(METRICS);
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"generation\":2,\"evaluationNanos\":1000000,\"breedingNanos\":500,\"evaluations\":10,"
+            + "\"evaluationsPerSecond\":10000.0,\"cacheHits\":-1,\"allocatedBytes\":2048,"
+            + "\"allocationRate\":2046976.5117441278,\"bestFitness\":0.9,\"meanFitness\":0.5,\"medianFitness\":0.45,"
+            + "\"fitnessStdDev\":0.1,\"diversity\":null}", lines[0]);
+    }
+}
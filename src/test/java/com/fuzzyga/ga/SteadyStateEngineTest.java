@@ -0,0 +1,82 @@
+package com.fuzzyga.ga;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SteadyStateEngineTest {
+
+    private static final GaConfig CONFIG = new GaConfig(30, 40, 2, 0.9, 0.2, 0.3, 3, 2.0);
+
+    /**
+     * A sphere evaluator whose single-individual evaluations take a random time, like a dataset of uneven cost.
+     */
+    private static final class SlowEvaluator implements FitnessEvaluator {
+        private final GeneticAlgorithmEngineTest.SphereEvaluator delegate = new GeneticAlgorithmEngineTest.SphereEvaluator();
+
+        @Override
+        public List<Individual> evaluatePopulation(List<Individual> population, ExecutorService executorService) {
+            return delegate.evaluatePopulation(population, executorService);
+        }
+
+        @Override
+        public Individual evaluate(Individual individual) {
+            LockSupport.parkNanos(new Random().nextInt(200_000));
+            return FitnessEvaluator.super.evaluate(individual);
+        }
+
+        @Override
+        public Chromosome createRandomChromosome() {
+            return delegate.createRandomChromosome();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent workers should improve on the initial population and return a correctly scored individual")
+    void testEvolveImproves() {
+        SlowEvaluator evaluator = new SlowEvaluator();
+        List<Individual> initial = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            initial.add(new Individual(evaluator.createRandomChromosome(), -1));
+        }
+        double initialBest = evaluator.evaluatePopulation(initial, null).stream()
+            .mapToDouble(Individual::fitness).max().orElseThrow();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            SteadyStateEngine engine = new SteadyStateEngine(CONFIG, evaluator, RandomStreams.create(1));
+            Individual best = engine.evolve(initial, executor, 4);
+
+            assertEquals(GeneticAlgorithmEngineTest.SphereEvaluator.fitness(best.chromosome().genes()), best.fitness());
+            assertTrue(best.fitness() > initialBest, "Expected " + best.fitness() + " > " + initialBest);
+            long budget = (long) CONFIG.maxGenerations() * CONFIG.populationSize();
+            assertTrue(engine.getEvaluationCount() > 0 && engine.getEvaluationCount() <= budget);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A single worker on the calling thread should stop once the threshold is reached and reject bad input")
+    void testSerialStopsAtThreshold() {
+        GaConfig easy = new GaConfig(30, 1000, 2, 0.9, 0.2, 0.3, 3, 0.05);
+        SteadyStateEngine engine = new SteadyStateEngine(easy, new GeneticAlgorithmEngineTest.SphereEvaluator(), RandomStreams.create(2));
+
+        Individual best = engine.evolve(null, null, 1);
+
+        assertTrue(best.fitness() >= 0.05);
+        assertTrue(engine.getEvaluationCount() < 30_000);
+        assertThrows(IllegalArgumentException.class, () -> engine.evolve(null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> engine.evolve(List.of(), null, 1));
+    }
+}
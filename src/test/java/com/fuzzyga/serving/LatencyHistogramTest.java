@@ -0,0 +1,47 @@
+package com.fuzzyga.serving;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Every value should fall in a bucket whose top is within 1/32 above it")
+    void testBucketPrecision() {
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int bucket = LatencyHistogram.bucket(value);
+            long top = LatencyHistogram.highestValue(bucket);
+            assertTrue(top >= value, value + " above its bucket top " + top);
+            assertTrue(bucket == 0 || LatencyHistogram.highestValue(bucket - 1) < value);
+            assertTrue(top - value <= Math.max(0, value / 32), value + " too far from " + top);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    @DisplayName("Percentiles should match the exact ranks within the bucket precision")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(0.99));
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500_000, histogram.percentile(0.5), 500_000 / 32.0);
+        assertEquals(990_000, histogram.percentile(0.99), 990_000 / 32.0);
+        assertEquals(1_000_000, histogram.percentile(1.0), 1_000_000 / 32.0);
+        assertThrows(IllegalArgumentException.class, () -> histogram.percentile(1.5));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+}
@@ -0,0 +1,172 @@
+package com.fuzzyga.serving;
+
+import com.fuzzyga.fuzzy.GridTskSystem;
+import com.fuzzyga.fuzzy.InputVariable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringServerTest {
+
+    private GridTskSystem system;
+    private ScoringServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        List<InputVariable> variables = List.of(new InputVariable("x"), new InputVariable("y"));
+        Random random = new Random(42);
+        double[] parameters = new double[GridTskSystem.parameterCount(2, 3)];
+        for (int i = 0; i < parameters.length; i++) {
+            // Centers and widths come in pairs at the front; widths must be positive
+            parameters[i] = (i < 12 && i % 2 == 1) ? 1.0 + random.nextDouble() : random.nextDouble() * 4 - 1;
+        }
+        system = GridTskSystem.of(variables, 3, parameters);
+        server = new ScoringServer(system, new InetSocketAddress("localhost", 0), 2, 64);
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        client.close();
+    }
+
+    private HttpResponse<String> post(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/predict"))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double metric(String metrics, String name) {
+        for (String line : metrics.split("\n")) {
+            if (line.startsWith(name + " ")) {
+                return Double.parseDouble(line.substring(name.length() + 1));
+            }
+        }
+        throw new AssertionError("No metric " + name + " in " + metrics);
+    }
+
+    @Test
+    @DisplayName("Single and batched requests should return the outputs of the model, in row order")
+    void testPredict() throws Exception {
+        HttpResponse<String> single = post("1.5 0.25\n");
+        assertEquals(200, single.statusCode());
+        assertEquals(system.calculate(new double[]{1.5, 0.25}), Double.parseDouble(single.body().trim()));
+
+        // More rows than a block, with blank lines and mixed separators
+        StringBuilder body = new StringBuilder();
+        double[][] rows = new double[150][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new double[]{i / 50.0, 2 - i / 75.0};
+            body.append(rows[i][0]).append('\t').append(rows[i][1]).append(i % 10 == 0 ? "\r\n\n" : "\n");
+        }
+        HttpResponse<String> batch = post(body.toString());
+        assertEquals(200, batch.statusCode());
+        String[] lines = batch.body().split("\n");
+        assertEquals(rows.length, lines.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(system.calculate(rows[i]), Double.parseDouble(lines[i]), 1e-12);
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent requests should be coalesced into shared blocks and reported in the metrics")
+    void testConcurrentRequests() throws Exception {
+        int requests = 2000;
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                String body = (i % 7) / 3.0 + " " + (i % 5) / 2.0;
+                responses.add(threads.submit(() -> post(body)));
+            }
+            for (int i = 0; i < requests; i++) {
+                HttpResponse<String> response = responses.get(i).get();
+                assertEquals(200, response.statusCode());
+                double expected = system.calculate(new double[]{(i % 7) / 3.0, (i % 5) / 2.0});
+                assertEquals(expected, Double.parseDouble(response.body().trim()), 1e-12);
+            }
+        }
+
+        String metrics = get("/metrics").body();
+        assertTrue(metrics.contains("requests " + requests + "\n"), metrics);
+        // Requests that arrive while the workers are busy share a block
+        assertTrue(metric(metrics, "blocks") < requests, metrics);
+        assertTrue(metric(metrics, "rows_per_block") > 1, metrics);
+        assertTrue(metrics.contains("failed 0\n"), metrics);
+        assertTrue(metrics.contains("latency_count " + requests + "\n"), metrics);
+        assertTrue(metrics.contains("latency_p99_us "), metrics);
+        assertEquals(requests, server.latencies().count());
+        assertTrue(server.latencies().percentile(0.5) <= server.latencies().percentile(0.99));
+    }
+
+    @Test
+    @DisplayName("Bodies over the size limit should be refused, whether or not their length is declared")
+    void testOversizedBodies() throws Exception {
+        server.setMaxBodyBytes(64);
+        String large = "1.5 0.25\n".repeat(10);
+        assertEquals(413, post(large).statusCode());
+
+        // Streamed without a Content-Length, so only the read itself can enforce the limit
+        HttpRequest chunked = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/predict"))
+            .POST(HttpRequest.BodyPublishers.ofInputStream(
+                () -> new ByteArrayInputStream(large.getBytes(StandardCharsets.US_ASCII))))
+            .build();
+        assertEquals(413, client.send(chunked, HttpResponse.BodyHandlers.ofString()).statusCode());
+
+        assertEquals(200, post("1.5 0.25\n").statusCode());
+        assertTrue(get("/metrics").body().contains("oversized 2\n"));
+        assertThrows(IllegalArgumentException.class, () -> server.setMaxBodyBytes(0));
+    }
+
+    @Test
+    @DisplayName("Parsing should grow its buffer past the initial capacity and keep the values in order")
+    void testParseManyRows() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            body.append(i).append(' ').append(-i).append('\n');
+        }
+        double[] values = server.parseRows(body.toString().getBytes(StandardCharsets.US_ASCII));
+        assertEquals(6000, values.length);
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(i, values[2 * i]);
+            assertEquals(-i, values[2 * i + 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed rows and wrong methods should be rejected without scoring")
+    void testBadRequests() throws Exception {
+        assertEquals(400, post("1.0\n").statusCode());
+        assertEquals(400, post("1.0 2.0 3.0\n").statusCode());
+        assertEquals(400, post("1.0 abc\n").statusCode());
+        assertEquals(405, get("/predict").statusCode());
+        assertTrue(get("/metrics").body().contains("malformed 3\n"));
+        assertEquals("inputs x y\nsets 3\nrules 9\n", get("/model").body());
+    }
+}